@@ -0,0 +1,148 @@
+package com.construction_worker_forum_back.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker of the notification service over the outcomes of the last {@code window-size} calls.
+ * <p>
+ * CLOSED lets every call through and opens once at least {@code minimum-calls} were recorded and the share of failed
+ * or of slow calls reaches its threshold. OPEN rejects calls for {@code wait-in-open}, then HALF_OPEN lets
+ * {@code half-open-calls} trial calls through: all of them succeeding in time closes the circuit, any failed or slow
+ * one opens it again. Only failures telling something about the health of the service (connection problems,
+ * timeouts, 429, 5xx) should be recorded as failures.
+ */
+@Slf4j
+@Component
+public class NotificationCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final int[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long waitInOpenNanos;
+    private final int halfOpenCalls;
+    private final MeterRegistry meterRegistry;
+    private final Counter shortCircuitedCounter;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private int slow;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public NotificationCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${notification.circuit.window-size:20}") int windowSize,
+            @Value("${notification.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${notification.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${notification.circuit.slow-call-duration:PT2S}") Duration slowCallDuration,
+            @Value("${notification.circuit.slow-call-rate-threshold:0.5}") double slowCallRateThreshold,
+            @Value("${notification.circuit.wait-in-open:PT30S}") Duration waitInOpen,
+            @Value("${notification.circuit.half-open-calls:3}") int halfOpenCalls
+    ) {
+        this.outcomes = new int[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.waitInOpenNanos = waitInOpen.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.meterRegistry = meterRegistry;
+        this.shortCircuitedCounter = meterRegistry.counter("notification.circuit.short_circuited");
+        Gauge.builder("notification.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return whether a call may be made now, every permitted call has to be followed by {@link #onResult}
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= waitInOpenNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        shortCircuitedCounter.increment();
+        return false;
+    }
+
+    public synchronized void onResult(long durationNanos, boolean failure) {
+        int outcome = (failure ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0);
+        if (state == State.HALF_OPEN) {
+            if (outcome != 0) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(outcome);
+            if (recorded >= minimumCalls
+                    && (failed >= failureRateThreshold * recorded || slow >= slowCallRateThreshold * recorded)) {
+                transitionTo(State.OPEN);
+            }
+        }
+        // a result arriving while open belongs to a call started before, it doesn't change the state
+    }
+
+    private void record(int outcome) {
+        if (recorded == outcomes.length) {
+            int evicted = outcomes[next];
+            failed -= evicted & FAILED;
+            slow -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        failed += outcome & FAILED;
+        slow += (outcome & SLOW) >> 1;
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State target) {
+        log.warn("Notification circuit breaker {} -> {} ({} failed and {} slow of the last {} calls)",
+                state, target, failed, slow, recorded);
+        meterRegistry.counter("notification.circuit.transitions", "from", state.name(), "to", target.name()).increment();
+        state = target;
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                failed = 0;
+                slow = 0;
+                next = 0;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.construction_worker_forum_back.client;
 
 import com.construction_worker_forum_back.model.Notification;
+import io.netty.channel.ChannelOption;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
@@ -10,32 +11,64 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import javax.net.ssl.SSLException;
+import java.time.Duration;
+import java.util.List;
 
+/**
+ * HTTP client of the notification service. Connections come from a bounded pool, a request waiting for a connection
+ * or a response longer than configured fails, retrying is up to the caller, see NotificationDispatchService.
+ */
 @Service
 public class NotificationClient {
 
     private final WebClient webClient;
+    private final String bulkPath;
 
     SslContext context = SslContextBuilder.forClient()
             .trustManager(InsecureTrustManagerFactory.INSTANCE)
             .build();
 
-    HttpClient httpClient = HttpClient.create().secure(t -> t.sslContext(context));
-
-    public NotificationClient(@Value("${notification.service.url}") String url) throws SSLException {
+    public NotificationClient(
+            @Value("${notification.service.url}") String url,
+            @Value("${notification.service.bulk-path:/bulk}") String bulkPath,
+            @Value("${notification.client.max-connections:50}") int maxConnections,
+            @Value("${notification.client.pending-acquire-timeout:PT2S}") Duration pendingAcquireTimeout,
+            @Value("${notification.client.max-idle-time:PT30S}") Duration maxIdleTime,
+            @Value("${notification.client.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${notification.client.response-timeout:PT5S}") Duration responseTimeout
+    ) throws SSLException {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("notification-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        if (url.startsWith("https")) {
+            httpClient = httpClient.secure(t -> t.sslContext(context));
+        }
+        this.bulkPath = bulkPath;
         webClient = WebClient.builder()
                 .baseUrl(url)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 
-    public Mono<Notification> sendNotification(Notification notification) {
+    /**
+     * Sends the notifications with one request to the bulk endpoint of the service.
+     */
+    public Mono<Void> sendNotifications(List<Notification> notifications) {
         return webClient.post()
-                .bodyValue(notification)
+                .uri(bulkPath)
+                .bodyValue(notifications)
                 .retrieve()
-                .bodyToMono(Notification.class);
+                .toBodilessEntity()
+                .then();
     }
 
 }
@@ -0,0 +1,27 @@
+package com.construction_worker_forum_back.config.chat;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+public class RedisBrokerConfig {
+
+    /**
+     * Listens on the channel of this instance for messages sent to its subscribers on other instances.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisBrokerListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RedisBrokerRelay redisBrokerRelay
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(redisBrokerRelay, new ChannelTopic(redisBrokerRelay.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,240 @@
+package com.construction_worker_forum_back.config.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fans messages to {@code /user/{id}/...} out to the instances holding a subscription of that user,
+ * so sender and recipient may be connected to different instances.
+ * <p>
+ * Every instance keeps its subscribers in the local simple broker and registers itself in the Redis set
+ * {@code chat:broker:nodes:<userId>} while it holds a subscription of the user. A message sent on one instance
+ * is delivered locally as before and published to the Redis channel of every other registered instance,
+ * which hands it to its own broker. An instance that stopped without unregistering is removed from the set
+ * as soon as a publish to it reaches no listener.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "redis")
+public class RedisBrokerRelay implements ChannelInterceptor, MessageListener {
+
+    static final String RELAYED_HEADER = "relayed";
+    private static final Pattern USER_DESTINATION = Pattern.compile("^/user/([^/]+)/.+");
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Envelope {
+        private String destination;
+        private String contentType;
+        private byte[] payload;
+    }
+
+    private final String nodeId = UUID.randomUUID().toString();
+    /**
+     * Subscribed user per subscription id per session.
+     */
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> localSubscribers = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+
+    public RedisBrokerRelay(
+            StringRedisTemplate redisTemplate,
+            @Lazy SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.publishedCounter = meterRegistry.counter("chat.broker.relayed", "direction", "out");
+        this.receivedCounter = meterRegistry.counter("chat.broker.relayed", "direction", "in");
+    }
+
+    public String getChannel() {
+        return channelOf(nodeId);
+    }
+
+    /**
+     * Publishes user messages sent on this instance to the other instances, the local broker delivers them here.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(RELAYED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String userId = userIdOf(destination);
+        if (userId == null) {
+            return message;
+        }
+
+        try {
+            Set<String> nodes = redisTemplate.opsForSet().members(nodesKey(userId));
+            if (nodes == null || nodes.isEmpty() || nodes.equals(Set.of(nodeId))) {
+                return message;
+            }
+            MimeType contentType = SimpMessageHeaderAccessor.getContentType(message.getHeaders());
+            String envelope = objectMapper.writeValueAsString(
+                    new Envelope(destination, contentType != null ? contentType.toString() : null, payload));
+            for (String node : nodes) {
+                if (node.equals(nodeId)) {
+                    continue;
+                }
+                Long listeners = redisTemplate.convertAndSend(channelOf(node), envelope);
+                if (listeners != null && listeners == 0) {
+                    redisTemplate.opsForSet().remove(nodesKey(userId), node);
+                } else {
+                    publishedCounter.increment();
+                }
+            }
+        } catch (DataAccessException | IOException e) {
+            log.warn("Message to {} could not be relayed to other instances: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.getDestination());
+            if (envelope.getContentType() != null) {
+                accessor.setContentType(MimeType.valueOf(envelope.getContentType()));
+            }
+            accessor.setHeader(RELAYED_HEADER, true);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.send(envelope.getDestination(),
+                    MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders()));
+            receivedCounter.increment();
+        } catch (IOException e) {
+            log.warn("Relayed message could not be read: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String userId = userIdOf(accessor.getDestination());
+        if (userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        subscriptions.computeIfAbsent(accessor.getSessionId(), session -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), userId);
+        retain(userId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> sessionSubscriptions = subscriptions.get(accessor.getSessionId());
+        if (sessionSubscriptions != null && accessor.getSubscriptionId() != null) {
+            String userId = sessionSubscriptions.remove(accessor.getSubscriptionId());
+            if (userId != null) {
+                release(userId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(this::release);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void unregisterAll() {
+        localSubscribers.keySet().forEach(this::unregister);
+        localSubscribers.clear();
+    }
+
+    /**
+     * Counting and (un)registering happen together, so a concurrent last unsubscribe can't unregister a new subscriber.
+     */
+    private synchronized void retain(String userId) {
+        if (localSubscribers.merge(userId, 1, Integer::sum) == 1) {
+            register(userId);
+        }
+    }
+
+    private synchronized void release(String userId) {
+        if (localSubscribers.containsKey(userId)
+                && localSubscribers.computeIfPresent(userId, (user, count) -> count > 1 ? count - 1 : null) == null) {
+            unregister(userId);
+        }
+    }
+
+    private void register(String userId) {
+        try {
+            redisTemplate.opsForSet().add(nodesKey(userId), nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Subscription of {} could not be registered, it only gets messages sent on this instance: {}",
+                    userId, e.getMessage());
+        }
+    }
+
+    private void unregister(String userId) {
+        try {
+            redisTemplate.opsForSet().remove(nodesKey(userId), nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Subscription of {} could not be unregistered: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String userIdOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = USER_DESTINATION.matcher(destination);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static String nodesKey(String userId) {
+        return "chat:broker:nodes:" + userId;
+    }
+
+    private static String channelOf(String nodeId) {
+        return "chat:broker:" + nodeId;
+    }
+}
@@ -1,24 +1,52 @@
 package com.construction_worker_forum_back.config.chat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.MimeTypeUtils;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
-import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
-import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties(WebSocketTransportProperties.class)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+    private final WebSocketTransportProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketConfig(
+            ObjectProvider<RedisBrokerRelay> redisBrokerRelay,
+            WebSocketTransportProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.redisBrokerRelay = redisBrokerRelay;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Configures a simple in-memory message broker with one destination for sending and receiving messages.
+     * With {@code chat.broker.mode=redis} messages to users are also relayed to the other instances through Redis,
+     * see {@link RedisBrokerRelay}.
+     * The outbound channel runs on a pool, so publish order is preserved to keep the messages of one session in order.
      *
      * @param config message broker options
      */
@@ -27,6 +55,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.enableSimpleBroker("/user");
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        config.setPreservePublishOrder(true);
+        redisBrokerRelay.ifAvailable(relay -> config.configureBrokerChannel().interceptors(relay));
     }
 
     /**
@@ -37,10 +67,94 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry
+        StompWebSocketEndpointRegistration endpoint = registry
                 .addEndpoint("/ws")
-                .setAllowedOriginPatterns("*")
-                .withSockJS();
+                .setAllowedOriginPatterns("*");
+        if (properties.isSockJsEnabled()) {
+            endpoint.withSockJS();
+        }
+    }
+
+    /**
+     * Limits every session to the configured send time and buffer, a session exceeding them is a slow consumer
+     * and gets closed instead of holding an outbound thread. Such closes are counted as
+     * {@code chat.websocket.sessions.unreliable}, which also counts sessions closed for not sending a first message.
+     *
+     * @param registration WebSocket transport options
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        Counter unreliableSessions = meterRegistry.counter("chat.websocket.sessions.unreliable");
+        registration
+                .setSendTimeLimit((int) properties.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) properties.getSendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) properties.getMessageSizeLimit().toBytes())
+                .setTimeToFirstMessage((int) properties.getTimeToFirstMessage().toMillis())
+                .addDecoratorFactory(handler -> new UnreliableSessionCounter(handler, unreliableSessions));
+    }
+
+    static class UnreliableSessionCounter extends WebSocketHandlerDecorator {
+
+        private final Counter unreliableSessions;
+
+        UnreliableSessionCounter(WebSocketHandler delegate, Counter unreliableSessions) {
+            super(delegate);
+            this.unreliableSessions = unreliableSessions;
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+            if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                unreliableSessions.increment();
+            }
+            super.afterConnectionClosed(session, closeStatus);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("inbound", properties.getInbound()));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("outbound", properties.getOutbound()));
+    }
+
+    /**
+     * Bounded pool of a client channel, exposed as {@code chat.websocket.executor.*} tagged with the channel.
+     */
+    ThreadPoolTaskExecutor channelExecutor(String channel, WebSocketTransportProperties.Pool pool) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+
+        Counter rejected = meterRegistry.counter("chat.websocket.executor.rejected", "channel", channel);
+        executor.setRejectedExecutionHandler((task, threadPool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("WebSocket " + channel + " channel is saturated");
+        });
+        Gauge.builder("chat.websocket.executor.queued", executor, WebSocketConfig::queueSize)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("chat.websocket.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private static double queueSize(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            // not initialized yet
+            return 0;
+        }
     }
 
     /**
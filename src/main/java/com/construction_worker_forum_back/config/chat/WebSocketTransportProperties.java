@@ -0,0 +1,57 @@
+package com.construction_worker_forum_back.config.chat;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * WebSocket transport settings bound from {@code chat.websocket.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "chat.websocket")
+public class WebSocketTransportProperties {
+
+    /**
+     * Threads of a client channel. Threads above the core size are only started when the queue is full,
+     * a task arriving while the queue and all threads are busy is rejected.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+        private int corePoolSize = 16;
+        private int maxPoolSize = 64;
+        private int queueCapacity = 1000;
+        private Duration keepAlive = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Messages from clients to the application.
+     */
+    private Pool inbound = new Pool();
+    /**
+     * Messages from the application to clients.
+     */
+    private Pool outbound = new Pool();
+    /**
+     * How long a send to one session may take and how much may be buffered for it meanwhile,
+     * a session over either limit is a slow consumer and gets disconnected.
+     */
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(256);
+    /**
+     * Largest incoming STOMP message, bigger ones close the session.
+     */
+    private DataSize messageSizeLimit = DataSize.ofKilobytes(32);
+    /**
+     * Sessions without a first message within this time are closed.
+     */
+    private Duration timeToFirstMessage = Duration.ofSeconds(30);
+    /**
+     * Whether {@code /ws} is a SockJS endpoint, otherwise clients connect with plain WebSocket only.
+     */
+    private boolean sockJsEnabled = true;
+}
@@ -0,0 +1,154 @@
+package com.construction_worker_forum_back.config.mapper;
+
+import com.construction_worker_forum_back.model.dto.CommentDto;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
+import com.construction_worker_forum_back.model.dto.simple.*;
+import com.construction_worker_forum_back.model.entity.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Hand-written entity to DTO mappings registered as type map converters in {@link ModelMapperConfig}.
+ * They produce the same output as the STRICT reflective mapping did, without resolving properties at runtime.
+ */
+public final class EntityDtoMapper {
+
+    private EntityDtoMapper() {
+    }
+
+    public static PostDto toPostDto(Post post) {
+        if (post == null) return null;
+        return PostDto.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .user(toUserSimpleDto(post.getUser()))
+                .comments(mapToList(post.getComments(), EntityDtoMapper::toCommentSimpleDto))
+                .likers(mapToList(post.getLikers(), EntityDtoMapper::toLikerSimpleDto))
+                .followers(mapToList(post.getFollowers(), EntityDtoMapper::toFollowerSimpleDto))
+                .likersQuantity(post.getLikeCount())
+                .followersQuantity(post.getFollowerCount())
+                .topic(toTopicSimpleDto(post.getTopic()))
+                .keywords(copyKeywords(post.getKeywords()))
+                .build();
+    }
+
+    public static CommentDto toCommentDto(Comment comment) {
+        if (comment == null) return null;
+        return CommentDto.builder()
+                .id(comment.getId())
+                .content(comment.getContent())
+                .createdAt(comment.getCreatedAt())
+                .updatedAt(comment.getUpdatedAt())
+                .user(toUserSimpleDto(comment.getUser()))
+                .post(toPostSimpleDto(comment.getPost()))
+                .parentComment(toCommentSimpleDto(comment.getParentComment()))
+                .likers(mapToList(comment.getLikers(), EntityDtoMapper::toLikerSimpleDto))
+                .subCommentsQuantity(sizeOf(comment.getSubComments()))
+                .build();
+    }
+
+    public static UserDto toUserDto(User user) {
+        if (user == null) return null;
+        return UserDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .bio(user.getBio())
+                .avatar(user.getAvatar())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .accountStatus(user.getAccountStatus())
+                .userRoles(user.getUserRoles())
+                .userComments(mapToList(user.getUserComments(), EntityDtoMapper::toCommentSimpleDto))
+                .userPosts(mapToList(user.getUserPosts(), EntityDtoMapper::toPostSimpleDto))
+                .likedComments(mapToList(user.getLikedComments(), EntityDtoMapper::toCommentSimpleDto))
+                .likedPosts(mapToList(user.getLikedPosts(), EntityDtoMapper::toPostSimpleDto))
+                .followedPosts(mapToList(user.getFollowedPosts(), EntityDtoMapper::toPostSimpleDto))
+                .build();
+    }
+
+    public static TopicDto toTopicDto(Topic topic) {
+        if (topic == null) return null;
+        return TopicDto.builder()
+                .id(topic.getId())
+                .name(topic.getName())
+                .description(topic.getDescription())
+                .createdAt(topic.getCreatedAt())
+                .updatedAt(topic.getUpdatedAt())
+                .user(toUserSimpleDto(topic.getUser()))
+                .posts(mapToList(topic.getPosts(), EntityDtoMapper::toPostSimpleDto))
+                .build();
+    }
+
+    public static UserSimpleDto toUserSimpleDto(User user) {
+        if (user == null) return null;
+        return UserSimpleDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .bio(user.getBio())
+                .avatar(user.getAvatar())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .accountStatus(user.getAccountStatus())
+                .userRoles(user.getUserRoles())
+                .build();
+    }
+
+    public static PostSimpleDto toPostSimpleDto(Post post) {
+        if (post == null) return null;
+        return new PostSimpleDto(post.getId(), post.getTitle(), post.getContent(), post.getCreatedAt(), post.getUpdatedAt());
+    }
+
+    public static CommentSimpleDto toCommentSimpleDto(Comment comment) {
+        if (comment == null) return null;
+        return new CommentSimpleDto(comment.getId(), comment.getContent(), comment.getCreatedAt(), comment.getUpdatedAt());
+    }
+
+    public static TopicSimpleDto toTopicSimpleDto(Topic topic) {
+        if (topic == null) return null;
+        return new TopicSimpleDto(topic.getId(), topic.getName(), topic.getDescription(), topic.getCreatedAt(), topic.getUpdatedAt());
+    }
+
+    public static LikerSimpleDto toLikerSimpleDto(User user) {
+        if (user == null) return null;
+        return new LikerSimpleDto(user.getId(), user.getUsername());
+    }
+
+    public static FollowerSimpleDto toFollowerSimpleDto(User user) {
+        if (user == null) return null;
+        return new FollowerSimpleDto(user.getId(), user.getUsername());
+    }
+
+    private static <S, D> List<D> mapToList(Collection<S> source, Function<S, D> mapping) {
+        if (source == null) return null;
+        List<D> result = new ArrayList<>(source.size());
+        for (S element : source) {
+            result.add(mapping.apply(element));
+        }
+        return result;
+    }
+
+    private static Set<Keyword> copyKeywords(Set<Keyword> keywords) {
+        if (keywords == null) return null;
+        Set<Keyword> result = new HashSet<>();
+        for (Keyword keyword : keywords) {
+            result.add(new Keyword(keyword.getId(), keyword.getName()));
+        }
+        return result;
+    }
+
+    private static Long sizeOf(Collection<?> source) {
+        return source == null ? null : (long) source.size();
+    }
+}
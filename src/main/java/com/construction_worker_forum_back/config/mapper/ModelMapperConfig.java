@@ -2,20 +2,17 @@ package com.construction_worker_forum_back.config.mapper;
 
 import com.construction_worker_forum_back.model.dto.CommentDto;
 import com.construction_worker_forum_back.model.dto.PostDto;
-import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
-import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
 import com.construction_worker_forum_back.model.entity.Comment;
 import com.construction_worker_forum_back.model.entity.Post;
+import com.construction_worker_forum_back.model.entity.Topic;
 import com.construction_worker_forum_back.model.entity.User;
-import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.List;
-import java.util.Set;
-
 @Configuration
 public class ModelMapperConfig {
 
@@ -24,36 +21,17 @@ public class ModelMapperConfig {
         var mapper = new ModelMapper();
         mapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
 
-        Converter<Set<User>, List<LikerSimpleDto>> usersToLikersListConverter =
-                context -> context.getSource()
-                        .stream()
-                        .map(user -> mapper.map(user, LikerSimpleDto.class))
-                        .toList();
-
-        Converter<Set<User>, List<FollowerSimpleDto>> usersToFollowersListConverter =
-                context -> context.getSource()
-                        .stream()
-                        .map(user -> mapper.map(user, FollowerSimpleDto.class))
-                        .toList();
-
-        Converter<Set<Comment>, Long> subCommentsToTheirQuantity =
-                context -> (long) context.getSource().size();
-
         mapper.createTypeMap(Post.class, PostDto.class)
-                .addMappings(map -> map
-                        .using(usersToLikersListConverter)
-                        .map(Post::getLikers, PostDto::setLikers))
-                .addMappings(map -> map
-                        .using(usersToFollowersListConverter)
-                        .map(Post::getFollowers, PostDto::setFollowers));
+                .setConverter(context -> EntityDtoMapper.toPostDto(context.getSource()));
 
         mapper.createTypeMap(Comment.class, CommentDto.class)
-                .addMappings(map -> map
-                        .using(usersToLikersListConverter)
-                        .map(Comment::getLikers, CommentDto::setLikers))
-                .addMappings(map -> map
-                        .using(subCommentsToTheirQuantity)
-                        .map(Comment::getSubComments, CommentDto::setSubCommentsQuantity));
+                .setConverter(context -> EntityDtoMapper.toCommentDto(context.getSource()));
+
+        mapper.createTypeMap(User.class, UserDto.class)
+                .setConverter(context -> EntityDtoMapper.toUserDto(context.getSource()));
+
+        mapper.createTypeMap(Topic.class, TopicDto.class)
+                .setConverter(context -> EntityDtoMapper.toTopicDto(context.getSource()));
 
         return mapper;
     }
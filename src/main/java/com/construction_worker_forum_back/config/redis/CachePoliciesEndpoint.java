@@ -0,0 +1,93 @@
+package com.construction_worker_forum_back.config.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/cachepolicies}: effective settings of every cache together with its current number of entries.
+ * Shared entries are counted with SCAN, so the count is a snapshot and may include entries expiring meanwhile.
+ */
+@Endpoint(id = "cachepolicies")
+public class CachePoliciesEndpoint {
+
+    private static final long SCAN_BATCH = 1000;
+
+    private final TwoTierCacheManager cacheManager;
+    private final CachePolicyProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    public CachePoliciesEndpoint(
+            TwoTierCacheManager cacheManager,
+            CachePolicyProperties properties,
+            StringRedisTemplate redisTemplate
+    ) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachePolicy {
+        private final Duration ttl;
+        private final long nearMaximumSize;
+        private final CachePolicyProperties.SerializerType serializer;
+        private final boolean cacheNullValues;
+        private final Long nearEntries;
+        private final Long sharedEntries;
+    }
+
+    @ReadOperation
+    public Map<String, CachePolicy> cachePolicies() {
+        Map<String, CachePolicy> policies = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            TwoTierCache cache = (TwoTierCache) cacheManager.getCache(name);
+            CachePolicyProperties.Spec spec = properties.specOf(name);
+            RedisCacheConfiguration configuration = ((RedisCache) cache.getSharedCache()).getCacheConfiguration();
+            policies.put(name, new CachePolicy(
+                    configuration.getTtl(),
+                    cache.getNearCache() != null ? spec.getNearMaximumSize() : 0,
+                    spec.getSerializer(),
+                    configuration.getAllowCacheNullValues(),
+                    cache.getNearCache() != null ? cache.getNearCache().estimatedSize() : null,
+                    countSharedEntries(configuration.getKeyPrefixFor(name))));
+        }
+        return policies;
+    }
+
+    /**
+     * @return keys under the prefix without load locks, null when Redis is not available
+     */
+    private Long countSharedEntries(String keyPrefix) {
+        ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + "*").count(SCAN_BATCH).build();
+        try {
+            return redisTemplate.execute((RedisCallback<Long>) connection -> {
+                long entries = 0;
+                try (Cursor<byte[]> keys = connection.keyCommands().scan(options)) {
+                    while (keys.hasNext()) {
+                        if (!new String(keys.next(), StandardCharsets.UTF_8).endsWith(StampedeProtectedRedisCache.LOCK_SUFFIX)) {
+                            entries++;
+                        }
+                    }
+                }
+                return entries;
+            });
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+}
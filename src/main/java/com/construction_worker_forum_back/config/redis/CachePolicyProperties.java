@@ -0,0 +1,137 @@
+package com.construction_worker_forum_back.config.redis;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache settings bound from {@code cache.*}. Every cache name can override the defaults under
+ * {@code cache.specs.<name>.*}, e.g. {@code cache.specs.postCache.ttl=PT30M}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CachePolicyProperties {
+
+    public enum SerializerType {
+        JDK, COMPACT
+    }
+
+    @Getter
+    @Setter
+    public static class Spec {
+        /**
+         * Time to live in Redis, {@code cache.default-ttl} when not set.
+         */
+        private Duration ttl;
+        /**
+         * Entries kept in the in-process tier of every instance, 0 disables the tier for this cache.
+         * Redis itself is bounded by its maxmemory policy, entries of all caches carry a TTL.
+         */
+        private long nearMaximumSize;
+        private SerializerType serializer = SerializerType.COMPACT;
+        /**
+         * Whether "not found" results are cached as well, otherwise every lookup of a missing id reaches the database.
+         */
+        private boolean cacheNullValues = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Near {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class LoadLock {
+        private Duration ttl = Duration.ofSeconds(5);
+        private Duration wait = Duration.ofMillis(200);
+    }
+
+    @Getter
+    @Setter
+    public static class EarlyRefresh {
+        private double beta = 1.0;
+    }
+
+    @Getter
+    @Setter
+    public static class Serializer {
+        private int compressionThreshold = 1024;
+    }
+
+    private Duration defaultTtl = Duration.ofHours(1);
+    private double ttlJitter = 0.1;
+    private Near near = new Near();
+    private LoadLock loadLock = new LoadLock();
+    private EarlyRefresh earlyRefresh = new EarlyRefresh();
+    private Serializer serializer = new Serializer();
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * @return settings of the cache with defaults applied
+     */
+    public Spec specOf(String cacheName) {
+        Spec configured = specs.getOrDefault(cacheName, new Spec());
+        Spec effective = new Spec();
+        effective.setTtl(configured.getTtl() != null ? configured.getTtl() : defaultTtl);
+        effective.setNearMaximumSize(near.isEnabled() ? configured.getNearMaximumSize() : 0);
+        effective.setSerializer(configured.getSerializer());
+        effective.setCacheNullValues(configured.isCacheNullValues());
+        return effective;
+    }
+
+    /**
+     * Fails startup on settings which would break caching silently instead of at the first request.
+     *
+     * @param cacheNames all caches the application uses
+     * @param versionsCacheName cache holding list versions, it has to outlive the list pages using them
+     * @param listCacheNames caches whose keys contain a version
+     */
+    public void validate(Collection<String> cacheNames, String versionsCacheName, Collection<String> listCacheNames) {
+        List<String> problems = new ArrayList<>();
+        specs.keySet().stream()
+                .filter(name -> !cacheNames.contains(name))
+                .forEach(name -> problems.add("cache.specs." + name + " configures an unknown cache, known are " + cacheNames));
+        for (String name : cacheNames) {
+            Spec spec = specOf(name);
+            if (spec.getTtl().isZero() || spec.getTtl().isNegative()) {
+                problems.add("TTL of " + name + " must be positive");
+            }
+            if (spec.getNearMaximumSize() < 0) {
+                problems.add("near-maximum-size of " + name + " must not be negative");
+            }
+        }
+        Duration versionsTtl = specOf(versionsCacheName).getTtl();
+        listCacheNames.stream()
+                .filter(name -> specOf(name).getTtl().compareTo(versionsTtl) > 0)
+                .forEach(name -> problems.add("TTL of " + name + " must not exceed the TTL of " + versionsCacheName));
+        if (ttlJitter < 0 || ttlJitter >= 0.5) {
+            problems.add("cache.ttl-jitter must be at least 0 and below 0.5");
+        }
+        if (near.getTtl().isZero() || near.getTtl().isNegative()) {
+            problems.add("cache.near.ttl must be positive");
+        }
+        if (loadLock.getWait().isNegative() || loadLock.getWait().compareTo(loadLock.getTtl()) >= 0) {
+            problems.add("cache.load-lock.wait must be shorter than cache.load-lock.ttl");
+        }
+        if (earlyRefresh.getBeta() < 0) {
+            problems.add("cache.early-refresh.beta must not be negative");
+        }
+        if (serializer.getCompressionThreshold() < 0) {
+            problems.add("cache.serializer.compression-threshold must not be negative");
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid cache configuration: " + String.join("; ", problems));
+        }
+    }
+}
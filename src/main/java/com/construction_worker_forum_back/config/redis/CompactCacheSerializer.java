@@ -0,0 +1,175 @@
+package com.construction_worker_forum_back.config.redis;
+
+import com.construction_worker_forum_back.model.dto.CommentDto;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Writes cached DTOs and lists of them as Smile (binary JSON) behind a four byte header:
+ * magic, format version, flags (list, deflated) and type code.
+ * <p>
+ * Properties are matched by name, so fields can be added to or removed from a DTO without invalidating what is
+ * already cached: unknown ones are skipped, missing ones stay {@code null}. Type codes are part of the stored data,
+ * never reuse or renumber them. Values of other types, e.g. versions or null markers, are written with JDK
+ * serialization as before, and entries written by the JDK serializer are still readable, so switching a cache
+ * doesn't need a flush. Entries of an unknown format version are read as a cache miss.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 4;
+    private static final byte FLAG_LIST = 1;
+    private static final byte FLAG_DEFLATED = 1 << 1;
+
+    private static final Map<Class<?>, Byte> TYPE_CODES = Map.of(
+            PostDto.class, (byte) 1,
+            CommentDto.class, (byte) 2,
+            UserDto.class, (byte) 3,
+            TopicDto.class, (byte) 4
+    );
+    private static final Class<?>[] TYPES_BY_CODE = new Class<?>[TYPE_CODES.size() + 1];
+
+    static {
+        TYPE_CODES.forEach((type, code) -> TYPES_BY_CODE[code] = type);
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper(new SmileFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final JdkSerializationRedisSerializer fallback = new JdkSerializationRedisSerializer();
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold payloads of at least this many bytes are deflated, e.g. posts with many likers
+     */
+    public CompactCacheSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Class<?> type = value instanceof List<?> list ? elementType(list) : value.getClass();
+        Byte typeCode = type != null ? TYPE_CODES.get(type) : null;
+        if (typeCode == null) {
+            return fallback.serialize(value);
+        }
+        try {
+            byte flags = value instanceof List ? FLAG_LIST : 0;
+            byte[] payload = mapper.writeValueAsBytes(value);
+            if (payload.length >= compressionThreshold) {
+                payload = deflate(payload);
+                flags |= FLAG_DEFLATED;
+            }
+            byte[] result = new byte[HEADER_LENGTH + payload.length];
+            result[0] = MAGIC;
+            result[1] = FORMAT_VERSION;
+            result[2] = flags;
+            result[3] = typeCode;
+            System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + type.getSimpleName() + " to cache", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != FORMAT_VERSION || bytes[3] < 1 || bytes[3] >= TYPES_BY_CODE.length) {
+            return null;
+        }
+        byte flags = bytes[2];
+        Class<?> type = TYPES_BY_CODE[bytes[3]];
+        try {
+            byte[] payload = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            if ((flags & FLAG_DEFLATED) != 0) {
+                payload = inflate(payload);
+            }
+            JavaType javaType = (flags & FLAG_LIST) != 0
+                    ? mapper.getTypeFactory().constructCollectionType(List.class, type)
+                    : mapper.getTypeFactory().constructType(type);
+            return mapper.readValue(payload, javaType);
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read " + type.getSimpleName() + " from cache", e);
+        }
+    }
+
+    /**
+     * @return class shared by all elements, {@code null} when they differ; empty lists are stored as lists of posts
+     */
+    private static Class<?> elementType(List<?> list) {
+        if (list.isEmpty()) {
+            return PostDto.class;
+        }
+        Class<?> type = list.get(0) != null ? list.get(0).getClass() : null;
+        for (Object element : list) {
+            if (element == null || element.getClass() != type) {
+                return null;
+            }
+        }
+        return type;
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] payload) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated cache entry");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
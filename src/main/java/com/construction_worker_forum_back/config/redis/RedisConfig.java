@@ -1,32 +1,73 @@
 package com.construction_worker_forum_back.config.redis;
 
+import com.construction_worker_forum_back.service.ListCacheVersionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-@Profile("dev")
+@Profile({"dev", "production"})
 @Configuration
+@EnableConfigurationProperties(CachePolicyProperties.class)
 public class RedisConfig {
+
+    private static final List<String> CACHE_NAMES = List.of(
+            "postCache",
+            "commentCache",
+            "topicCache",
+            "userCache",
+            ListCacheVersionService.TOPIC_PAGES,
+            ListCacheVersionService.TOPIC_POST_PAGES,
+            ListCacheVersionService.POST_COMMENT_PAGES,
+            ListCacheVersionService.VERSIONS);
+    private static final List<String> LIST_CACHE_NAMES = List.of(
+            ListCacheVersionService.TOPIC_PAGES,
+            ListCacheVersionService.TOPIC_POST_PAGES,
+            ListCacheVersionService.POST_COMMENT_PAGES);
+
     @Value("${spring.redis.host}")
     private String host;
 
     @Value("${spring.redis.port}")
     private Integer port;
 
+    @Value("${spring.redis.password:}")
+    private String password;
+
     @Bean
     public JedisConnectionFactory jedisConnectionFactory() {
-        return new JedisConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        if (!password.isBlank()) {
+            configuration.setPassword(password);
+        }
+        return new JedisConnectionFactory(configuration);
     }
 
     @Bean(value = "redisTemplate")
@@ -36,14 +77,131 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * Every cache gets TTL, serializer and null caching of its cache.specs.&lt;name&gt; entry, the near tier
+     * its size. Invalid settings fail the startup.
+     */
     @Primary
     @Bean(name = "cacheManager")
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
-        return RedisCacheManager
-                .builder(redisConnectionFactory)
-                .cacheDefaults(RedisCacheConfiguration
-                        .defaultCacheConfig()
-                        .entryTtl(Duration.ofHours(1)))
-                .build();
-    }
-}
\ No newline at end of file
+    public TwoTierCacheManager cacheManager(
+            RedisConnectionFactory redisConnectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            CachePolicyProperties cachePolicies
+    ) {
+        cachePolicies.validate(CACHE_NAMES, ListCacheVersionService.VERSIONS, LIST_CACHE_NAMES);
+
+        RedisCacheConfiguration defaults = RedisCacheConfiguration
+                .defaultCacheConfig()
+                .entryTtl(cachePolicies.getDefaultTtl());
+
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        Map<String, Long> nearMaximumSizes = new HashMap<>();
+        for (String name : CACHE_NAMES) {
+            CachePolicyProperties.Spec spec = cachePolicies.specOf(name);
+            cacheConfigurations.put(name, configurationOf(spec, defaults, cachePolicies));
+            nearMaximumSizes.put(name, spec.getNearMaximumSize());
+        }
+
+        RedisCacheManager sharedCacheManager = new StampedeProtectedRedisCacheManager(
+                RedisCacheWriter
+                        .nonLockingRedisCacheWriter(redisConnectionFactory)
+                        .withStatisticsCollector(CacheStatisticsCollector.create()),
+                defaults,
+                cacheConfigurations,
+                stringRedisTemplate,
+                new StampedeProtection(
+                        cachePolicies.getLoadLock().getTtl(),
+                        cachePolicies.getLoadLock().getWait(),
+                        cachePolicies.getEarlyRefresh().getBeta(),
+                        Duration.ofMillis(50),
+                        cachePolicies.getTtlJitter()));
+
+        return new TwoTierCacheManager(
+                sharedCacheManager,
+                stringRedisTemplate,
+                nearMaximumSizes,
+                cachePolicies.getNear().getTtl());
+    }
+
+    private static RedisCacheConfiguration configurationOf(
+            CachePolicyProperties.Spec spec,
+            RedisCacheConfiguration defaults,
+            CachePolicyProperties cachePolicies
+    ) {
+        RedisCacheConfiguration configuration = defaults.entryTtl(spec.getTtl());
+        if (!spec.isCacheNullValues()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (spec.getSerializer() == CachePolicyProperties.SerializerType.COMPACT) {
+            configuration = configuration.serializeValuesWith(RedisSerializationContext.SerializationPair
+                    .fromSerializer(new CompactCacheSerializer(cachePolicies.getSerializer().getCompressionThreshold())));
+        }
+        return configuration;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            TwoTierCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoTierCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public CachePoliciesEndpoint cachePoliciesEndpoint(
+            TwoTierCacheManager cacheManager,
+            CachePolicyProperties cachePolicies,
+            StringRedisTemplate stringRedisTemplate
+    ) {
+        return new CachePoliciesEndpoint(cacheManager, cachePolicies, stringRedisTemplate);
+    }
+
+    /**
+     * Boot doesn't know the two tier caches, so cache.gets/puts/evictions are bound here for both tiers,
+     * together with the ratio of hits to lookups per cache name and tier.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(TwoTierCacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            TwoTierCache cache = (TwoTierCache) cacheManager.getCache(name);
+            if (cache.getSharedCache() instanceof RedisCache sharedCache) {
+                Tags tags = Tags.of("tier", "shared");
+                new RedisCacheMetrics(sharedCache, tags).bindTo(registry);
+                Gauge.builder("cache.hit.ratio", sharedCache, RedisConfig::hitRatio)
+                        .tags(tags.and("name", name))
+                        .register(registry);
+            }
+            if (cache.getSharedCache() instanceof StampedeProtectedRedisCache protectedCache) {
+                Tags tags = Tags.of("name", name);
+                FunctionCounter.builder("cache.loads", protectedCache, StampedeProtectedRedisCache::getLoadCount)
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("cache.loads.coalesced", protectedCache, StampedeProtectedRedisCache::getCoalescedLoadCount)
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("cache.loads.lock_waits", protectedCache, StampedeProtectedRedisCache::getLockWaitCount)
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder("cache.loads.early_refresh", protectedCache, StampedeProtectedRedisCache::getEarlyRefreshCount)
+                        .tags(tags)
+                        .register(registry);
+            }
+            if (cache.getNearCache() != null) {
+                Tags tags = Tags.of("tier", "near");
+                CaffeineCacheMetrics.monitor(registry, cache.getNearCache(), name, tags);
+                Gauge.builder("cache.hit.ratio", cache.getNearCache(), nearCache -> nearCache.stats().hitRate())
+                        .tags(tags.and("name", name))
+                        .register(registry);
+            }
+        });
+    }
+
+    private static double hitRatio(RedisCache cache) {
+        CacheStatistics statistics = cache.getStatistics();
+        long lookups = statistics.getHits() + statistics.getMisses();
+        return lookups == 0 ? 0 : (double) statistics.getHits() / lookups;
+    }
+}
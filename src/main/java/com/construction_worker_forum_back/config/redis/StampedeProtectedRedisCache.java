@@ -0,0 +1,256 @@
+package com.construction_worker_forum_back.config.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis cache which protects {@code @Cacheable(sync = true)} lookups against stampedes when an entry expires:
+ * <ul>
+ *     <li>concurrent loads of one key in this instance share a single in-flight future,</li>
+ *     <li>across instances only the holder of a short Redis lock loads, the others wait for its result for a moment,</li>
+ *     <li>an entry is refreshed before it expires with a probability growing as its TTL runs out (XFetch),
+ *     scaled by how long loads of this cache take,</li>
+ *     <li>TTLs are spread by a random jitter, so entries written together don't expire together.</li>
+ * </ul>
+ */
+@Slf4j
+public class StampedeProtectedRedisCache extends RedisCache {
+
+    static final String LOCK_SUFFIX = "~lock";
+
+    @Getter
+    @AllArgsConstructor
+    private static class Lookup {
+        private ValueWrapper value;
+        private Long remainingTtlMillis;
+    }
+
+    private static final DefaultRedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final Duration LOCK_POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final StringRedisTemplate redisTemplate;
+    private final StampedeProtection protection;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder lockWaits = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private volatile double averageLoadMillis;
+
+    public StampedeProtectedRedisCache(
+            String name,
+            RedisCacheWriter cacheWriter,
+            RedisCacheConfiguration cacheConfiguration,
+            StringRedisTemplate redisTemplate,
+            StampedeProtection protection
+    ) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.redisTemplate = redisTemplate;
+        this.protection = protection;
+        this.averageLoadMillis = protection.getInitialLoadTime().toMillis();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Lookup lookup = lookup(key);
+        ValueWrapper cached = lookup.getValue();
+        if (cached != null && !shouldRefreshEarly(lookup.getRemainingTtlMillis())) {
+            return (T) cached.get();
+        }
+        if (cached != null) {
+            earlyRefreshes.increment();
+        }
+
+        String cacheKey = createCacheKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(cacheKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return (T) join(key, inFlight);
+        }
+        try {
+            Object value = loadOnce(key, cacheKey, cached, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(cacheKey, load);
+        }
+    }
+
+    /**
+     * Unlike {@link RedisCache}, a cache which doesn't cache null values skips them instead of failing,
+     * as {@code @Cacheable(sync = true)} lookups can't exclude them with {@code unless}.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        Object cacheValue = preProcessCacheValue(value);
+        if (cacheValue == null) {
+            return;
+        }
+        getNativeCache().put(getName(), serializeCacheKey(createCacheKey(key)), serializeCacheValue(cacheValue),
+                jitter(getCacheConfiguration().getTtl()));
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getCoalescedLoadCount() {
+        return coalescedLoads.sum();
+    }
+
+    public long getLockWaitCount() {
+        return lockWaits.sum();
+    }
+
+    public long getEarlyRefreshCount() {
+        return earlyRefreshes.sum();
+    }
+
+    /**
+     * Loads the value unless another instance holds the lock of the key. In that case the current value is returned
+     * when there is one (an early refresh is in progress elsewhere), otherwise the entry is polled until the lock
+     * wait runs out and only then loaded here as well.
+     */
+    private Object loadOnce(Object key, String cacheKey, ValueWrapper current, Callable<?> valueLoader) {
+        String lockKey = cacheKey + LOCK_SUFFIX;
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            if (current != null) {
+                return current.get();
+            }
+            lockWaits.increment();
+            ValueWrapper loadedElsewhere = awaitLoadedElsewhere(key);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere.get();
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            recordLoadTime(System.nanoTime() - start);
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            if (locked) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+
+    /**
+     * With early refresh on, the value and its remaining TTL are read in one pipelined round trip. The read then
+     * doesn't go through the cache writer, so it's missing from the writer statistics.
+     */
+    private Lookup lookup(Object key) {
+        if (protection.getEarlyRefreshBeta() <= 0) {
+            return new Lookup(get(key), null);
+        }
+        byte[] redisKey = serializeCacheKey(createCacheKey(key));
+        List<Object> valueAndTtl = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(redisKey);
+            connection.keyCommands().pTtl(redisKey);
+            return null;
+        }, null);
+        byte[] value = (byte[]) valueAndTtl.get(0);
+        return new Lookup(value == null ? null : toValueWrapper(deserializeCacheValue(value)), (Long) valueAndTtl.get(1));
+    }
+
+    /**
+     * XFetch: refresh when {@code -delta * beta * ln(random)} reaches the remaining TTL,
+     * delta being the average load time of this cache.
+     */
+    private boolean shouldRefreshEarly(Long remainingMillis) {
+        if (protection.getEarlyRefreshBeta() <= 0 || remainingMillis == null || remainingMillis <= 0) {
+            return false;
+        }
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        return -averageLoadMillis * protection.getEarlyRefreshBeta() * Math.log(random) >= remainingMillis;
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, protection.getLockTtl()));
+        } catch (DataAccessException e) {
+            log.warn("Load lock {} is not available, loading without it: {}", lockKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+        } catch (DataAccessException e) {
+            log.warn("Load lock {} could not be released, it expires in {}: {}", lockKey, protection.getLockTtl(), e.getMessage());
+        }
+    }
+
+    private ValueWrapper awaitLoadedElsewhere(Object key) {
+        long deadline = System.nanoTime() + protection.getLockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper loaded = get(key);
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return null;
+    }
+
+    private void recordLoadTime(long nanos) {
+        loads.increment();
+        averageLoadMillis = averageLoadMillis * 0.8 + nanos / 1_000_000.0 * 0.2;
+    }
+
+    private Duration jitter(Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative() || protection.getTtlJitter() <= 0) {
+            return ttl;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-protection.getTtlJitter(), protection.getTtlJitter());
+        return Duration.ofMillis(Math.max(1, (long) (ttl.toMillis() * factor)));
+    }
+
+    private static Object join(Object key, CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Loading " + key + " failed", e.getCause());
+        }
+    }
+}
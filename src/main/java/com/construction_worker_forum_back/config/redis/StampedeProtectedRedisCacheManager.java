@@ -0,0 +1,44 @@
+package com.construction_worker_forum_back.config.redis;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+/**
+ * {@link RedisCacheManager} creating {@link StampedeProtectedRedisCache}s instead of plain Redis caches.
+ */
+public class StampedeProtectedRedisCacheManager extends RedisCacheManager {
+
+    private final RedisCacheWriter cacheWriter;
+    private final RedisCacheConfiguration defaultCacheConfiguration;
+    private final StringRedisTemplate redisTemplate;
+    private final StampedeProtection protection;
+
+    public StampedeProtectedRedisCacheManager(
+            RedisCacheWriter cacheWriter,
+            RedisCacheConfiguration defaultCacheConfiguration,
+            Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+            StringRedisTemplate redisTemplate,
+            StampedeProtection protection
+    ) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, true);
+        this.cacheWriter = cacheWriter;
+        this.defaultCacheConfiguration = defaultCacheConfiguration;
+        this.redisTemplate = redisTemplate;
+        this.protection = protection;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new StampedeProtectedRedisCache(
+                name,
+                cacheWriter,
+                cacheConfiguration != null ? cacheConfiguration : defaultCacheConfiguration,
+                redisTemplate,
+                protection);
+    }
+}
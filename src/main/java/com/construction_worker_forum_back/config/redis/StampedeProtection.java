@@ -0,0 +1,39 @@
+package com.construction_worker_forum_back.config.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link StampedeProtectedRedisCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class StampedeProtection {
+
+    /**
+     * How long the cross instance load lock is held at most, it should exceed the slowest expected load.
+     */
+    private Duration lockTtl;
+
+    /**
+     * How long a lookup waits for the lock holder's value before loading by itself.
+     */
+    private Duration lockWait;
+
+    /**
+     * Eagerness of early refresh, 0 disables it and 1 is the usual XFetch setting.
+     */
+    private double earlyRefreshBeta;
+
+    /**
+     * Load time assumed until the first load of a cache was measured.
+     */
+    private Duration initialLoadTime;
+
+    /**
+     * TTLs are spread by up to this fraction in both directions, e.g. 0.1 turns 1h into 54 to 66 minutes.
+     */
+    private double ttlJitter;
+}
@@ -0,0 +1,186 @@
+package com.construction_worker_forum_back.config.redis;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cache with an optional in-process near tier in front of the shared Redis tier.
+ * Every write goes to the shared tier first and is then announced through {@code invalidationPublisher}, so other
+ * instances drop their near copy. A value read from the shared tier is only kept near when no invalidation arrived
+ * while it was being read, otherwise an older value could outlive the message which was meant to remove it.
+ * <p>
+ * The near tier keeps values serialized like the shared tier does and every read gets its own copy, callers may
+ * change what they get, e.g. map a request onto a cached DTO, without changing it for later readers.
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache shared;
+    private static final byte[] NULL_VALUE = new byte[0];
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, byte[]> near;
+    private final RedisSerializationContext.SerializationPair<Object> nearSerialization;
+    private final Consumer<String> invalidationPublisher;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final boolean cacheNullValues;
+
+    public TwoTierCache(
+            Cache shared,
+            com.github.benmanes.caffeine.cache.Cache<String, byte[]> near,
+            RedisSerializationContext.SerializationPair<Object> nearSerialization,
+            Consumer<String> invalidationPublisher
+    ) {
+        this.shared = shared;
+        this.near = near;
+        this.nearSerialization = nearSerialization;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cacheNullValues = !(shared instanceof AbstractValueAdaptingCache adapting) || adapting.isAllowNullValues();
+    }
+
+    @Override
+    public String getName() {
+        return shared.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return shared.getNativeCache();
+    }
+
+    public Cache getSharedCache() {
+        return shared;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, byte[]> getNearCache() {
+        return near;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (near == null) {
+            return shared.get(key);
+        }
+        String nearKey = nearKey(key);
+        byte[] cached = near.getIfPresent(nearKey);
+        if (cached != null) {
+            return new SimpleValueWrapper(fromNear(cached));
+        }
+        long invalidationsBeforeRead = invalidations.get();
+        ValueWrapper loaded = shared.get(key);
+        if (loaded != null) {
+            keepNear(nearKey, loaded.get(), invalidationsBeforeRead);
+        }
+        return loaded;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (near == null) {
+            return shared.get(key, valueLoader);
+        }
+        String nearKey = nearKey(key);
+        byte[] cached = near.getIfPresent(nearKey);
+        if (cached != null) {
+            return (T) fromNear(cached);
+        }
+        long invalidationsBeforeRead = invalidations.get();
+        T value = shared.get(key, valueLoader);
+        keepNear(nearKey, value, invalidationsBeforeRead);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        if (near != null) {
+            if (value != null || cacheNullValues) {
+                near.put(nearKey(key), toNear(value));
+            } else {
+                near.invalidate(nearKey(key));
+            }
+            invalidationPublisher.accept(nearKey(key));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = shared.putIfAbsent(key, value);
+        if (near != null) {
+            near.put(nearKey(key), toNear(existing != null ? existing.get() : value));
+            if (existing == null) {
+                invalidationPublisher.accept(nearKey(key));
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        if (near != null) {
+            evictNear(nearKey(key));
+            invalidationPublisher.accept(nearKey(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        if (near != null) {
+            evictNear(null);
+            invalidationPublisher.accept(null);
+        }
+    }
+
+    /**
+     * Drops the near copy after another instance changed the shared one, {@code null} drops all of them.
+     */
+    public void evictNear(String nearKey) {
+        invalidations.incrementAndGet();
+        if (near == null) {
+            return;
+        }
+        if (nearKey == null) {
+            near.invalidateAll();
+        } else {
+            near.invalidate(nearKey);
+        }
+    }
+
+    private void keepNear(String nearKey, Object value, long invalidationsBeforeRead) {
+        if ((value != null || cacheNullValues) && invalidations.get() == invalidationsBeforeRead) {
+            near.put(nearKey, toNear(value));
+        }
+    }
+
+    private byte[] toNear(Object value) {
+        return value != null ? ByteUtils.getBytes(nearSerialization.write(value)) : NULL_VALUE;
+    }
+
+    private Object fromNear(byte[] bytes) {
+        return bytes.length > 0 ? nearSerialization.read(ByteBuffer.wrap(bytes)) : null;
+    }
+
+    private static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
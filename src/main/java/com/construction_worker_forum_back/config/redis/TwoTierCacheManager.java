@@ -0,0 +1,116 @@
+package com.construction_worker_forum_back.config.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every cache of the shared {@link RedisCacheManager} into a {@link TwoTierCache}. Caches with a positive
+ * entry in {@code nearMaximumSizes} get a Caffeine tier of that size in this instance, changes to them are published on
+ * {@link #INVALIDATION_CHANNEL} and messages of other instances evict the matching near entries.
+ * Near entries are kept in the value serialization of the Redis cache.
+ * The near TTL bounds how long a copy may live if an invalidation message is lost, Redis pub/sub doesn't retry.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private static final String SEPARATOR = "|";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final RedisCacheManager sharedCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Map<String, Long> nearMaximumSizes;
+    private final Duration nearTtl;
+
+    public TwoTierCacheManager(
+            RedisCacheManager sharedCacheManager,
+            StringRedisTemplate redisTemplate,
+            Map<String, Long> nearMaximumSizes,
+            Duration nearTtl
+    ) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.nearMaximumSizes = nearMaximumSizes;
+        this.nearTtl = nearTtl;
+        sharedCacheManager.initializeCaches();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache shared = sharedCacheManager.getCache(name);
+        if (shared == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoTierCache(
+                shared,
+                newNearCache(nearMaximumSizes.getOrDefault(cacheName, 0L)),
+                valueSerializationOf(shared),
+                key -> publishInvalidation(cacheName, key)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return sharedCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictNear(parts.length == 3 ? parts[2] : null);
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, byte[]> newNearCache(long maximumSize) {
+        if (maximumSize <= 0) {
+            return null;
+        }
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+    }
+
+    private static RedisSerializationContext.SerializationPair<Object> valueSerializationOf(Cache shared) {
+        return shared instanceof RedisCache redisCache
+                ? redisCache.getCacheConfiguration().getValueSerializationPair()
+                : RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.java());
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = instanceId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (DataAccessException e) {
+            log.warn("Invalidation of {} in {} could not be published: {}", key, cacheName, e.getMessage());
+        }
+    }
+}
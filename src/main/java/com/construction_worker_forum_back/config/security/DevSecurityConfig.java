@@ -43,6 +43,9 @@ public class DevSecurityConfig {
                         .mvcMatchers(HttpMethod.GET, "/api/post/likers/{id}").authenticated() //to be removed
                         .mvcMatchers(HttpMethod.GET, "/api/comment/likers/{id}").authenticated() //to be removed
                         .mvcMatchers(HttpMethod.GET, "/api/post/followers/{id}").authenticated() //to be removed
+                        .mvcMatchers(HttpMethod.GET, "/api/post/likers/{id}/page").authenticated()
+                        .mvcMatchers(HttpMethod.GET, "/api/post/followers/{id}/page").authenticated()
+                        .mvcMatchers(HttpMethod.GET, "/api/post/reactions").authenticated()
                         .mvcMatchers(HttpMethod.GET, "/api/post/**").permitAll()
                         .mvcMatchers(HttpMethod.GET, "/api/topic/**").permitAll()
                         .mvcMatchers("/ws").anonymous() //to be removed
@@ -51,6 +54,8 @@ public class DevSecurityConfig {
                         .mvcMatchers(HttpMethod.GET, "/users/summaries").authenticated() //to be removed
                         .mvcMatchers("/api/post/**").hasAuthority("ACTIVE") //move it to controller
                         .mvcMatchers("/api/comment/**").hasAuthority("ACTIVE") //move it to controller
+                        .mvcMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .mvcMatchers("/actuator/**").hasAnyRole("ADMINISTRATOR", "SUPPORT")
                         .mvcMatchers("/api/**").authenticated()
                         .mvcMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() //changed it Admin view only
                         .anyRequest().denyAll())
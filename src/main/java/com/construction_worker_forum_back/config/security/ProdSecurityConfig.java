@@ -43,6 +43,9 @@ public class ProdSecurityConfig {
                         .mvcMatchers(HttpMethod.GET, "/api/post/likers/{id}").authenticated()
                         .mvcMatchers(HttpMethod.GET, "/api/comment/likers/{id}").authenticated()
                         .mvcMatchers(HttpMethod.GET, "/api/post/followers/{id}").authenticated()
+                        .mvcMatchers(HttpMethod.GET, "/api/post/likers/{id}/page").authenticated()
+                        .mvcMatchers(HttpMethod.GET, "/api/post/followers/{id}/page").authenticated()
+                        .mvcMatchers(HttpMethod.GET, "/api/post/reactions").authenticated()
                         .mvcMatchers(HttpMethod.GET, "/api/post/**").permitAll()
                         .mvcMatchers(HttpMethod.GET, "/api/topic/**").permitAll()
                         .mvcMatchers("/ws").anonymous()
@@ -51,6 +54,8 @@ public class ProdSecurityConfig {
                         .mvcMatchers(HttpMethod.GET, "/users/summaries").authenticated()
                         .mvcMatchers("/api/post/**").hasAuthority("ACTIVE")
                         .mvcMatchers("/api/comment/**").hasAuthority("ACTIVE")
+                        .mvcMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                        .mvcMatchers("/actuator/**").hasAnyRole("ADMINISTRATOR", "SUPPORT")
                         .mvcMatchers("/api/**").authenticated()
                         .anyRequest().denyAll())
                 .exceptionHandling().authenticationEntryPoint(restAuthenticationEntryPoint()).and()
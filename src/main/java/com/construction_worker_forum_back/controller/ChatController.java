@@ -1,22 +1,38 @@
 package com.construction_worker_forum_back.controller;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.Notification;
 import com.construction_worker_forum_back.model.chat.ChatMessage;
 import com.construction_worker_forum_back.model.chat.ChatNotification;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
+import com.construction_worker_forum_back.model.dto.ExceptionDto;
 import com.construction_worker_forum_back.service.ChatMessageService;
 import com.construction_worker_forum_back.service.ChatRoomService;
+import com.construction_worker_forum_back.service.NotificationDispatchService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Controller
@@ -27,7 +43,8 @@ public class ChatController {
     private final SimpMessagingTemplate messagingTemplate;
     private final ChatMessageService chatMessageService;
     private final ChatRoomService chatRoomService;
-    private final NotificationClient notificationClient;
+    private final NotificationDispatchService notificationDispatchService;
+    private final ObjectMapper objectMapper;
 
     @SecurityRequirement(name = "Bearer Authentication")
     @MessageMapping("/chat")
@@ -44,7 +61,7 @@ public class ChatController {
                 )
                 .ifPresent(message::setChatId);
 
-        chatMessageService.save(message);
+        chatMessageService.submit(message);
 
         messagingTemplate.convertAndSendToUser(
                 recipientId,
@@ -57,18 +74,24 @@ public class ChatController {
                 )
         );
 
-        notificationClient.sendNotification(
-                        Notification.of(
-                                senderName,
-                                recipientId,
-                                "Sent you a message",
-                                "/chat",
-                                false
-                        )
+        notificationDispatchService.dispatch(
+                Notification.of(
+                        senderName,
+                        recipientId,
+                        "Sent you a message",
+                        "/chat",
+                        false
                 )
-                .doOnNext(notification -> log.info("Notification Response: {}", notification))
-                .doOnError(e -> log.info("Error occurred: {}", e.getMessage()))
-                .subscribe();
+        );
+    }
+
+    /**
+     * Tells the sending session why its message was not sent, e.g. when the chat is overloaded.
+     */
+    @MessageExceptionHandler(ResponseStatusException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ExceptionDto handleMessageException(ResponseStatusException e) {
+        return new ExceptionDto(e.getReason());
     }
 
     @SecurityRequirement(name = "Bearer Authentication")
@@ -77,12 +100,54 @@ public class ChatController {
         return ResponseEntity.ok(chatMessageService.countNewMessages(senderId, recipientId));
     }
 
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/messages/{recipientId}/unread")
+    public ResponseEntity<Map<String, Long>> countNewMessagesOf(@PathVariable String recipientId) {
+        return ResponseEntity.ok(chatMessageService.countNewMessagesOf(recipientId));
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/messages/{senderId}/{recipientId}")
-    public ResponseEntity<?> findChatMessages(@PathVariable String senderId, @PathVariable String recipientId) {
+    public ResponseEntity<List<ChatMessage>> findChatMessages(@PathVariable String senderId, @PathVariable String recipientId) {
         return ResponseEntity.ok(chatMessageService.findChatMessages(senderId, recipientId));
     }
 
+    /**
+     * Conversation from the latest message backwards, the next cursor of a page fetches older messages.
+     */
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/messages/{senderId}/{recipientId}/page")
+    public ResponseEntity<CursorPageDto<ChatMessage>> findChatMessagePage(
+            @PathVariable String senderId,
+            @PathVariable String recipientId,
+            @RequestParam(name = "cursor") Optional<String> cursor,
+            @RequestParam(name = "limit", defaultValue = "50") Integer limit
+    ) {
+        return ResponseEntity.ok(chatMessageService.findChatMessagePage(senderId, recipientId, cursor, limit));
+    }
+
+    /**
+     * Whole conversation as a JSON array, oldest message first, written while it is read from Mongo.
+     */
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping(value = "/messages/{senderId}/{recipientId}/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChatMessages(@PathVariable String senderId, @PathVariable String recipientId) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                chatMessageService.forEachChatMessage(senderId, recipientId, chatMessage -> {
+                    try {
+                        generator.writeObject(chatMessage);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok(body);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/messages/{id}")
     public ResponseEntity<?> findMessage(@PathVariable String id) {
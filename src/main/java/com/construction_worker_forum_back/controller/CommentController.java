@@ -2,12 +2,15 @@ package com.construction_worker_forum_back.controller;
 
 import com.construction_worker_forum_back.model.dto.CommentDto;
 import com.construction_worker_forum_back.model.dto.CommentRequestDto;
+import com.construction_worker_forum_back.model.dto.CommentSummaryDto;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
 import com.construction_worker_forum_back.service.CommentService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +19,7 @@ import org.springframework.web.server.ResponseStatusException;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @Slf4j
@@ -63,7 +67,8 @@ public class CommentController {
     @PostMapping("/like")
     @ResponseStatus(HttpStatus.CREATED)
     public CommentDto likeComment(@RequestParam Long commentId, @RequestParam Long userId) {
-        return commentService.likeComment(commentId, userId);
+        commentService.likeComment(commentId, userId);
+        return getComment(commentId);
     }
 
     @PutMapping("/{id}")
@@ -77,23 +82,44 @@ public class CommentController {
 
     @DeleteMapping("/like")
     public Map<String, String> unlikeComment(@RequestParam Long commentId, @RequestParam Long userId) {
-        var unLiked = commentService.unlikeComment(commentId, userId)
-                .getLikers()
-                .stream()
-                .noneMatch(liker -> liker.getId().equals(userId));
-
-        if (unLiked) {
-            return Map.of(
-                    "Comment ID", commentId + "",
-                    "status", "Comment unliked successfully!"
-            );
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
-        }
+        commentService.unlikeComment(commentId, userId);
+
+        return Map.of(
+                "Comment ID", commentId + "",
+                "status", "Comment unliked successfully!"
+        );
     }
 
     @GetMapping("/post/{id}")
     List<CommentDto> getCommentsOfPost(@PathVariable Long id) {
         return commentService.getCommentsOfPost(id);
     }
+
+    @GetMapping("/post/{id}/cursor")
+    CursorPageDto<CommentDto> getCommentsOfPostByCursor(
+            @PathVariable Long id,
+            @RequestParam(name = "cursor") Optional<String> cursor,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "orderby") Optional<String> orderBy
+    ) {
+        return commentService.getCommentsOfPostByCursor(id, cursor, limit, orderBy);
+    }
+
+    @GetMapping("/likers/{id}/page")
+    Page<LikerSimpleDto> getPageOfCommentLikers(
+            @PathVariable Long id,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return commentService.getPageOfCommentLikers(id, limit, page);
+    }
+
+    @GetMapping("/post/{id}/summaries")
+    Page<CommentSummaryDto> getCommentSummariesOfPost(
+            @PathVariable Long id,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return commentService.getPageOfCommentSummariesOfPost(id, limit, page);
+    }
 }
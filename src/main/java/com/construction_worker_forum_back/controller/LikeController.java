@@ -0,0 +1,63 @@
+package com.construction_worker_forum_back.controller;
+
+import com.construction_worker_forum_back.service.LikeWriteBehindService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin("https://localhost:3000")
+@RequestMapping("/api")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Like", description = "The write-behind Like API. Likes are accepted immediately and stored in batches.")
+@AllArgsConstructor
+@ConditionalOnProperty(name = "like.write-behind.enabled", havingValue = "true")
+public class LikeController {
+
+    private LikeWriteBehindService likeWriteBehindService;
+
+    @PostMapping("/post/like/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, String> likePost(@RequestParam Long postId, @RequestParam Long userId) {
+        likeWriteBehindService.likePost(postId, userId);
+        return Map.of(
+                "Post ID", postId + "",
+                "status", "Post like accepted!"
+        );
+    }
+
+    @DeleteMapping("/post/like/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, String> unlikePost(@RequestParam Long postId, @RequestParam Long userId) {
+        likeWriteBehindService.unlikePost(postId, userId);
+        return Map.of(
+                "Post ID", postId + "",
+                "status", "Post unlike accepted!"
+        );
+    }
+
+    @PostMapping("/comment/like/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, String> likeComment(@RequestParam Long commentId, @RequestParam Long userId) {
+        likeWriteBehindService.likeComment(commentId, userId);
+        return Map.of(
+                "Comment ID", commentId + "",
+                "status", "Comment like accepted!"
+        );
+    }
+
+    @DeleteMapping("/comment/like/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, String> unlikeComment(@RequestParam Long commentId, @RequestParam Long userId) {
+        likeWriteBehindService.unlikeComment(commentId, userId);
+        return Map.of(
+                "Comment ID", commentId + "",
+                "status", "Comment unlike accepted!"
+        );
+    }
+}
@@ -1,18 +1,24 @@
 package com.construction_worker_forum_back.controller;
 
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.PostReactionStateDto;
 import com.construction_worker_forum_back.model.dto.PostRequestDto;
+import com.construction_worker_forum_back.model.dto.PostSearchHitDto;
+import com.construction_worker_forum_back.model.dto.PostSummaryDto;
 import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
 import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
 import com.construction_worker_forum_back.service.PostService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -48,6 +54,16 @@ public class PostController {
         return postService.getPostsByTopicId(topicId, orderBy, limit, page, allParams);
     }
 
+    @GetMapping("/all_by_topicid/{topicId}/cursor")
+    public CursorPageDto<PostDto> getPostsByTopicIdAndCursor(
+            @PathVariable Long topicId,
+            @RequestParam(name = "cursor") Optional<String> cursor,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "orderby") Optional<String> orderBy
+    ) {
+        return postService.getPostsByTopicIdAndCursor(topicId, cursor, limit, orderBy);
+    }
+
     @GetMapping("/{id}")
     public PostDto getPostById(@PathVariable("id") Long id) {
         return postService.findById(id)
@@ -66,6 +82,76 @@ public class PostController {
         return postService.getPostFollowers(id);
     }
 
+    @GetMapping("/likers/{id}/page")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public Page<LikerSimpleDto> getPageOfPostLikers(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return postService.getPageOfPostLikers(id, limit, page);
+    }
+
+    @GetMapping("/followers/{id}/page")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public Page<FollowerSimpleDto> getPageOfPostFollowers(
+            @PathVariable("id") Long id,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return postService.getPageOfPostFollowers(id, limit, page);
+    }
+
+    @GetMapping("/reactions")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public List<PostReactionStateDto> getPostReactionStates(
+            Principal principal,
+            @RequestParam(name = "postIds") List<Long> postIds
+    ) {
+        return postService.getPostReactionStates(postService.getUserIdByUsername(principal.getName()), postIds);
+    }
+
+    @PostMapping("/reactions/like")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ResponseStatus(HttpStatus.CREATED)
+    public PostReactionStateDto likePostWithReactionState(Principal principal, @RequestParam Long postId) {
+        return postService.likePost(postId, postService.getUserIdByUsername(principal.getName()));
+    }
+
+    @DeleteMapping("/reactions/like")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public PostReactionStateDto unlikePostWithReactionState(Principal principal, @RequestParam Long postId) {
+        return postService.unlikePost(postId, postService.getUserIdByUsername(principal.getName()));
+    }
+
+    @PostMapping("/reactions/follow")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @ResponseStatus(HttpStatus.CREATED)
+    public PostReactionStateDto followPostWithReactionState(Principal principal, @RequestParam Long postId) {
+        return postService.followPost(postId, postService.getUserIdByUsername(principal.getName()));
+    }
+
+    @DeleteMapping("/reactions/follow")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public PostReactionStateDto unfollowPostWithReactionState(Principal principal, @RequestParam Long postId) {
+        return postService.unfollowPost(postId, postService.getUserIdByUsername(principal.getName()));
+    }
+
+    @GetMapping("/{id}/summary")
+    public PostSummaryDto getPostSummaryById(@PathVariable("id") Long id) {
+        return postService.findSummaryById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/all_by_topicid/{topicId}/summaries")
+    public Page<PostSummaryDto> getPostSummariesByTopicId(
+            @PathVariable Long topicId,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return postService.getPageOfPostSummariesByTopicId(topicId, limit, page);
+    }
+
     @PostMapping
     @SecurityRequirement(name = "Bearer Authentication")
     @ResponseStatus(HttpStatus.CREATED)
@@ -77,23 +163,22 @@ public class PostController {
     @SecurityRequirement(name = "Bearer Authentication")
     @ResponseStatus(HttpStatus.CREATED)
     public PostDto likePost(@RequestParam Long postId, @RequestParam Long userId) {
-        return postService.likePost(postId, userId);
+        postService.likePost(postId, userId);
+        return getPostById(postId);
     }
 
     @PostMapping("/follow")
     @SecurityRequirement(name = "Bearer Authentication")
     @ResponseStatus(HttpStatus.CREATED)
     public PostDto followPost(@RequestParam Long postId, @RequestParam Long userId) {
-        return postService.followPost(postId, userId);
+        postService.followPost(postId, userId);
+        return getPostById(postId);
     }
 
     @DeleteMapping("/follow")
     @SecurityRequirement(name = "Bearer Authentication")
     public Map<String, String> unfollowPost(@RequestParam Long postId, @RequestParam Long userId) {
-        var unFollowed = postService.unfollowPost(postId, userId)
-                .getFollowers()
-                .stream()
-                .noneMatch(follower -> follower.getId().equals(userId));
+        var unFollowed = Boolean.FALSE.equals(postService.unfollowPost(postId, userId).getFollowed());
 
         if (unFollowed) {
             return Map.of(
@@ -127,10 +212,7 @@ public class PostController {
     @DeleteMapping("/like")
     @SecurityRequirement(name = "Bearer Authentication")
     public Map<String, String> unlikePost(@RequestParam Long postId, @RequestParam Long userId) {
-        var unLiked = postService.unlikePost(postId, userId)
-                .getLikers()
-                .stream()
-                .noneMatch(liker -> liker.getId().equals(userId));
+        var unLiked = Boolean.FALSE.equals(postService.unlikePost(postId, userId).getLiked());
 
         if (unLiked) {
             return Map.of(
@@ -143,7 +225,20 @@ public class PostController {
     }
 
     @GetMapping("/search")
-    public List<PostDto> findPostByContentOrTitle(@RequestParam(name = "searchItem") String contentOrTitle) {
-        return postService.findPostByContentOrTitle(contentOrTitle);
+    public List<PostDto> findPostByContentOrTitle(
+            @RequestParam(name = "searchItem") String contentOrTitle,
+            @RequestParam(name = "limit") Optional<Integer> limit,
+            @RequestParam(name = "page") Optional<Integer> page
+    ) {
+        return postService.findPostByContentOrTitle(contentOrTitle, limit, page);
+    }
+
+    @GetMapping("/search/hits")
+    public Page<PostSearchHitDto> searchPostsWithHighlights(
+            @RequestParam(name = "searchItem") String contentOrTitle,
+            @RequestParam(name = "limit", defaultValue = "" + PostService.DEFAULT_SEARCH_LIMIT) Integer limit,
+            @RequestParam(name = "page", defaultValue = "1") Integer page
+    ) {
+        return postService.searchPostsWithHighlights(contentOrTitle, limit, page);
     }
 }
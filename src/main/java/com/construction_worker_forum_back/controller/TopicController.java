@@ -1,5 +1,6 @@
 package com.construction_worker_forum_back.controller;
 
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.dto.TopicRequestDto;
 import com.construction_worker_forum_back.service.TopicService;
@@ -36,6 +37,15 @@ public class TopicController {
         return topicService.getAllTopics(orderBy, limit, page);
     }
 
+    @GetMapping("/cursor")
+    CursorPageDto<TopicDto> getTopicsByCursor(
+            @RequestParam(name = "cursor") Optional<String> cursor,
+            @RequestParam(name = "limit", defaultValue = "20") Integer limit,
+            @RequestParam(name = "orderby") Optional<String> orderBy
+    ) {
+        return topicService.getTopicsByCursor(cursor, limit, orderBy);
+    }
+
     @GetMapping("/{id}")
     public TopicDto getTopicById(@PathVariable("id") Long id) {
         return topicService.findTopicById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -0,0 +1,63 @@
+package com.construction_worker_forum_back.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a keyset paginated listing ordered by creation date and id.
+ * Clients get it as an opaque string and send it back to fetch the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private Sort.Direction direction;
+    private Date createdAt;
+    private Long id;
+
+    public String encode() {
+        String raw = direction.name() + SEPARATOR + createdAt.getTime() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            return new PageCursor(
+                    Sort.Direction.valueOf(parts[0]),
+                    new Date(Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2])
+            );
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor!");
+        }
+    }
+
+    /**
+     * Only creation date is supported as a keyset sort key, e.g. "createdAt.desc".
+     */
+    public static Sort.Direction parseDirection(String orderBy, Sort.Direction defaultDirection) {
+        if (orderBy == null) {
+            return defaultDirection;
+        }
+        String[] split = orderBy.split("\\.");
+        if (split.length != 2 || !split[0].equals("createdAt")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor pagination can be ordered by createdAt only!");
+        }
+        return split[1].equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    public static Sort keysetSort(Sort.Direction direction) {
+        return Sort.by(direction, "createdAt").and(Sort.by(direction, "id"));
+    }
+}
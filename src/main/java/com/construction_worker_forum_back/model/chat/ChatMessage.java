@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -14,6 +16,10 @@ import java.util.Date;
 @Document
 @NoArgsConstructor
 @AllArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "chat_history", def = "{'chatId': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "recipient_status", def = "{'recipientId': 1, 'status': 1}")
+})
 public class ChatMessage {
     @Id
     private String id;
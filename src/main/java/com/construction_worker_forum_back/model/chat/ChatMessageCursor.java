@@ -0,0 +1,47 @@
+package com.construction_worker_forum_back.model.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a chat history ordered from the latest message, by timestamp and message id.
+ * Clients get it as an opaque string and send it back to fetch older messages.
+ */
+@Getter
+@AllArgsConstructor
+public class ChatMessageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private Date timestamp;
+    private String id;
+
+    public static ChatMessageCursor of(ChatMessage chatMessage) {
+        return new ChatMessageCursor(chatMessage.getTimestamp(), chatMessage.getId());
+    }
+
+    public String encode() {
+        String raw = timestamp.getTime() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChatMessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (!ObjectId.isValid(parts[1])) {
+                throw new IllegalArgumentException("Invalid message id " + parts[1]);
+            }
+            return new ChatMessageCursor(new Date(Long.parseLong(parts[0])), parts[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor!");
+        }
+    }
+}
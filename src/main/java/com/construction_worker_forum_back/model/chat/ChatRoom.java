@@ -7,6 +7,10 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+/**
+ * The unique (senderId, recipientId) index is created by {@link com.construction_worker_forum_back.service.ChatRoomIndexService}
+ * after duplicate rooms were removed, auto index creation would fail the startup on them.
+ */
 @Data
 @Builder
 @Document
@@ -0,0 +1,26 @@
+package com.construction_worker_forum_back.model.dto;
+
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Comment without its liker list, only their count.
+ */
+@Builder
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentSummaryDto {
+    private Long id;
+    private String content;
+    private Date createdAt;
+    private Date updatedAt;
+    private Long userId;
+    private String username;
+    private Long postId;
+    private Long parentCommentId;
+    private Long likeCount;
+}
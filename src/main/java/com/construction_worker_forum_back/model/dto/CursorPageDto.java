@@ -0,0 +1,42 @@
+package com.construction_worker_forum_back.model.dto;
+
+import com.construction_worker_forum_back.model.PageCursor;
+import lombok.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+@Builder
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Builds a page from rows fetched with one extra element, which only tells whether a next page exists.
+     */
+    public static <R, T> CursorPageDto<T> of(
+            List<R> rows,
+            int limit,
+            Sort.Direction direction,
+            Function<R, Date> createdAtOf,
+            Function<R, Long> idOf,
+            Function<List<R>, List<T>> mapping
+    ) {
+        boolean hasNext = rows.size() > limit;
+        List<R> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            R last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PageCursor(direction, createdAtOf.apply(last), idOf.apply(last)).encode();
+        }
+        return new CursorPageDto<>(mapping.apply(pageRows), nextCursor, hasNext);
+    }
+}
@@ -30,6 +30,8 @@ public class PostDto implements Serializable {
     private List<CommentSimpleDto> comments;
     private List<LikerSimpleDto> likers;
     private List<FollowerSimpleDto> followers;
+    private Long likersQuantity;
+    private Long followersQuantity;
     private TopicSimpleDto topic;
     private Set<Keyword> keywords;
 }
@@ -0,0 +1,20 @@
+package com.construction_worker_forum_back.model.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostReactionStateDto {
+    private Long postId;
+    /**
+     * Answers of a like or follow request leave the state of the other reaction out (null), it isn't looked up.
+     */
+    private Boolean liked;
+    private Boolean followed;
+    private long likeCount;
+    private long followerCount;
+}
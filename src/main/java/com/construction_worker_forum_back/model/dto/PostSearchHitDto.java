@@ -0,0 +1,20 @@
+package com.construction_worker_forum_back.model.dto;
+
+import lombok.*;
+
+import java.util.Date;
+
+@Builder
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSearchHitDto {
+    private Long id;
+    private String title;
+    private String highlightedTitle;
+    private String highlightedContent;
+    private Date createdAt;
+    private Double score;
+}
@@ -0,0 +1,29 @@
+package com.construction_worker_forum_back.model.dto;
+
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Post without its liker, follower and comment lists, only their counts.
+ */
+@Builder
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSummaryDto {
+    private Long id;
+    private String title;
+    private String content;
+    private Date createdAt;
+    private Date updatedAt;
+    private Long userId;
+    private String username;
+    private Long topicId;
+    private String topicName;
+    private Long likeCount;
+    private Long followerCount;
+    private Long commentCount;
+}
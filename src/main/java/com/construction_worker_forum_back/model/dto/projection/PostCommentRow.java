@@ -0,0 +1,19 @@
+package com.construction_worker_forum_back.model.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Comment columns needed by a post listing, loaded for many posts at once.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCommentRow {
+    private Long postId;
+    private Long id;
+    private String content;
+    private Date createdAt;
+    private Date updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.construction_worker_forum_back.model.dto.projection;
+
+import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.model.security.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Flat row of a post listing fetched with a JPQL constructor expression.
+ * Contains the post columns, its author and topic columns and the likers/followers counts,
+ * so no entity (and none of its lazy collections) has to be loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class PostListRow {
+    private Long id;
+    private String title;
+    private String content;
+    private Date createdAt;
+    private Date updatedAt;
+    private Long userId;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String bio;
+    private String avatar;
+    private Date userCreatedAt;
+    private Date userUpdatedAt;
+    private AccountStatus accountStatus;
+    private Role userRoles;
+    private Long topicId;
+    private String topicName;
+    private String topicDescription;
+    private Date topicCreatedAt;
+    private Date topicUpdatedAt;
+    private Long likersQuantity;
+    private Long followersQuantity;
+}
@@ -0,0 +1,15 @@
+package com.construction_worker_forum_back.model.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Single (post, related record) pair used to load likers, followers and keywords of many posts at once.
+ */
+@Getter
+@AllArgsConstructor
+public class PostRelationRow {
+    private Long postId;
+    private Long relatedId;
+    private String name;
+}
@@ -0,0 +1,18 @@
+package com.construction_worker_forum_back.model.dto.projection;
+
+import java.util.Date;
+
+/**
+ * Post matched by the full-text index together with its relevance score.
+ */
+public interface PostSearchRow {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    Date getCreatedAt();
+
+    Double getScore();
+}
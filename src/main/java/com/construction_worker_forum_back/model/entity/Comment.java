@@ -1,8 +1,6 @@
 package com.construction_worker_forum_back.model.entity;
 
 import lombok.*;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -22,8 +20,6 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Cacheable
-@Cache(region = "commentCache", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Comment implements Serializable {
     @Serial
     private static final long serialVersionUID = -6470090944414208496L;
@@ -62,8 +58,16 @@ public class Comment implements Serializable {
     @OneToMany(mappedBy = "parentComment", cascade = CascadeType.REMOVE)
     private Set<Comment> subComments = new HashSet<>();
 
+    /*
+     * Changed only by the atomic update of EntityCounterService.
+     */
+    @Column(name = "like_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Long likeCount = 0L;
+
     @PrePersist
     private void beforeSaving() {
         createdAt = Date.from(Instant.now());
+        likeCount = 0L;
     }
 }
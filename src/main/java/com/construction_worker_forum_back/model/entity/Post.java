@@ -1,8 +1,6 @@
 package com.construction_worker_forum_back.model.entity;
 
 import lombok.*;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -23,8 +21,6 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Cacheable
-@Cache(region = "postCache", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Post implements IEntity, Serializable {
     @Serial
     private static final long serialVersionUID = -6470090944414208496L;
@@ -77,8 +73,27 @@ public class Post implements IEntity, Serializable {
     )
     private Set<Keyword> keywords = new HashSet<>();
 
+    /*
+     * Counters are changed only by the atomic updates of EntityCounterService,
+     * so regular entity updates never overwrite them with a stale value.
+     */
+    @Column(name = "like_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Long likeCount = 0L;
+
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Long followerCount = 0L;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @Builder.Default
+    private Long commentCount = 0L;
+
     @PrePersist
     private void beforeSaving() {
         createdAt = Date.from(Instant.now());
+        likeCount = 0L;
+        followerCount = 0L;
+        commentCount = 0L;
     }
 }
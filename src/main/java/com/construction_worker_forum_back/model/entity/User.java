@@ -3,8 +3,6 @@ package com.construction_worker_forum_back.model.entity;
 import com.construction_worker_forum_back.model.security.AccountStatus;
 import com.construction_worker_forum_back.model.security.Role;
 import lombok.*;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -27,8 +25,6 @@ import java.util.Set;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Cacheable
-@Cache(region = "userCache", usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User implements Serializable {
     @Serial
     private static final long serialVersionUID = -6470090944414208496L;
@@ -1,9 +1,15 @@
 package com.construction_worker_forum_back.repository;
 
+import com.construction_worker_forum_back.model.dto.CommentSummaryDto;
+import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
 import com.construction_worker_forum_back.model.entity.Comment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 
+import java.util.Date;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -14,5 +20,41 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByPost_Id(Long id);
 
+    List<Comment> findByPost_Id(Long id, Pageable pageable);
+
+    @Query("select c from Comment c where c.post.id = :postId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<Comment> findCommentsOfPostBefore(Long postId, Date createdAt, Long id, Pageable pageable);
+
+    @Query("select c from Comment c where c.post.id = :postId " +
+            "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) " +
+            "order by c.createdAt asc, c.id asc")
+    List<Comment> findCommentsOfPostAfter(Long postId, Date createdAt, Long id, Pageable pageable);
+
     List<Comment> findByParentComment_Id(Long id);
+
+    @Query("select distinct c.post.id from Comment c where c.user.id = :userId and c.post is not null")
+    List<Long> findPostIdsOfUserComments(Long userId);
+
+    @Query("select u.id from Comment c join c.likers u where c.id = :commentId")
+    List<Long> findLikerIdsOfComment(Long commentId);
+
+    @Query(
+            value = "select new com.construction_worker_forum_back.model.dto.CommentSummaryDto(" +
+                    "c.id, c.content, c.createdAt, c.updatedAt, u.id, u.username, c.post.id, pc.id, c.likeCount) " +
+                    "from Comment c left join c.user u left join c.parentComment pc where c.post.id = :postId",
+            countQuery = "select count(c) from Comment c where c.post.id = :postId"
+    )
+    Page<CommentSummaryDto> findCommentSummariesByPostId(Long postId, Pageable pageable);
+
+    /**
+     * Total number of elements is taken from the comment like counter instead of counting the join table.
+     */
+    @Query(
+            value = "select new com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto(u.id, u.username) " +
+                    "from Comment c join c.likers u where c.id = :commentId order by u.id",
+            countQuery = "select c.likeCount from Comment c where c.id = :commentId"
+    )
+    Page<LikerSimpleDto> findLikersOfComment(Long commentId, Pageable pageable);
 }
@@ -1,34 +1,156 @@
 package com.construction_worker_forum_back.repository;
 
+import com.construction_worker_forum_back.model.dto.PostSummaryDto;
+import com.construction_worker_forum_back.model.dto.projection.PostCommentRow;
+import com.construction_worker_forum_back.model.dto.projection.PostListRow;
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.model.dto.projection.PostSearchRow;
+import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
+import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
 import com.construction_worker_forum_back.model.entity.Post;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
 
     List<Post> findByUser_UsernameIgnoreCase(@NonNull String username);
 
-    List<Post> findByTopic_Id(@NonNull Long id);
-
     int deletePostById(Long postId);
 
-    List<Post> findByTitleContainsIgnoreCaseOrContentContainsIgnoreCase(String title, String content);
+    @Query("select p.topic.id from Post p where p.id = :postId")
+    Optional<Long> findTopicIdById(Long postId);
+
+    @Query("select distinct p.topic.id from Post p where p.user.id = :userId and p.topic is not null")
+    List<Long> findTopicIdsOfUserPosts(Long userId);
+
+    @Query("select p.id from Post p where p.topic.id = :topicId")
+    Page<Long> findPostIdPageByTopicId(Long topicId, Pageable pageable);
+
+    @Query("select p.id from Post p order by coalesce(p.updatedAt, p.createdAt) desc, p.id desc")
+    List<Long> findRecentlyActiveIds(Pageable pageable);
+
+    /**
+     * Returns only posts which are tagged with every one of the given keywords.
+     * Filtering, sorting and paging are done by the database, so only the requested page is loaded.
+     *
+     * @param topicId       id of the topic the posts belong to
+     * @param keywords      distinct keyword names which all have to be present on the post
+     * @param keywordsCount number of distinct keyword names
+     * @param pageable      page, size and sort of the result
+     * @return page of ids of the matching posts together with the total number of matches
+     */
+    @Query(
+            value = "select p.id from Post p where p.topic.id = :topicId and p.id in (" +
+                    "select kp.id from Post kp join kp.keywords k " +
+                    "where kp.topic.id = :topicId and k.name in :keywords " +
+                    "group by kp.id having count(distinct k.name) = :keywordsCount)",
+            countQuery = "select count(p) from Post p where p.topic.id = :topicId and p.id in (" +
+                    "select kp.id from Post kp join kp.keywords k " +
+                    "where kp.topic.id = :topicId and k.name in :keywords " +
+                    "group by kp.id having count(distinct k.name) = :keywordsCount)"
+    )
+    Page<Long> findPostIdsByTopicIdHavingAllKeywords(Long topicId, Set<String> keywords, long keywordsCount, Pageable pageable);
+
+    String POST_LIST_ROW_SELECT = "select new com.construction_worker_forum_back.model.dto.projection.PostListRow(" +
+            "p.id, p.title, p.content, p.createdAt, p.updatedAt, " +
+            "u.id, u.username, u.email, u.firstName, u.lastName, u.bio, u.avatar, u.createdAt, u.updatedAt, u.accountStatus, u.userRoles, " +
+            "t.id, t.name, t.description, t.createdAt, t.updatedAt, " +
+            "p.likeCount, p.followerCount) " +
+            "from Post p left join p.user u left join p.topic t";
+
+    @Query(value = POST_LIST_ROW_SELECT)
+    List<PostListRow> findAllPostListRows();
+
+    @Query(value = POST_LIST_ROW_SELECT + " where p.id in :postIds")
+    List<PostListRow> findPostListRowsByIds(Collection<Long> postIds);
+
+    @Query(POST_LIST_ROW_SELECT + " where t.id = :topicId")
+    List<PostListRow> findPostListRowsByTopicId(Long topicId, Pageable pageable);
+
+    @Query(POST_LIST_ROW_SELECT + " where t.id = :topicId " +
+            "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) " +
+            "order by p.createdAt desc, p.id desc")
+    List<PostListRow> findPostListRowsByTopicIdBefore(Long topicId, Date createdAt, Long id, Pageable pageable);
+
+    @Query(POST_LIST_ROW_SELECT + " where t.id = :topicId " +
+            "and (p.createdAt > :createdAt or (p.createdAt = :createdAt and p.id > :id)) " +
+            "order by p.createdAt asc, p.id asc")
+    List<PostListRow> findPostListRowsByTopicIdAfter(Long topicId, Date createdAt, Long id, Pageable pageable);
 
-    List<Post> findAllPaginatedByTopic_Id(Long id, Pageable pageable);
+    @Query("select new com.construction_worker_forum_back.model.dto.projection.PostRelationRow(p.id, u.id, u.username) " +
+            "from Post p join p.likers u where p.id in :postIds")
+    List<PostRelationRow> findLikersOfPosts(Collection<Long> postIds);
+
+    @Query("select new com.construction_worker_forum_back.model.dto.projection.PostRelationRow(p.id, u.id, u.username) " +
+            "from Post p join p.followers u where p.id in :postIds")
+    List<PostRelationRow> findFollowersOfPosts(Collection<Long> postIds);
+
+    @Query("select new com.construction_worker_forum_back.model.dto.projection.PostRelationRow(p.id, k.id, k.name) " +
+            "from Post p join p.keywords k where p.id in :postIds")
+    List<PostRelationRow> findKeywordsOfPosts(Collection<Long> postIds);
+
+    @Query("select new com.construction_worker_forum_back.model.dto.projection.PostCommentRow(c.post.id, c.id, c.content, c.createdAt, c.updatedAt) " +
+            "from Comment c where c.post.id in :postIds")
+    List<PostCommentRow> findCommentsOfPosts(Collection<Long> postIds);
+
+    String POST_FULL_TEXT_MATCH = "match(p.title, p.content) against (:query in boolean mode)";
+
+    /**
+     * Ranks posts by relevance using the {@code FT_post_title_content} full-text index.
+     *
+     * @param query    MySQL boolean mode query, see {@link com.construction_worker_forum_back.service.SearchHighlightUtil#toBooleanModeQuery}
+     * @param pageable page and size of the result, sorting is always by relevance
+     * @return page of matching posts, most relevant first
+     */
+    @Query(
+            value = "select p.id as id, p.title as title, p.content as content, p.created_at as createdAt, " +
+                    POST_FULL_TEXT_MATCH + " as score from posts p where " + POST_FULL_TEXT_MATCH +
+                    " order by score desc, p.id desc",
+            countQuery = "select count(*) from posts p where " + POST_FULL_TEXT_MATCH,
+            nativeQuery = true
+    )
+    Page<PostSearchRow> searchByTitleOrContent(String query, Pageable pageable);
+
+    String POST_SUMMARY_SELECT = "select new com.construction_worker_forum_back.model.dto.PostSummaryDto(" +
+            "p.id, p.title, p.content, p.createdAt, p.updatedAt, u.id, u.username, t.id, t.name, " +
+            "p.likeCount, p.followerCount, p.commentCount) " +
+            "from Post p left join p.user u left join p.topic t";
+
+    /**
+     * Not query cached: summaries carry the counters, which change far more often than any cached result would be read.
+     */
+    @Query(POST_SUMMARY_SELECT + " where p.id = :postId")
+    Optional<PostSummaryDto> findPostSummaryById(Long postId);
+
+    @Query(
+            value = POST_SUMMARY_SELECT + " where t.id = :topicId",
+            countQuery = "select count(p) from Post p where p.topic.id = :topicId"
+    )
+    Page<PostSummaryDto> findPostSummariesByTopicId(Long topicId, Pageable pageable);
 
+    /**
+     * Total number of elements is taken from the post like counter instead of counting the join table.
+     */
     @Query(
-            value = "select p from Post p left join fetch p.keywords k where p.topic.id = :topicId and k.name in :keywords"
+            value = "select new com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto(u.id, u.username) " +
+                    "from Post p join p.likers u where p.id = :postId order by u.id",
+            countQuery = "select p.likeCount from Post p where p.id = :postId"
     )
-    List<Post> findAllPostsByTopicIdAndKeywords(Long topicId, Set<String> keywords);
+    Page<LikerSimpleDto> findLikersOfPost(Long postId, Pageable pageable);
 
     @Query(
-            value = "select p from Post p left join fetch p.keywords k where p.topic.id = :topicId and k.name in :keywords"
+            value = "select new com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto(u.id, u.username) " +
+                    "from Post p join p.followers u where p.id = :postId order by u.id",
+            countQuery = "select p.followerCount from Post p where p.id = :postId"
     )
-    List<Post> findAllSortedPostsByTopicIdAndKeywords(Long topicId, Set<String> keywords, Sort sort);
+    Page<FollowerSimpleDto> findFollowersOfPost(Long postId, Pageable pageable);
 }
@@ -1,9 +1,11 @@
 package com.construction_worker_forum_back.repository;
 
 import com.construction_worker_forum_back.model.entity.Topic;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +16,17 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
     Optional<Topic> findTopicByName(String name);
 
     List<Topic> findByNameContainsIgnoreCase(String name);
+
+    List<Topic> findAllBy(Pageable pageable);
+
+    @Query("select t.id from Topic t order by coalesce(t.updatedAt, t.createdAt) desc, t.id desc")
+    List<Long> findRecentlyActiveIds(Pageable pageable);
+
+    @Query("select t from Topic t where t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id) " +
+            "order by t.createdAt desc, t.id desc")
+    List<Topic> findTopicsBefore(Date createdAt, Long id, Pageable pageable);
+
+    @Query("select t from Topic t where t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id) " +
+            "order by t.createdAt asc, t.id asc")
+    List<Topic> findTopicsAfter(Date createdAt, Long id, Pageable pageable);
 }
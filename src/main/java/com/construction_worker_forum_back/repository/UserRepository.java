@@ -1,9 +1,11 @@
 package com.construction_worker_forum_back.repository;
 
 import com.construction_worker_forum_back.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -18,4 +20,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("select u.username from User u where u.id = ?1")
     String findUsernameByUser_id(Long id);
+
+    @Query("select u.id from User u where u.username = ?1")
+    Optional<Long> findIdByUsername(String username);
+
+    @Query("select u.id from User u order by coalesce(u.updatedAt, u.createdAt) desc, u.id desc")
+    List<Long> findRecentlyActiveIds(Pageable pageable);
 }
@@ -0,0 +1,176 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.repository.TopicRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Preloads the most recently active topics, users and posts into their caches after a deploy.
+ * Runs as an {@link ApplicationRunner}, Boot switches readiness to ACCEPTING_TRAFFIC only after all runners
+ * finished, so an instance joins the load balancer once the warm-up completed or its time budget ran out.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "cache.warm-up.enabled", havingValue = "true")
+public class CacheWarmUpService implements ApplicationRunner {
+
+    @Getter
+    @AllArgsConstructor
+    static class Batch {
+        private String cacheName;
+        private List<Long> ids;
+        private Consumer<Long> loader;
+    }
+
+    private final PostRepository postRepository;
+    private final TopicRepository topicRepository;
+    private final UserRepository userRepository;
+    private final PostService postService;
+    private final TopicService topicService;
+    private final UserService userService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int postLimit;
+    private final int topicLimit;
+    private final int userLimit;
+    private final int batchSize;
+    private final int threads;
+    private final Duration timeBudget;
+
+    public CacheWarmUpService(
+            PostRepository postRepository,
+            TopicRepository topicRepository,
+            UserRepository userRepository,
+            PostService postService,
+            TopicService topicService,
+            UserService userService,
+            PlatformTransactionManager transactionManager,
+            @Value("${cache.warm-up.posts:2000}") int postLimit,
+            @Value("${cache.warm-up.topics:200}") int topicLimit,
+            @Value("${cache.warm-up.users:2000}") int userLimit,
+            @Value("${cache.warm-up.batch-size:100}") int batchSize,
+            @Value("${cache.warm-up.threads:4}") int threads,
+            @Value("${cache.warm-up.time-budget:PT30S}") Duration timeBudget
+    ) {
+        this.postRepository = postRepository;
+        this.topicRepository = topicRepository;
+        this.userRepository = userRepository;
+        this.postService = postService;
+        this.topicService = topicService;
+        this.userService = userService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.postLimit = postLimit;
+        this.topicLimit = topicLimit;
+        this.userLimit = userLimit;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * A failed warm-up never fails the startup, the caches then fill on demand as without it.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up failed, caches fill on demand: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Entries are loaded through the cached service methods, so keys, serializers and TTLs are the ones
+     * regular requests use. Batches run in parallel, loading stops when the time budget runs out.
+     *
+     * @return number of entries loaded
+     */
+    public int warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        List<Batch> batches = new ArrayList<>();
+        addBatches(batches, "topicCache", recentIds(topicRepository::findRecentlyActiveIds, topicLimit), topicService::findTopicById);
+        addBatches(batches, "userCache", recentIds(userRepository::findRecentlyActiveIds, userLimit), userService::findById);
+        addBatches(batches, "postCache", recentIds(postRepository::findRecentlyActiveIds, postLimit), postService::findById);
+        int total = batches.stream().mapToInt(batch -> batch.getIds().size()).sum();
+        log.info("Cache warm-up of {} entries in {} batches started, time budget {}", total, batches.size(), timeBudget);
+
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Batch batch : batches) {
+                futures.add(executor.submit(() -> load(batch, deadline, loaded, failed, total)));
+            }
+            for (Future<?> future : futures) {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            log.info("Cache warm-up loaded {} of {} entries in {} ms, {} failed",
+                    loaded.get(), total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), failed.get());
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up ran out of its time budget {} after {} of {} entries", timeBudget, loaded.get(), total);
+        } catch (ExecutionException e) {
+            log.warn("Cache warm-up stopped after {} of {} entries: {}", loaded.get(), total, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return loaded.get();
+    }
+
+    private List<Long> recentIds(Function<PageRequest, List<Long>> query, int limit) {
+        return limit > 0 ? query.apply(PageRequest.of(0, limit)) : List.of();
+    }
+
+    private void addBatches(List<Batch> batches, String cacheName, List<Long> ids, Consumer<Long> loader) {
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            batches.add(new Batch(cacheName, ids.subList(from, Math.min(ids.size(), from + batchSize)), loader));
+        }
+    }
+
+    /**
+     * A failing entry (e.g. Redis briefly unavailable) doesn't stop the batch, the entry is loaded on demand later.
+     * Every entry is loaded in its own read-only transaction: warm-up threads have no request bound session, and mapping
+     * an entity to its cached DTO initializes lazy collections.
+     */
+    private void load(Batch batch, long deadline, AtomicInteger loaded, AtomicInteger failed, int total) {
+        for (Long id : batch.getIds()) {
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> batch.getLoader().accept(id));
+                loaded.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                log.debug("Warming up {} of {} failed: {}", id, batch.getCacheName(), e.getMessage());
+            }
+        }
+        log.info("Cache warm-up: {} batch done, {}/{} entries loaded", batch.getCacheName(), loaded.get(), total);
+    }
+}
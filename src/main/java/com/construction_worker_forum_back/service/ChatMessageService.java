@@ -2,56 +2,172 @@ package com.construction_worker_forum_back.service;
 
 import com.construction_worker_forum_back.exception.MessageNotFoundException;
 import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.ChatMessageCursor;
 import com.construction_worker_forum_back.model.chat.MessageStatus;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.repository.ChatMessageRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ChatMessageService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
     @Autowired
     private final ChatMessageRepository repository;
     @Autowired
     private ChatRoomService chatRoomService;
     @Autowired
     private MongoOperations mongoOperations;
+    @Autowired
+    private ChatUnreadCounterService unreadCounterService;
+    @Autowired(required = false)
+    private ChatMessageWriteBehindService writeBehindService;
 
     public ChatMessage save(ChatMessage chatMessage) {
         chatMessage.setStatus(MessageStatus.RECEIVED);
-        return repository.save(chatMessage);
+        if (chatMessage.getTimestamp() == null) {
+            chatMessage.setTimestamp(new Date());
+        }
+        ChatMessage saved = repository.save(chatMessage);
+        unreadCounterService.increment(saved.getRecipientId(), saved.getSenderId());
+        return saved;
+    }
+
+    /**
+     * Stores a new message, through the write-behind queue when it's enabled. The id and timestamp are assigned here,
+     * so the message can be delivered with its final id as soon as this returns.
+     */
+    public ChatMessage submit(ChatMessage chatMessage) {
+        if (writeBehindService == null) {
+            return save(chatMessage);
+        }
+        chatMessage.setId(new ObjectId().toHexString());
+        chatMessage.setStatus(MessageStatus.RECEIVED);
+        if (chatMessage.getTimestamp() == null) {
+            chatMessage.setTimestamp(new Date());
+        }
+        writeBehindService.submit(chatMessage);
+        return chatMessage;
     }
 
     public long countNewMessages(String senderId, String recipientId) {
-        return repository.countBySenderIdAndRecipientIdAndStatus(senderId, recipientId, MessageStatus.RECEIVED);
+        return unreadCounterService.getUnreadCount(recipientId, senderId);
     }
 
+    /**
+     * @return number of unread messages of the recipient per sender, in one call for all contacts
+     */
+    public Map<String, Long> countNewMessagesOf(String recipientId) {
+        return unreadCounterService.getUnreadCounts(recipientId);
+    }
+
+    /**
+     * Whole conversation, oldest message first. Marks messages of the sender to the recipient as delivered.
+     */
     public List<ChatMessage> findChatMessages(String senderId, String recipientId) {
         Optional<String> chatId = chatRoomService.getChatId(senderId, recipientId, false);
+        if (chatId.isEmpty()) {
+            return List.of();
+        }
+        List<ChatMessage> chatMessages = mongoOperations.find(
+                Query.query(Criteria.where("chatId").is(chatId.get())).with(Sort.by(Sort.Direction.ASC, "timestamp", "id")),
+                ChatMessage.class);
+        if (!chatMessages.isEmpty()) {
+            updateStatus(senderId, recipientId, MessageStatus.DELIVERED);
+        }
+        return chatMessages;
+    }
 
-        List<ChatMessage> chatMessages = chatId.map(repository::findByChatId)
-                .orElse(new ArrayList<>());
+    /**
+     * Returns the conversation from the latest message backwards, the next cursor points to older messages.
+     * Opening the conversation (first page) marks messages of the sender to the recipient as delivered.
+     */
+    public CursorPageDto<ChatMessage> findChatMessagePage(String senderId, String recipientId, Optional<String> cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        Optional<String> chatId = chatRoomService.getChatId(senderId, recipientId, false);
+        if (chatId.isEmpty()) {
+            return new CursorPageDto<>(List.of(), null, false);
+        }
 
-        if (!chatMessages.isEmpty()) {
+        Criteria criteria = Criteria.where("chatId").is(chatId.get());
+        cursor.map(ChatMessageCursor::decode).ifPresent(olderThan -> criteria.orOperator(
+                Criteria.where("timestamp").lt(olderThan.getTimestamp()),
+                Criteria.where("timestamp").is(olderThan.getTimestamp()).and("id").lt(new ObjectId(olderThan.getId()))));
+        Query query = Query.query(criteria)
+                .with(HISTORY_ORDER)
+                .limit(limit + 1);
+        List<ChatMessage> rows = mongoOperations.find(query, ChatMessage.class);
+
+        boolean hasNext = rows.size() > limit;
+        List<ChatMessage> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? ChatMessageCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        if (cursor.isEmpty() && !page.isEmpty()) {
             updateStatus(senderId, recipientId, MessageStatus.DELIVERED);
         }
 
-        return chatMessages;
+        return new CursorPageDto<>(page, nextCursor, hasNext);
+    }
+
+    /**
+     * Passes the whole conversation, oldest message first, to the action while reading it from a Mongo cursor,
+     * so only one batch is held in memory at a time.
+     *
+     * @return number of messages passed
+     */
+    public long forEachChatMessage(String senderId, String recipientId, Consumer<ChatMessage> action) {
+        Optional<String> chatId = chatRoomService.getChatId(senderId, recipientId, false);
+        if (chatId.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("chatId").is(chatId.get()))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "id"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        long count = 0;
+        try (CloseableIterator<ChatMessage> messages = mongoOperations.stream(query, ChatMessage.class)) {
+            while (messages.hasNext()) {
+                action.accept(messages.next());
+                count++;
+            }
+        }
+        return count;
     }
 
     public ChatMessage findById(String id) {
+        if (writeBehindService != null) {
+            Optional<ChatMessage> unflushed = writeBehindService.markDelivered(id);
+            if (unflushed.isPresent()) {
+                return unflushed.get();
+            }
+        }
         return repository.findById(id)
                 .map(chatMessage -> {
+                    if (chatMessage.getStatus() == MessageStatus.RECEIVED) {
+                        unreadCounterService.decrement(chatMessage.getRecipientId(), chatMessage.getSenderId());
+                    }
                     chatMessage.setStatus(MessageStatus.DELIVERED);
                     return repository.save(chatMessage);
                 })
@@ -64,10 +180,20 @@ public class ChatMessageService {
 
     public void updateStatus(String senderId, String recipientId, MessageStatus status) {
         Criteria criteria = Criteria
-                .where("senderId").is(senderId)
-                .and("recipientId").is(recipientId);
+                .where("recipientId").is(recipientId)
+                .and("status").ne(status)
+                .and("senderId").is(senderId);
         Query query = Query.query(criteria);
         Update update = Update.update("status", status);
+        // messages flushed after this still get the status, the ones flushed before are updated in Mongo
+        if (writeBehindService != null) {
+            writeBehindService.updateStatus(senderId, recipientId, status);
+        }
         mongoOperations.updateMulti(query, update, ChatMessage.class);
+        if (status == MessageStatus.DELIVERED) {
+            unreadCounterService.reset(recipientId, senderId);
+        } else {
+            unreadCounterService.evict(recipientId);
+        }
     }
 }
@@ -0,0 +1,255 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.MessageStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accepts chat messages into a bounded in-memory queue and writes them to Mongo with {@code insertMany} batches
+ * on a schedule, so delivering a message to its recipient doesn't wait for Mongo.
+ * <p>
+ * Guarantees:
+ * <ul>
+ *     <li>A message is delivered only after it was queued. A full batch in the queue starts an early flush on
+ *     a background thread, senders never wait for Mongo. When the queue is full the message is rejected without
+ *     delivery.</li>
+ *     <li>A single writer inserts messages in the order they were accepted. Ids and timestamps are assigned
+ *     on acceptance, so reads order a chat by them regardless of when a message reached Mongo.</li>
+ *     <li>A failed batch is kept and retried before newer messages. Ids are assigned locally, so a retry of a partly
+ *     written batch can't duplicate messages.</li>
+ *     <li>On a graceful shutdown remaining messages are written to Mongo, or to the recovery file when Mongo
+ *     can't be reached, which is replayed on the next start. A crash loses messages not flushed yet,
+ *     i.e. at most one flush interval of messages while Mongo is healthy.</li>
+ * </ul>
+ * Until a message is flushed it's found by id only, paged and streamed history shows it after the flush.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "chat.write-behind.enabled", havingValue = "true")
+public class ChatMessageWriteBehindService {
+
+    private final BlockingQueue<ChatMessage> queue;
+    private final Map<String, ChatMessage> unflushed = new ConcurrentHashMap<>();
+    /**
+     * Batch of a failed flush, written before anything newer. Guarded by this.
+     */
+    private final List<ChatMessage> retried = new ArrayList<>();
+    private final MongoOperations mongoOperations;
+    private final ChatUnreadCounterService unreadCounterService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Path recoveryFile;
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failedFlushCounter;
+    private final Counter rejectedCounter;
+    private volatile boolean accepting = true;
+
+    public ChatMessageWriteBehindService(
+            MongoOperations mongoOperations,
+            ChatUnreadCounterService unreadCounterService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${chat.write-behind.capacity:10000}") int capacity,
+            @Value("${chat.write-behind.batch-size:500}") int batchSize,
+            @Value("${chat.write-behind.recovery-file:chat-write-behind-recovery.jsonl}") Path recoveryFile
+    ) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.mongoOperations = mongoOperations;
+        this.unreadCounterService = unreadCounterService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.recoveryFile = recoveryFile;
+        meterRegistry.gaugeCollectionSize("chat.write_behind.pending", List.of(), unflushed.values());
+        this.flushTimer = meterRegistry.timer("chat.write_behind.flush");
+        this.writtenCounter = meterRegistry.counter("chat.write_behind.written");
+        this.failedFlushCounter = meterRegistry.counter("chat.write_behind.flush.failures");
+        this.rejectedCounter = meterRegistry.counter("chat.write_behind.rejected");
+    }
+
+    /**
+     * Queues a message whose id, status and timestamp are already assigned.
+     *
+     * @throws ResponseStatusException SERVICE_UNAVAILABLE when the queue is full or the service is shutting down
+     */
+    public void submit(ChatMessage chatMessage) {
+        unflushed.put(chatMessage.getId(), chatMessage);
+        if (accepting && queue.offer(chatMessage)) {
+            if (queue.size() >= batchSize) {
+                requestFlush();
+            }
+            return;
+        }
+        unflushed.remove(chatMessage.getId());
+        rejectedCounter.increment();
+        requestFlush();
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat is overloaded, message was not sent!");
+    }
+
+    /**
+     * At most one early flush runs and one more waits, further requests are covered by the waiting one.
+     */
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, the final flush writes what is queued
+            flushRequested.set(false);
+        }
+    }
+
+    /**
+     * Marks a message not written yet as delivered, so it's stored as delivered.
+     *
+     * @return the message, empty when it's in Mongo already
+     */
+    public synchronized Optional<ChatMessage> markDelivered(String id) {
+        ChatMessage chatMessage = unflushed.get(id);
+        if (chatMessage == null) {
+            return Optional.empty();
+        }
+        chatMessage.setStatus(MessageStatus.DELIVERED);
+        return Optional.of(chatMessage);
+    }
+
+    /**
+     * Applies a status change done in Mongo to the messages of the sender to the recipient not written yet.
+     */
+    public synchronized void updateStatus(String senderId, String recipientId, MessageStatus status) {
+        unflushed.values().stream()
+                .filter(chatMessage -> senderId.equals(chatMessage.getSenderId()))
+                .filter(chatMessage -> recipientId.equals(chatMessage.getRecipientId()))
+                .forEach(chatMessage -> chatMessage.setStatus(status));
+    }
+
+    public int getPendingCount() {
+        return unflushed.size();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.write-behind.flush-interval-ms:100}")
+    public synchronized void flush() {
+        while (true) {
+            List<ChatMessage> batch = new ArrayList<>(retried);
+            retried.clear();
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!write(batch)) {
+                retried.addAll(batch);
+                return;
+            }
+        }
+    }
+
+    private boolean write(List<ChatMessage> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            try {
+                mongoOperations.insert(batch, ChatMessage.class);
+            } catch (DuplicateKeyException e) {
+                // part of a retried batch was written before, saving by id is idempotent
+                batch.forEach(mongoOperations::save);
+            }
+        } catch (DataAccessException e) {
+            failedFlushCounter.increment();
+            log.error("Writing {} chat messages failed, they will be retried: {}", batch.size(), e.getMessage());
+            return false;
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        for (ChatMessage chatMessage : batch) {
+            unflushed.remove(chatMessage.getId());
+            if (chatMessage.getStatus() == MessageStatus.RECEIVED) {
+                unreadCounterService.increment(chatMessage.getRecipientId(), chatMessage.getSenderId());
+            }
+        }
+        writtenCounter.increment(batch.size());
+        return true;
+    }
+
+    /**
+     * Messages of the recovery file left by a previous shutdown are queued for retry before anything else.
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        if (!Files.exists(recoveryFile)) {
+            return;
+        }
+        try {
+            List<ChatMessage> recovered = new ArrayList<>();
+            for (String line : Files.readAllLines(recoveryFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    recovered.add(objectMapper.readValue(line, ChatMessage.class));
+                }
+            }
+            recovered.forEach(chatMessage -> unflushed.put(chatMessage.getId(), chatMessage));
+            retried.addAll(0, recovered);
+            Files.delete(recoveryFile);
+            log.info("Recovered {} unflushed chat messages from {}", recovered.size(), recoveryFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Chat messages could not be recovered from " + recoveryFile, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        accepting = false;
+        flushExecutor.shutdown();
+        flush();
+        List<ChatMessage> remaining = new ArrayList<>(retried);
+        queue.drainTo(remaining);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(recoveryFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChatMessage chatMessage : remaining) {
+                writer.write(objectMapper.writeValueAsString(chatMessage));
+                writer.newLine();
+            }
+            log.warn("Mongo is not available, {} chat messages were written to {}", remaining.size(), recoveryFile);
+        } catch (IOException e) {
+            log.error("{} chat messages could not be written to {} and are lost: {}", remaining.size(), recoveryFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.ChatRoom;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the unique (senderId, recipientId) index {@link ChatRoomService} upserts rooms against. Rooms created before
+ * the index may be duplicated, they are removed first, so the index can be built on an existing database.
+ * Runs before the context is ready, i.e. before any room is resolved.
+ * <p>
+ * Removing the duplicates is a one-off migration recorded by a marker document in {@value #MIGRATIONS_COLLECTION}.
+ * The instance inserting the marker runs it, the others leave rooms and index alone until it is completed, after which
+ * startup only ensures the index.
+ */
+@Service
+@Slf4j
+public class ChatRoomIndexService {
+
+    static final String SENDER_RECIPIENT_INDEX = "sender_recipient";
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    static final String DEDUPLICATE_ROOMS_MIGRATION = "chat_room_sender_recipient_dedupe";
+    /**
+     * A claim not completed for this long is left behind by an instance which stopped during the migration.
+     */
+    static final Duration CLAIM_LEASE = Duration.ofMinutes(10);
+
+    private final MongoOperations mongoOperations;
+
+    public ChatRoomIndexService(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @PostConstruct
+    public void createUniqueIndex() {
+        if (isMigrated()) {
+            ensureUniqueIndex();
+            return;
+        }
+        if (!claimMigration()) {
+            log.info("Migration {} is run by another instance", DEDUPLICATE_ROOMS_MIGRATION);
+            return;
+        }
+
+        int removed = removeDuplicateRooms();
+        if (removed > 0) {
+            log.warn("Removed {} duplicate chat rooms before creating the {} index", removed, SENDER_RECIPIENT_INDEX);
+        }
+        ensureUniqueIndex();
+        mongoOperations.updateFirst(Query.query(Criteria.where("_id").is(DEDUPLICATE_ROOMS_MIGRATION)),
+                Update.update("completed", true).set("completedAt", new Date()), MIGRATIONS_COLLECTION);
+    }
+
+    private void ensureUniqueIndex() {
+        mongoOperations.indexOps(ChatRoom.class).ensureIndex(new Index()
+                .on("senderId", Sort.Direction.ASC)
+                .on("recipientId", Sort.Direction.ASC)
+                .unique()
+                .named(SENDER_RECIPIENT_INDEX));
+    }
+
+    private boolean isMigrated() {
+        return mongoOperations.exists(Query.query(Criteria.where("_id").is(DEDUPLICATE_ROOMS_MIGRATION)
+                .and("completed").is(true)), MIGRATIONS_COLLECTION);
+    }
+
+    /**
+     * The marker id is unique, so of instances starting together only one inserts it. A claim whose lease has expired
+     * is taken over with a conditional update, which again only one instance wins.
+     *
+     * @return whether this instance has to run the migration
+     */
+    private boolean claimMigration() {
+        Date now = new Date();
+        try {
+            mongoOperations.insert(new Document("_id", DEDUPLICATE_ROOMS_MIGRATION)
+                    .append("completed", false)
+                    .append("claimedAt", now), MIGRATIONS_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            Query expiredClaim = Query.query(Criteria.where("_id").is(DEDUPLICATE_ROOMS_MIGRATION)
+                    .and("completed").is(false)
+                    .and("claimedAt").lt(new Date(now.getTime() - CLAIM_LEASE.toMillis())));
+            return mongoOperations.findAndModify(expiredClaim, Update.update("claimedAt", now),
+                    Document.class, MIGRATIONS_COLLECTION) != null;
+        }
+    }
+
+    /**
+     * Of the rooms of one (sender, recipient) pair the one sharing its chat id with the room of the other direction is
+     * kept, otherwise the oldest one. Messages of a dropped chat id no other room uses are moved to the kept chat id.
+     *
+     * @return number of removed rooms
+     */
+    int removeDuplicateRooms() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.group("senderId", "recipientId")
+                        .push(Aggregation.ROOT).as("rooms")
+                        .count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        int removed = 0;
+        for (Document group : mongoOperations.aggregate(duplicates, ChatRoom.class, Document.class).getMappedResults()) {
+            Document pair = group.get("_id", Document.class);
+            List<Document> rooms = group.getList("rooms", Document.class);
+            String reverseChatId = reverseChatId(pair.getString("senderId"), pair.getString("recipientId"));
+            Document kept = rooms.stream()
+                    .filter(room -> reverseChatId != null && reverseChatId.equals(room.getString("chatId")))
+                    .findFirst()
+                    .orElse(rooms.get(0));
+
+            List<Object> droppedIds = new ArrayList<>();
+            Set<String> droppedChatIds = new LinkedHashSet<>();
+            for (Document room : rooms) {
+                if (room != kept) {
+                    droppedIds.add(room.get("_id"));
+                    droppedChatIds.add(room.getString("chatId"));
+                }
+            }
+            removed += (int) mongoOperations.remove(Query.query(Criteria.where("_id").in(droppedIds)), ChatRoom.class)
+                    .getDeletedCount();
+
+            String keptChatId = kept.getString("chatId");
+            droppedChatIds.remove(keptChatId);
+            droppedChatIds.remove(null);
+            for (String droppedChatId : droppedChatIds) {
+                if (!mongoOperations.exists(Query.query(Criteria.where("chatId").is(droppedChatId)), ChatRoom.class)) {
+                    mongoOperations.updateMulti(Query.query(Criteria.where("chatId").is(droppedChatId)),
+                            Update.update("chatId", keptChatId), ChatMessage.class);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private String reverseChatId(String senderId, String recipientId) {
+        ChatRoom reverse = mongoOperations.findOne(
+                Query.query(Criteria.where("senderId").is(recipientId).and("recipientId").is(senderId)), ChatRoom.class);
+        return reverse != null ? reverse.getChatId() : null;
+    }
+}
@@ -5,52 +5,122 @@ import com.construction_worker_forum_back.model.dto.UserDto;
 import com.construction_worker_forum_back.model.security.Role;
 import com.construction_worker_forum_back.repository.ChatRoomRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
-import lombok.AllArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Resolves the chat id of a (sender, recipient) pair. Chat ids never change, so resolved pairs are kept in memory
+ * and only the first message of a pair on an instance reaches Mongo. New rooms get an id derived from the sorted pair,
+ * so both directions agree on it, and are upserted against the unique (senderId, recipientId) index,
+ * concurrent first messages therefore can't create duplicate rooms.
+ */
 @Service
-@AllArgsConstructor
 public class ChatRoomService {
 
+    private static final long MAXIMUM_CACHED_PAIRS = 100_000;
+
     private final ChatRoomRepository chatRoomRepository;
     private final UserRepository userRepository;
     private final ModelMapper modelMapper;
+    private final MongoOperations mongoOperations;
+    private final Cache<String, String> chatIds = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_PAIRS)
+            .build();
+    private final Timer cachedLookupTimer;
+    private final Timer storedLookupTimer;
+    private final Timer missingLookupTimer;
+    private final Timer createdLookupTimer;
+
+    public ChatRoomService(
+            ChatRoomRepository chatRoomRepository,
+            UserRepository userRepository,
+            ModelMapper modelMapper,
+            MongoOperations mongoOperations,
+            MeterRegistry meterRegistry
+    ) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.userRepository = userRepository;
+        this.modelMapper = modelMapper;
+        this.mongoOperations = mongoOperations;
+        this.cachedLookupTimer = lookupTimer(meterRegistry, "cache");
+        this.storedLookupTimer = lookupTimer(meterRegistry, "mongo");
+        this.missingLookupTimer = lookupTimer(meterRegistry, "missing");
+        this.createdLookupTimer = lookupTimer(meterRegistry, "created");
+    }
+
+    public static String chatIdOf(String senderId, String recipientId) {
+        return senderId.compareTo(recipientId) <= 0
+                ? String.format("%s_%s", senderId, recipientId)
+                : String.format("%s_%s", recipientId, senderId);
+    }
 
     public Optional<String> getChatId(String senderId, String recipientId, boolean createIfNotExist) {
+        long start = System.nanoTime();
+        String pair = senderId + "|" + recipientId;
+        String cached = chatIds.getIfPresent(pair);
+        if (cached != null) {
+            cachedLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
 
-        return chatRoomRepository.findBySenderIdAndRecipientId(senderId, recipientId)
+        Optional<String> stored = chatRoomRepository.findBySenderIdAndRecipientId(senderId, recipientId)
+                .map(ChatRoom::getChatId);
+        if (stored.isPresent()) {
+            chatIds.put(pair, stored.get());
+            storedLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return stored;
+        }
+        if (!createIfNotExist) {
+            missingLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+
+        // a room created before ids were derived may exist in the other direction only, its id is kept
+        String chatId = chatRoomRepository.findBySenderIdAndRecipientId(recipientId, senderId)
                 .map(ChatRoom::getChatId)
-                .or(() -> {
-                    if (!createIfNotExist) return Optional.empty();
-
-                    var chatId = String.format("%s_%s", senderId, recipientId);
-
-                    ChatRoom senderRecipient = ChatRoom.builder()
-                            .chatId(chatId)
-                            .senderId(senderId)
-                            .recipientId(recipientId)
-                            .build();
-
-                    if (Objects.equals(senderId, recipientId)) {
-                        chatRoomRepository.save(senderRecipient);
-                        return Optional.of(chatId);
-                    }
-
-                    ChatRoom recipientSender = ChatRoom.builder()
-                            .chatId(chatId)
-                            .senderId(recipientId)
-                            .recipientId(senderId)
-                            .build();
-
-                    chatRoomRepository.save(senderRecipient);
-                    chatRoomRepository.save(recipientSender);
-                    return Optional.of(chatId);
-                });
+                .orElseGet(() -> chatIdOf(senderId, recipientId));
+        chatId = upsertRoom(senderId, recipientId, chatId);
+        if (!Objects.equals(senderId, recipientId)) {
+            upsertRoom(recipientId, senderId, chatId);
+        }
+        chatIds.put(pair, chatId);
+        createdLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.of(chatId);
+    }
+
+    /**
+     * @return chat id of the room, which is the one of a concurrently created room when this upsert lost the race
+     */
+    private String upsertRoom(String senderId, String recipientId, String chatId) {
+        Query query = Query.query(Criteria.where("senderId").is(senderId).and("recipientId").is(recipientId));
+        Update update = new Update().setOnInsert("chatId", chatId);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoOperations.findAndModify(query, update, options, ChatRoom.class).getChatId();
+        } catch (DuplicateKeyException e) {
+            return mongoOperations.findAndModify(query, update, options, ChatRoom.class).getChatId();
+        }
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("chat.room.lookup")
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     public List<UserDto> findAllContacts(int currentId) {
@@ -0,0 +1,158 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.MessageStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the number of received but not yet delivered chat messages per recipient and sender in a Redis hash
+ * {@code chat:unread:<recipientId>}, field per sender. A hash is rebuilt from Mongo when it lacks {@link #LOADED_MARKER},
+ * e.g. after it expired, and every read falls back to Mongo while Redis can't be reached.
+ * <p>
+ * Changes don't extend the TTL, so every hash is rebuilt from Mongo at least once per TTL. That bounds how long a counter
+ * may drift, whether an update couldn't be written or was skipped while the hash was being rebuilt.
+ */
+@Service
+@Slf4j
+public class ChatUnreadCounterService {
+
+    private static final String LOADED_MARKER = "~loaded";
+    /**
+     * Counters of a recipient whose hash isn't loaded are left alone, loading takes them from Mongo anyway.
+     */
+    private static final DefaultRedisScript<Long> CHANGE_COUNTER = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], '" + LOADED_MARKER + "') == 0 then return nil end " +
+                    "local count = redis.call('hincrby', KEYS[1], ARGV[1], ARGV[2]) " +
+                    "if count <= 0 then redis.call('hdel', KEYS[1], ARGV[1]) end " +
+                    "return count",
+            Long.class);
+    /**
+     * Writes counters counted in Mongo unless another rebuild got there first, counters which were changed since
+     * are never overwritten.
+     */
+    private static final DefaultRedisScript<Long> LOAD_COUNTERS = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], '" + LOADED_MARKER + "') == 1 then return 0 end " +
+                    "redis.call('del', KEYS[1]) " +
+                    "redis.call('hset', KEYS[1], '" + LOADED_MARKER + "', '0') " +
+                    "for i = 2, #ARGV, 2 do redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+                    "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+                    "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MongoOperations mongoOperations;
+    private final Duration counterTtl;
+
+    public ChatUnreadCounterService(
+            StringRedisTemplate redisTemplate,
+            MongoOperations mongoOperations,
+            @Value("${chat.unread.ttl:PT1H}") Duration counterTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.mongoOperations = mongoOperations;
+        this.counterTtl = counterTtl;
+    }
+
+    public void increment(String recipientId, String senderId) {
+        change(recipientId, senderId, 1);
+    }
+
+    public void decrement(String recipientId, String senderId) {
+        change(recipientId, senderId, -1);
+    }
+
+    public void reset(String recipientId, String senderId) {
+        try {
+            redisTemplate.opsForHash().delete(key(recipientId), senderId);
+        } catch (DataAccessException e) {
+            log.warn("Unread counter of {} for {} could not be reset: {}", senderId, recipientId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops all counters of the recipient, they are rebuilt from Mongo on the next read.
+     */
+    public void evict(String recipientId) {
+        try {
+            redisTemplate.delete(key(recipientId));
+        } catch (DataAccessException e) {
+            log.warn("Unread counters of {} could not be evicted: {}", recipientId, e.getMessage());
+        }
+    }
+
+    public long getUnreadCount(String recipientId, String senderId) {
+        return getUnreadCounts(recipientId).getOrDefault(senderId, 0L);
+    }
+
+    /**
+     * @return number of unread messages per sender, senders without unread messages are left out
+     */
+    public Map<String, Long> getUnreadCounts(String recipientId) {
+        String key = key(recipientId);
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+            if (entries.containsKey(LOADED_MARKER)) {
+                Map<String, Long> counts = new HashMap<>();
+                entries.forEach((sender, count) -> {
+                    if (!LOADED_MARKER.equals(sender)) {
+                        counts.put((String) sender, Long.parseLong((String) count));
+                    }
+                });
+                return counts;
+            }
+
+            Map<String, Long> counts = countInMongo(recipientId);
+            List<String> arguments = new ArrayList<>();
+            arguments.add(String.valueOf(counterTtl.toMillis()));
+            counts.forEach((sender, count) -> {
+                arguments.add(sender);
+                arguments.add(String.valueOf(count));
+            });
+            redisTemplate.execute(LOAD_COUNTERS, List.of(key), arguments.toArray());
+            return counts;
+        } catch (DataAccessException e) {
+            log.warn("Unread counters are not available, counting in Mongo: {}", e.getMessage());
+            return countInMongo(recipientId);
+        }
+    }
+
+    private void change(String recipientId, String senderId, long delta) {
+        try {
+            redisTemplate.execute(CHANGE_COUNTER, List.of(key(recipientId)), senderId, String.valueOf(delta));
+        } catch (DataAccessException e) {
+            log.warn("Unread counter of {} for {} could not be changed by {}: {}", senderId, recipientId, delta, e.getMessage());
+        }
+    }
+
+    private Map<String, Long> countInMongo(String recipientId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria
+                        .where("recipientId").is(recipientId)
+                        .and("status").is(MessageStatus.RECEIVED.name())),
+                Aggregation.group("senderId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        mongoOperations.aggregate(aggregation, ChatMessage.class, Document.class)
+                .getMappedResults()
+                .forEach(row -> counts.put(row.getString("_id"), ((Number) row.get("count")).longValue()));
+        return counts;
+    }
+
+    private String key(String recipientId) {
+        return "chat:unread:" + recipientId;
+    }
+}
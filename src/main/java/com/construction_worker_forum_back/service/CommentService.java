@@ -1,9 +1,11 @@
 package com.construction_worker_forum_back.service;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.Notification;
+import com.construction_worker_forum_back.model.PageCursor;
 import com.construction_worker_forum_back.model.dto.CommentDto;
 import com.construction_worker_forum_back.model.dto.CommentRequestDto;
+import com.construction_worker_forum_back.model.dto.CommentSummaryDto;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.PostDto;
 import com.construction_worker_forum_back.model.dto.UserDto;
 import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
@@ -18,7 +20,12 @@ import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -34,12 +41,21 @@ import java.util.Optional;
 @AllArgsConstructor
 public class CommentService {
 
+    private static final String INSERT_COMMENT_LIKE = "insert into comment_like (user_id, comment_id) " +
+            "select u.id, c.id from users u, comments c where u.id = ? and c.id = ? " +
+            "and not exists (select 1 from comment_like cl where cl.user_id = u.id and cl.comment_id = c.id)";
+    private static final String DELETE_COMMENT_LIKE = "delete from comment_like where user_id = ? and comment_id = ?";
+
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostService postService;
     private final UserService userService;
     private final ModelMapper modelMapper;
-    private final NotificationClient notificationClient;
+    private final NotificationDispatchService notificationDispatchService;
+    private final ReactionSetService reactionSetService;
+    private final ListCacheVersionService listCacheVersionService;
+    private final EntityCounterService entityCounterService;
+    private final JdbcTemplate jdbcTemplate;
 
     public List<CommentDto> getAllComments() {
         return commentRepository
@@ -67,7 +83,16 @@ public class CommentService {
                 .toList();
     }
 
-    @Cacheable(value = "commentCache", key = "{#id}")
+    public Page<LikerSimpleDto> getPageOfCommentLikers(Long id, Integer limit, Integer page) {
+        return commentRepository.findLikersOfComment(id, PageRequest.of(page - 1, limit));
+    }
+
+    public Page<CommentSummaryDto> getPageOfCommentSummariesOfPost(Long postId, Integer limit, Integer page) {
+        Pageable oldestFirst = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+        return commentRepository.findCommentSummariesByPostId(postId, oldestFirst);
+    }
+
+    @Cacheable(value = "commentCache", key = "{#id}", sync = true)
     public Optional<CommentDto> findById(Long id) {
         return commentRepository.findById(id)
                 .map(comment -> modelMapper.map(comment, CommentDto.class));
@@ -88,18 +113,15 @@ public class CommentService {
         commentToSave.setUser(modelMapper.map(userById, User.class));
         commentToSave.setPost(modelMapper.map(postById, Post.class));
 
-        notificationClient.sendNotification(
-                        Notification.of(
-                                userById.getUsername(),
-                                postById.getUser().getId().toString(),
-                                "Commented on your post!",
-                                "/post/" + commentRequestDto.getPostId(),
-                                false
-                        )
+        notificationDispatchService.dispatch(
+                Notification.of(
+                        userById.getUsername(),
+                        postById.getUser().getId().toString(),
+                        "Commented on your post!",
+                        "/post/" + commentRequestDto.getPostId(),
+                        false
                 )
-                .doOnNext(notification -> log.info("Notification Response: {}", notification))
-                .doOnError(e -> log.info("Error occurred: {}", e.getMessage()))
-                .subscribe();
+        );
 
         if (commentForReplyId != null) {
             Comment commentForReplyById = commentRepository.findById(commentForReplyId)
@@ -109,32 +131,43 @@ public class CommentService {
             Comment savedComment = commentRepository.save(commentToSave);
             commentForReplyById.getSubComments().add(savedComment);
             commentRepository.save(commentForReplyById);
+            postService.changeCommentCount(commentRequestDto.getPostId(), 1);
+            listCacheVersionService.bumpPostComments(commentRequestDto.getPostId());
 
             return modelMapper.map(savedComment, CommentDto.class);
         }
 
-        return modelMapper.map(commentRepository.save(commentToSave), CommentDto.class);
+        Comment savedComment = commentRepository.save(commentToSave);
+        postService.changeCommentCount(commentRequestDto.getPostId(), 1);
+        listCacheVersionService.bumpPostComments(commentRequestDto.getPostId());
+
+        return modelMapper.map(savedComment, CommentDto.class);
     }
 
+    /**
+     * Duplicates are refused by the Redis likers set, or by the guarded insert when Redis is unavailable.
+     * The join row is written directly, neither the likers of the comment nor the liked comments of the user are loaded.
+     */
     @Transactional
-    @CachePut(value = "commentCache", key = "{#commentId}")
-    public CommentDto likeComment(Long commentId, Long userId) {
+    @CacheEvict(value = "commentCache", key = "{#commentId}")
+    public void likeComment(Long commentId, Long userId) {
         Comment commentFromDb = commentRepository
                 .findById(commentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
 
-        User userById = userRepository
-                .findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-
-        if (commentFromDb.getLikers().contains(userById)) {
+        boolean alreadyLiked = reactionSetService.addCommentLiker(commentId, userId)
+                .map(added -> !added)
+                .orElse(false)
+                || jdbcTemplate.update(INSERT_COMMENT_LIKE, userId, commentId) == 0;
+        if (alreadyLiked) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Comment already liked by user!");
         }
 
-        commentFromDb.getLikers().add(userById);
-        userById.getLikedComments().add(commentFromDb);
-
-        return modelMapper.map(commentFromDb, CommentDto.class);
+        entityCounterService.changeCommentLikeCount(commentId, 1);
+        bumpPostCommentsOf(commentFromDb);
     }
 
     @Transactional
@@ -146,6 +179,8 @@ public class CommentService {
 
         modelMapper.map(commentRequestDto, comment);
         comment.setUpdatedAt(Date.from(Instant.now()));
+        bumpPostCommentsOf(comment);
+        bumpTopicPostsOf(comment);
 
         return modelMapper.map(comment, CommentDto.class);
     }
@@ -172,26 +207,38 @@ public class CommentService {
             }
             subComment.getLikers().clear();
         }
-        return commentRepository.deleteCommentById(commentId) == 1;
+        boolean deleted = commentRepository.deleteCommentById(commentId) == 1;
+        if (deleted && comment.getPost() != null) {
+            postService.changeCommentCount(comment.getPost().getId(), -1);
+            listCacheVersionService.bumpPostComments(comment.getPost().getId());
+        }
+        return deleted;
     }
 
+    /**
+     * The join row is only deleted when the Redis likers set had the user or is unavailable, the counter only
+     * drops when a row was deleted.
+     */
     @Transactional
-    @CachePut(value = "commentCache", key = "{#commentId}")
-    public CommentDto unlikeComment(Long commentId, Long userId) {
+    @CacheEvict(value = "commentCache", key = "{#commentId}")
+    public void unlikeComment(Long commentId, Long userId) {
         Comment commentFromDb = commentRepository
                 .findById(commentId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
 
-        User userById = userRepository
-                .findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-
-        commentFromDb.getLikers().remove(userById);
-        userById.getLikedComments().remove(commentFromDb);
-
-        return modelMapper.map(commentFromDb, CommentDto.class);
+        boolean wasLiked = reactionSetService.removeCommentLiker(commentId, userId).orElse(true)
+                && jdbcTemplate.update(DELETE_COMMENT_LIKE, userId, commentId) > 0;
+        if (wasLiked) {
+            entityCounterService.changeCommentLikeCount(commentId, -1);
+        }
+        bumpPostCommentsOf(commentFromDb);
     }
 
+    @Cacheable(value = ListCacheVersionService.POST_COMMENT_PAGES,
+            key = "{#id, @listCacheVersionService.postCommentsVersion(#id)}")
     public List<CommentDto> getCommentsOfPost(Long id) {
         return commentRepository.findByPost_Id(id)
                 .stream()
@@ -199,10 +246,49 @@ public class CommentService {
                 .toList();
     }
 
+    public CursorPageDto<CommentDto> getCommentsOfPostByCursor(Long id, Optional<String> cursor, Integer limit, Optional<String> orderBy) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive!");
+        }
+        Pageable rowsWithOneExtra = PageRequest.of(0, limit + 1);
+        Sort.Direction direction;
+        List<Comment> comments;
+        if (cursor.isPresent()) {
+            PageCursor pageCursor = PageCursor.decode(cursor.get());
+            direction = pageCursor.getDirection();
+            comments = direction.isAscending()
+                    ? commentRepository.findCommentsOfPostAfter(id, pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra)
+                    : commentRepository.findCommentsOfPostBefore(id, pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra);
+        } else {
+            direction = PageCursor.parseDirection(orderBy.orElse(null), Sort.Direction.ASC);
+            comments = commentRepository.findByPost_Id(id, PageRequest.of(0, limit + 1, PageCursor.keysetSort(direction)));
+        }
+
+        return CursorPageDto.of(comments, limit, direction, Comment::getCreatedAt, Comment::getId, page -> page
+                .stream()
+                .map(comment -> modelMapper.map(comment, CommentDto.class))
+                .toList());
+    }
+
     public List<CommentDto> getCommentsOfParentComment(Long id) {
         return commentRepository.findByParentComment_Id(id)
                 .stream()
                 .map(comment -> modelMapper.map(comment, CommentDto.class))
                 .toList();
     }
-}
\ No newline at end of file
+
+    private void bumpPostCommentsOf(Comment comment) {
+        if (comment.getPost() != null) {
+            listCacheVersionService.bumpPostComments(comment.getPost().getId());
+        }
+    }
+
+    /**
+     * Topic post pages embed the comments of their posts.
+     */
+    private void bumpTopicPostsOf(Comment comment) {
+        if (comment.getPost() != null && comment.getPost().getTopic() != null) {
+            listCacheVersionService.bumpTopicPosts(comment.getPost().getTopic().getId());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.entity.Comment;
+import com.construction_worker_forum_back.model.entity.Post;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Changes the like, follower and comment counters of posts and comments atomically in MySQL, never below zero.
+ * <p>
+ * Counters are written with JDBC like the like write-behind flush does, a JPQL bulk update on counters changed by every
+ * like, follow and comment would flush the persistence context and invalidate cached data of the table each time.
+ * Posts and comments aren't in the second-level cache, the eviction of the changed entity after the surrounding
+ * transaction commits only keeps a cached copy, should one ever exist, from outliving the new count.
+ */
+@Service
+public class EntityCounterService {
+
+    private static final String CHANGE_POST_LIKE_COUNT =
+            "update posts set like_count = like_count + ? where id = ? and like_count + ? >= 0";
+    private static final String CHANGE_POST_FOLLOWER_COUNT =
+            "update posts set follower_count = follower_count + ? where id = ? and follower_count + ? >= 0";
+    private static final String CHANGE_POST_COMMENT_COUNT =
+            "update posts set comment_count = comment_count + ? where id = ? and comment_count + ? >= 0";
+    private static final String CHANGE_COMMENT_LIKE_COUNT =
+            "update comments set like_count = like_count + ? where id = ? and like_count + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCounterService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * @return number of changed rows, 0 when the post doesn't exist or the counter would drop below zero
+     */
+    public int changePostLikeCount(Long postId, long delta) {
+        return change(CHANGE_POST_LIKE_COUNT, Post.class, postId, delta);
+    }
+
+    public int changePostFollowerCount(Long postId, long delta) {
+        return change(CHANGE_POST_FOLLOWER_COUNT, Post.class, postId, delta);
+    }
+
+    public int changePostCommentCount(Long postId, long delta) {
+        return change(CHANGE_POST_COMMENT_COUNT, Post.class, postId, delta);
+    }
+
+    public int changeCommentLikeCount(Long commentId, long delta) {
+        return change(CHANGE_COMMENT_LIKE_COUNT, Comment.class, commentId, delta);
+    }
+
+    private int change(String sql, Class<?> entityClass, Long id, long delta) {
+        int changed = jdbcTemplate.update(sql, delta, id, delta);
+        if (changed > 0) {
+            evictAfterCommit(entityClass, id);
+        }
+        return changed;
+    }
+
+    private void evictAfterCommit(Class<?> entityClass, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entityManagerFactory.getCache().evict(entityClass, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(entityClass, id);
+            }
+        });
+    }
+}
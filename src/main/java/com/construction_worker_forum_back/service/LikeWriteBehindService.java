@@ -0,0 +1,341 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.Notification;
+import com.construction_worker_forum_back.model.entity.Comment;
+import com.construction_worker_forum_back.model.entity.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Acknowledges likes and unlikes from memory and writes them to MySQL in JDBC batches on a schedule.
+ * Only the latest state per (target, user) is kept, so like/unlike bursts of one user cost a single write.
+ * <p>
+ * Reaching the max pending count starts an early flush on a background thread, requests never wait for a flush.
+ * Above the reject pending count new likes are refused with SERVICE_UNAVAILABLE until a flush made room,
+ * changes of likes already pending are still accepted as they don't grow the map.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "like.write-behind.enabled", havingValue = "true")
+public class LikeWriteBehindService {
+
+    public enum Target {
+        POST, COMMENT
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    static class LikeKey {
+        private Target target;
+        private Long targetId;
+        private Long userId;
+    }
+
+    private static final String INSERT_POST_LIKE = "insert into post_like (user_id, post_id) " +
+            "select u.id, p.id from users u, posts p where u.id = ? and p.id = ? " +
+            "and not exists (select 1 from post_like pl where pl.user_id = u.id and pl.post_id = p.id)";
+    private static final String DELETE_POST_LIKE = "delete from post_like where user_id = ? and post_id = ?";
+    private static final String UPDATE_POST_LIKE_COUNT = "update posts set like_count = greatest(like_count + ?, 0) where id = ?";
+
+    private static final String INSERT_COMMENT_LIKE = "insert into comment_like (user_id, comment_id) " +
+            "select u.id, c.id from users u, comments c where u.id = ? and c.id = ? " +
+            "and not exists (select 1 from comment_like cl where cl.user_id = u.id and cl.comment_id = c.id)";
+    private static final String DELETE_COMMENT_LIKE = "delete from comment_like where user_id = ? and comment_id = ?";
+    private static final String UPDATE_COMMENT_LIKE_COUNT = "update comments set like_count = greatest(like_count + ?, 0) where id = ?";
+
+    private static final String SELECT_POST_LIKE_NOTIFICATIONS = "select u.username, p.user_id, p.id from users u, posts p " +
+            "where (u.id, p.id) in (%s)";
+    private static final String SELECT_TOPIC_IDS_OF_POSTS = "select distinct topic_id from posts where topic_id is not null and id in (%s)";
+    private static final String SELECT_POST_IDS_OF_COMMENTS = "select distinct post_id from comments where post_id is not null and id in (%s)";
+
+    private final Map<LikeKey, Boolean> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NotificationDispatchService notificationDispatchService;
+    private final ReactionSetService reactionSetService;
+    private final ListCacheVersionService listCacheVersionService;
+    private final int maxPending;
+    private final int rejectPending;
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Timer flushTimer;
+    private final Counter deduplicatedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedFlushCounter;
+    private final Counter rejectedCounter;
+
+    public LikeWriteBehindService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            CacheManager cacheManager,
+            EntityManagerFactory entityManagerFactory,
+            NotificationDispatchService notificationDispatchService,
+            ReactionSetService reactionSetService,
+            ListCacheVersionService listCacheVersionService,
+            MeterRegistry meterRegistry,
+            @Value("${like.write-behind.max-pending:10000}") int maxPending,
+            @Value("${like.write-behind.reject-pending:20000}") int rejectPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.notificationDispatchService = notificationDispatchService;
+        this.reactionSetService = reactionSetService;
+        this.listCacheVersionService = listCacheVersionService;
+        this.maxPending = maxPending;
+        this.rejectPending = rejectPending;
+        meterRegistry.gaugeMapSize("likes.write_behind.pending", List.of(), pending);
+        this.flushTimer = meterRegistry.timer("likes.write_behind.flush");
+        this.deduplicatedCounter = meterRegistry.counter("likes.write_behind.deduplicated");
+        this.writtenCounter = meterRegistry.counter("likes.write_behind.written");
+        this.failedFlushCounter = meterRegistry.counter("likes.write_behind.flush.failures");
+        this.rejectedCounter = meterRegistry.counter("likes.write_behind.rejected");
+    }
+
+    public void likePost(Long postId, Long userId) {
+        submit(new LikeKey(Target.POST, postId, userId), true);
+    }
+
+    public void unlikePost(Long postId, Long userId) {
+        submit(new LikeKey(Target.POST, postId, userId), false);
+    }
+
+    public void likeComment(Long commentId, Long userId) {
+        submit(new LikeKey(Target.COMMENT, commentId, userId), true);
+    }
+
+    public void unlikeComment(Long commentId, Long userId) {
+        submit(new LikeKey(Target.COMMENT, commentId, userId), false);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @throws ResponseStatusException SERVICE_UNAVAILABLE when the like is new and too many likes are pending
+     */
+    private void submit(LikeKey key, boolean liked) {
+        if (pending.size() >= rejectPending && !pending.containsKey(key)) {
+            rejectedCounter.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many likes are waiting to be saved, try again later!");
+        }
+        if (pending.put(key, liked) != null) {
+            deduplicatedCounter.increment();
+        }
+        if (pending.size() >= maxPending) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * At most one early flush runs and one more waits, further requests are covered by the waiting one.
+     */
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down, the final flush writes what is pending
+            flushRequested.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${like.write-behind.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<LikeKey, Boolean> batch = drain();
+        Timer.Sample sample = Timer.start();
+        List<LikeKey> newPostLikes;
+        try {
+            newPostLikes = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            batch.forEach(pending::putIfAbsent);
+            failedFlushCounter.increment();
+            log.error("Flushing {} likes failed, they will be retried: {}", batch.size(), e.getMessage());
+            return;
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        writtenCounter.increment(batch.size());
+        evictCachedTargets(batch.keySet());
+        if (newPostLikes != null) {
+            notifyPostOwners(newPostLikes);
+        }
+    }
+
+    private Map<LikeKey, Boolean> drain() {
+        Map<LikeKey, Boolean> batch = new HashMap<>();
+        for (LikeKey key : pending.keySet()) {
+            Boolean liked = pending.remove(key);
+            if (liked != null) {
+                batch.put(key, liked);
+            }
+        }
+        return batch;
+    }
+
+    private List<LikeKey> write(Map<LikeKey, Boolean> batch) {
+        Map<Target, Map<Boolean, List<LikeKey>>> grouped = new EnumMap<>(Target.class);
+        batch.forEach((key, liked) -> grouped
+                .computeIfAbsent(key.getTarget(), target -> new HashMap<>())
+                .computeIfAbsent(liked, state -> new ArrayList<>())
+                .add(key));
+
+        Map<Boolean, List<LikeKey>> postLikes = grouped.getOrDefault(Target.POST, Map.of());
+        List<LikeKey> insertedPostLikes = executeBatch(INSERT_POST_LIKE, postLikes.getOrDefault(true, List.of()));
+        List<LikeKey> deletedPostLikes = executeBatch(DELETE_POST_LIKE, postLikes.getOrDefault(false, List.of()));
+        updateCounters(UPDATE_POST_LIKE_COUNT, insertedPostLikes, deletedPostLikes);
+
+        Map<Boolean, List<LikeKey>> commentLikes = grouped.getOrDefault(Target.COMMENT, Map.of());
+        List<LikeKey> insertedCommentLikes = executeBatch(INSERT_COMMENT_LIKE, commentLikes.getOrDefault(true, List.of()));
+        List<LikeKey> deletedCommentLikes = executeBatch(DELETE_COMMENT_LIKE, commentLikes.getOrDefault(false, List.of()));
+        updateCounters(UPDATE_COMMENT_LIKE_COUNT, insertedCommentLikes, deletedCommentLikes);
+
+        return insertedPostLikes;
+    }
+
+    /**
+     * @return keys whose statement changed a row, which are the ones counters have to follow
+     */
+    private List<LikeKey> executeBatch(String sql, List<LikeKey> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        int[][] updateCounts = jdbcTemplate.batchUpdate(sql, keys, keys.size(), (ps, key) -> {
+            ps.setLong(1, key.getUserId());
+            ps.setLong(2, key.getTargetId());
+        });
+
+        List<LikeKey> changed = new ArrayList<>();
+        int index = 0;
+        for (int[] counts : updateCounts) {
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    changed.add(keys.get(index));
+                }
+                index++;
+            }
+        }
+        return changed;
+    }
+
+    private void updateCounters(String sql, List<LikeKey> inserted, List<LikeKey> deleted) {
+        Map<Long, Long> deltas = new HashMap<>();
+        inserted.forEach(key -> deltas.merge(key.getTargetId(), 1L, Long::sum));
+        deleted.forEach(key -> deltas.merge(key.getTargetId(), -1L, Long::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, deltas.entrySet(), deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+    }
+
+    private void evictCachedTargets(Set<LikeKey> keys) {
+        Set<Long> postIds = keys.stream()
+                .filter(key -> key.getTarget() == Target.POST)
+                .map(LikeKey::getTargetId)
+                .collect(Collectors.toSet());
+        Set<Long> commentIds = keys.stream()
+                .filter(key -> key.getTarget() == Target.COMMENT)
+                .map(LikeKey::getTargetId)
+                .collect(Collectors.toSet());
+        // JDBC writes bypass Hibernate, so any second-level copies with the old like counts are dropped here
+        postIds.forEach(id -> entityManagerFactory.getCache().evict(Post.class, id));
+        commentIds.forEach(id -> entityManagerFactory.getCache().evict(Comment.class, id));
+        reactionSetService.evictPostLikers(postIds);
+        reactionSetService.evictCommentLikers(commentIds);
+        selectParentIds(SELECT_TOPIC_IDS_OF_POSTS, postIds).forEach(listCacheVersionService::bumpTopicPosts);
+        selectParentIds(SELECT_POST_IDS_OF_COMMENTS, commentIds).forEach(listCacheVersionService::bumpPostComments);
+
+        Cache postCache = cacheManager.getCache("postCache");
+        Cache commentCache = cacheManager.getCache("commentCache");
+        for (LikeKey key : keys) {
+            Cache cache = key.getTarget() == Target.POST ? postCache : commentCache;
+            if (cache != null) {
+                cache.evict(List.of(key.getTargetId()));
+            }
+        }
+    }
+
+    private List<Long> selectParentIds(String sql, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.queryForList(String.format(sql, placeholders), Long.class, ids.toArray());
+    }
+
+    private void notifyPostOwners(List<LikeKey> likes) {
+        if (likes.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(likes.size(), "(?, ?)"));
+        Object[] pairs = likes.stream()
+                .flatMap(like -> Stream.of(like.getUserId(), like.getTargetId()))
+                .toArray();
+        jdbcTemplate.query(String.format(SELECT_POST_LIKE_NOTIFICATIONS, placeholders), rs -> {
+            notificationDispatchService.dispatch(
+                    Notification.of(
+                            rs.getString(1),
+                            String.valueOf(rs.getLong(2)),
+                            "Liked yor post!",
+                            "/post/" + rs.getLong(3),
+                            false
+                    )
+            );
+        }, pairs);
+    }
+}
@@ -0,0 +1,117 @@
+package com.construction_worker_forum_back.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out the current version of every cached list scope. Versions are part of the keys of
+ * {@link #TOPIC_PAGES}, {@link #TOPIC_POST_PAGES} and {@link #POST_COMMENT_PAGES} entries, so bumping a version makes
+ * all pages of that scope unreachable at once and they simply expire instead of being looked up and deleted one by one.
+ * Versions are bumped after the surrounding transaction commits, so a page can't be reloaded from uncommitted data.
+ */
+@Service
+@Slf4j
+public class ListCacheVersionService {
+
+    public static final String VERSIONS = "listCacheVersions";
+    public static final String TOPIC_PAGES = "topicPages";
+    public static final String TOPIC_POST_PAGES = "topicPostPages";
+    public static final String POST_COMMENT_PAGES = "postCommentPages";
+
+    private static final String TOPICS_SCOPE = "topics";
+
+    private final CacheManager cacheManager;
+
+    public ListCacheVersionService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public long topicsVersion() {
+        return currentVersion(TOPICS_SCOPE);
+    }
+
+    public long topicPostsVersion(Long topicId) {
+        return currentVersion(topicPostsScope(topicId));
+    }
+
+    public long postCommentsVersion(Long postId) {
+        return currentVersion(postCommentsScope(postId));
+    }
+
+    public void bumpTopics() {
+        bumpAfterCommit(TOPICS_SCOPE);
+    }
+
+    public void bumpTopicPosts(Long topicId) {
+        if (topicId != null) {
+            bumpAfterCommit(topicPostsScope(topicId));
+        }
+    }
+
+    public void bumpPostComments(Long postId) {
+        if (postId != null) {
+            bumpAfterCommit(postCommentsScope(postId));
+        }
+    }
+
+    /**
+     * A missing version starts at the current time rather than at zero, so pages cached under an older version
+     * can't become reachable again once the version entry itself expires.
+     */
+    private long currentVersion(String scope) {
+        Cache versions = versions();
+        if (versions == null) {
+            return 0;
+        }
+        Long version = versions.get(scope, Long.class);
+        if (version != null) {
+            return version;
+        }
+        long initial = System.currentTimeMillis();
+        Cache.ValueWrapper existing = versions.putIfAbsent(scope, initial);
+        return existing != null && existing.get() instanceof Long current ? current : initial;
+    }
+
+    private void bumpAfterCommit(String scope) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(scope);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(scope);
+            }
+        });
+    }
+
+    private void bump(String scope) {
+        Cache versions = versions();
+        if (versions == null) {
+            return;
+        }
+        try {
+            Long current = versions.get(scope, Long.class);
+            long next = Math.max(current == null ? 0 : current + 1, System.currentTimeMillis());
+            versions.put(scope, next);
+        } catch (RuntimeException e) {
+            log.warn("Version of {} could not be bumped: {}", scope, e.getMessage());
+        }
+    }
+
+    private Cache versions() {
+        return cacheManager.getCache(VERSIONS);
+    }
+
+    private static String topicPostsScope(Long topicId) {
+        return "topic:" + topicId + ":posts";
+    }
+
+    private static String postCommentsScope(Long postId) {
+        return "post:" + postId + ":comments";
+    }
+}
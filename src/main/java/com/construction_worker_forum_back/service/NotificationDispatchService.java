@@ -0,0 +1,306 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.client.NotificationCircuitBreaker;
+import com.construction_worker_forum_back.client.NotificationClient;
+import com.construction_worker_forum_back.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Buffers notifications and sends them to the bulk endpoint of the notification service in batches,
+ * so a like, comment or chat message never waits for the service.
+ * <p>
+ * Notifications are best effort: when the buffer is full a new notification is dropped, and a batch still failing
+ * after the bounded retries is dropped as well. Both are counted as {@code notification.dispatch.dropped}.
+ * Only connection problems, timeouts, 429 and 5xx responses are retried, with exponential backoff.
+ * <p>
+ * At most {@code max-in-flight} batches are sent at a time (bulkhead), further notifications wait in the buffer.
+ * While the {@link NotificationCircuitBreaker} is open nothing is sent: buffered notifications and batches failing
+ * meanwhile move to the spill queue, which is sent first once the breaker lets calls through again.
+ * <p>
+ * Bursts are coalesced per recipient, link and message: the first notification is sent right away and opens
+ * a window of {@code notification.coalesce.window}, the ones following within the window are merged into a single
+ * notification sent when it closes, e.g. "luke and 41 others" liked your post.
+ */
+@Service
+@Slf4j
+public class NotificationDispatchService {
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    static class BurstKey {
+        private String recipientId;
+        private String redirectTo;
+        private String message;
+
+        static BurstKey of(Notification notification) {
+            return new BurstKey(notification.getRecipientId(), notification.getRedirectTo(), notification.getMessage());
+        }
+    }
+
+    /**
+     * Notifications following the first one of a window, mutated only inside {@code bursts.compute}.
+     */
+    static class Burst {
+        private final long openedAt = System.nanoTime();
+        private final Set<String> senders = new LinkedHashSet<>();
+        private Notification latest;
+
+        void add(Notification notification) {
+            senders.remove(notification.getSenderName());
+            senders.add(notification.getSenderName());
+            latest = notification;
+        }
+
+        int size() {
+            return senders.size();
+        }
+
+        Optional<Notification> summary() {
+            if (latest == null) {
+                return Optional.empty();
+            }
+            if (senders.size() == 1) {
+                return Optional.of(latest);
+            }
+            int others = senders.size() - 1;
+            return Optional.of(Notification.of(
+                    String.format("%s and %d %s", latest.getSenderName(), others, others == 1 ? "other" : "others"),
+                    latest.getRecipientId(),
+                    latest.getMessage(),
+                    latest.getRedirectTo(),
+                    false
+            ));
+        }
+    }
+
+    private final Map<BurstKey, Burst> bursts = new ConcurrentHashMap<>();
+    private final BlockingQueue<Notification> queue;
+    private final BlockingQueue<Notification> spill;
+    private final NotificationClient notificationClient;
+    private final NotificationCircuitBreaker circuitBreaker;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration shutdownTimeout;
+    private final long coalesceWindowNanos;
+    private final int maxBursts;
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Counter coalescedCounter;
+
+    public NotificationDispatchService(
+            NotificationClient notificationClient,
+            NotificationCircuitBreaker circuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${notification.dispatch.capacity:10000}") int capacity,
+            @Value("${notification.dispatch.spill-capacity:50000}") int spillCapacity,
+            @Value("${notification.dispatch.batch-size:100}") int batchSize,
+            @Value("${notification.dispatch.max-in-flight:4}") int maxInFlight,
+            @Value("${notification.dispatch.max-retries:3}") int maxRetries,
+            @Value("${notification.dispatch.retry-backoff:PT0.2S}") Duration retryBackoff,
+            @Value("${notification.dispatch.max-retry-backoff:PT2S}") Duration maxRetryBackoff,
+            @Value("${notification.dispatch.shutdown-timeout:PT5S}") Duration shutdownTimeout,
+            @Value("${notification.coalesce.window:PT30S}") Duration coalesceWindow,
+            @Value("${notification.coalesce.max-bursts:10000}") int maxBursts
+    ) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.spill = new ArrayBlockingQueue<>(spillCapacity);
+        this.notificationClient = notificationClient;
+        this.circuitBreaker = circuitBreaker;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.shutdownTimeout = shutdownTimeout;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        this.maxBursts = maxBursts;
+        meterRegistry.gaugeCollectionSize("notification.dispatch.queued", List.of(), queue);
+        meterRegistry.gaugeCollectionSize("notification.dispatch.spilled", List.of(), spill);
+        meterRegistry.gaugeMapSize("notification.dispatch.bursts", List.of(), bursts);
+        meterRegistry.gauge("notification.dispatch.in_flight", List.of(), inFlight, permits -> maxInFlight - permits.availablePermits());
+        this.batchTimer = meterRegistry.timer("notification.dispatch.batch");
+        this.sentCounter = meterRegistry.counter("notification.dispatch.sent");
+        this.retriedCounter = meterRegistry.counter("notification.dispatch.retried");
+        this.overflowCounter = meterRegistry.counter("notification.dispatch.dropped", "reason", "overflow");
+        this.failedCounter = meterRegistry.counter("notification.dispatch.dropped", "reason", "failed");
+        this.coalescedCounter = meterRegistry.counter("notification.dispatch.coalesced");
+    }
+
+    /**
+     * Sends the first notification of a burst right away and merges the following ones, a window of 0 disables
+     * coalescing. With {@code max-bursts} windows open, notifications of further keys are sent one by one.
+     */
+    public void dispatch(Notification notification) {
+        if (coalesceWindowNanos <= 0) {
+            enqueue(notification);
+            return;
+        }
+        BurstKey key = BurstKey.of(notification);
+        boolean[] sendNow = {false};
+        bursts.compute(key, (burstKey, burst) -> {
+            if (burst != null) {
+                burst.add(notification);
+                return burst;
+            }
+            sendNow[0] = true;
+            return bursts.size() < maxBursts ? new Burst() : null;
+        });
+        if (sendNow[0]) {
+            enqueue(notification);
+        }
+    }
+
+    /**
+     * Sends the summaries of the windows that are over, all of them when {@code all} is set.
+     */
+    private void closeBursts(boolean all) {
+        long now = System.nanoTime();
+        bursts.forEach((key, burst) -> {
+            if ((all || now - burst.openedAt >= coalesceWindowNanos) && bursts.remove(key, burst)) {
+                burst.summary().ifPresent(summary -> {
+                    coalescedCounter.increment(burst.size() - 1);
+                    enqueue(summary);
+                });
+            }
+        });
+    }
+
+    private void enqueue(Notification notification) {
+        if (!queue.offer(notification)) {
+            overflowCounter.increment();
+            log.debug("Notification buffer is full, notification for {} dropped", notification.getRecipientId());
+            return;
+        }
+        if (queue.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public int getSpilledCount() {
+        return spill.size();
+    }
+
+    /**
+     * Starts a batch per free in-flight slot, spilled notifications first, requests don't block the caller.
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.flush-interval-ms:200}")
+    public synchronized void flush() {
+        closeBursts(false);
+        while (!(spill.isEmpty() && queue.isEmpty()) && inFlight.tryAcquire()) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                inFlight.release();
+                queue.drainTo(spill, spill.remainingCapacity());
+                return;
+            }
+            List<Notification> batch = new ArrayList<>(batchSize);
+            spill.drainTo(batch, batchSize);
+            queue.drainTo(batch, batchSize - batch.size());
+            send(batch);
+        }
+    }
+
+    private void send(List<Notification> batch) {
+        Timer.Sample sample = Timer.start();
+        Mono.defer(() -> attempt(batch))
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .maxBackoff(maxRetryBackoff)
+                        .filter(e -> isRetryable(e) && circuitBreaker.tryAcquirePermission())
+                        .doBeforeRetry(signal -> retriedCounter.increment()))
+                .doFinally(signal -> {
+                    sample.stop(batchTimer);
+                    inFlight.release();
+                })
+                .subscribe(
+                        null,
+                        e -> onFailure(batch, Exceptions.isRetryExhausted(e) ? e.getCause() : e),
+                        () -> sentCounter.increment(batch.size()));
+    }
+
+    /**
+     * One request, its outcome feeds the circuit breaker. Errors caused by the request itself, like 400,
+     * say nothing about the health of the service and count as successful calls.
+     */
+    private Mono<Void> attempt(List<Notification> batch) {
+        long start = System.nanoTime();
+        return notificationClient.sendNotifications(batch)
+                .doOnSuccess(ignored -> circuitBreaker.onResult(System.nanoTime() - start, false))
+                .doOnError(e -> circuitBreaker.onResult(System.nanoTime() - start, isRetryable(e)));
+    }
+
+    private void onFailure(List<Notification> batch, Throwable e) {
+        if (isRetryable(e) && circuitBreaker.getState() != NotificationCircuitBreaker.State.CLOSED) {
+            int spilled = 0;
+            for (Notification notification : batch) {
+                if (spill.offer(notification)) {
+                    spilled++;
+                }
+            }
+            overflowCounter.increment(batch.size() - spilled);
+            log.warn("Notification service is unavailable, {} notifications spilled: {}", spilled, e.getMessage());
+            return;
+        }
+        failedCounter.increment(batch.size());
+        log.warn("Sending {} notifications failed, they are dropped: {}", batch.size(), e.getMessage());
+    }
+
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getRawStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return e instanceof WebClientRequestException;
+    }
+
+    /**
+     * Sends what is buffered unless the circuit breaker is open and waits for the batches in flight, up to the shutdown timeout.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        closeBursts(true);
+        while (!(spill.isEmpty() && queue.isEmpty())
+                && circuitBreaker.getState() != NotificationCircuitBreaker.State.OPEN
+                && System.nanoTime() < deadline) {
+            flush();
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        if (inFlight.tryAcquire(maxInFlight, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        if (!(spill.isEmpty() && queue.isEmpty())) {
+            log.warn("{} notifications were not sent before shutdown", spill.size() + queue.size());
+        }
+    }
+}
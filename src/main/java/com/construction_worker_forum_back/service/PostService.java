@@ -1,13 +1,20 @@
 package com.construction_worker_forum_back.service;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.Notification;
+import com.construction_worker_forum_back.model.PageCursor;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.PostReactionStateDto;
 import com.construction_worker_forum_back.model.dto.PostRequestDto;
+import com.construction_worker_forum_back.model.dto.PostSearchHitDto;
+import com.construction_worker_forum_back.model.dto.PostSummaryDto;
 import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.dto.UserDto;
-import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
-import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
+import com.construction_worker_forum_back.model.dto.projection.PostCommentRow;
+import com.construction_worker_forum_back.model.dto.projection.PostListRow;
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.model.dto.projection.PostSearchRow;
+import com.construction_worker_forum_back.model.dto.simple.*;
 import com.construction_worker_forum_back.model.entity.Keyword;
 import com.construction_worker_forum_back.model.entity.Post;
 import com.construction_worker_forum_back.model.entity.Topic;
@@ -17,10 +24,13 @@ import com.construction_worker_forum_back.repository.UserRepository;
 import com.construction_worker_forum_back.validation.EntityUpdateUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,25 +41,27 @@ import org.springframework.web.server.ResponseStatusException;
 import javax.transaction.Transactional;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class PostService {
 
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final TopicService topicService;
     private final ModelMapper modelMapper;
-    private final NotificationClient notificationClient;
+    private final NotificationDispatchService notificationDispatchService;
+    private final ReactionSetService reactionSetService;
+    private final ListCacheVersionService listCacheVersionService;
+    private final EntityCounterService entityCounterService;
 
     public List<PostDto> getAllPosts() {
-        return postRepository
-                .findAll()
-                .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
-                .toList();
+        return mapPostListRowsToPostDtos(postRepository.findAllPostListRows());
     }
 
     public List<PostDto> getPostsByUsername(String username) {
@@ -60,6 +72,8 @@ public class PostService {
                 .toList();
     }
 
+    @Cacheable(value = ListCacheVersionService.TOPIC_POST_PAGES,
+            key = "{#topicId, @listCacheVersionService.topicPostsVersion(#topicId), #orderBy.orElse(''), #limit.orElse(0), #page.orElse(0), #keywords}")
     public List<PostDto> getPostsByTopicId(
             Long topicId,
             Optional<String> orderBy,
@@ -79,11 +93,28 @@ public class PostService {
         if (limit.isPresent() && page.isPresent()) {
             return getPaginatedNumberOfPosts(topicId, limit.get(), page.get());
         }
-        return postRepository
-                .findByTopic_Id(topicId)
-                .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
-                .toList();
+        return getListOfPostsByPageableObject(topicId, Pageable.unpaged());
+    }
+
+    public CursorPageDto<PostDto> getPostsByTopicIdAndCursor(Long topicId, Optional<String> cursor, Integer limit, Optional<String> orderBy) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive!");
+        }
+        Pageable rowsWithOneExtra = PageRequest.of(0, limit + 1);
+        Sort.Direction direction;
+        List<PostListRow> rows;
+        if (cursor.isPresent()) {
+            PageCursor pageCursor = PageCursor.decode(cursor.get());
+            direction = pageCursor.getDirection();
+            rows = direction.isAscending()
+                    ? postRepository.findPostListRowsByTopicIdAfter(topicId, pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra)
+                    : postRepository.findPostListRowsByTopicIdBefore(topicId, pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra);
+        } else {
+            direction = PageCursor.parseDirection(orderBy.orElse(null), Sort.Direction.DESC);
+            rows = postRepository.findPostListRowsByTopicId(topicId, PageRequest.of(0, limit + 1, PageCursor.keysetSort(direction)));
+        }
+
+        return CursorPageDto.of(rows, limit, direction, PostListRow::getCreatedAt, PostListRow::getId, this::mapPostListRowsToPostDtos);
     }
 
     public List<LikerSimpleDto> getPostLikers(Long id) {
@@ -106,14 +137,68 @@ public class PostService {
                 .toList();
     }
 
-    @Cacheable(value = "postCache", key = "{#id}")
+    public Page<LikerSimpleDto> getPageOfPostLikers(Long id, Integer limit, Integer page) {
+        return postRepository.findLikersOfPost(id, PageRequest.of(page - 1, limit));
+    }
+
+    public Page<FollowerSimpleDto> getPageOfPostFollowers(Long id, Integer limit, Integer page) {
+        return postRepository.findFollowersOfPost(id, PageRequest.of(page - 1, limit));
+    }
+
+    /**
+     * Id of the authenticated user, the reaction endpoints take the user from the principal, not from a parameter.
+     */
+    public Long getUserIdByUsername(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+    }
+
+    public List<PostReactionStateDto> getPostReactionStates(Long userId, List<Long> postIds) {
+        return reactionSetService.getPostReactionStates(userId, postIds)
+                .orElseGet(() -> {
+                    Map<Long, Set<Long>> likersByPostId = postRepository.findLikersOfPosts(postIds)
+                            .stream()
+                            .collect(Collectors.groupingBy(PostRelationRow::getPostId,
+                                    Collectors.mapping(PostRelationRow::getRelatedId, Collectors.toSet())));
+                    Map<Long, Set<Long>> followersByPostId = postRepository.findFollowersOfPosts(postIds)
+                            .stream()
+                            .collect(Collectors.groupingBy(PostRelationRow::getPostId,
+                                    Collectors.mapping(PostRelationRow::getRelatedId, Collectors.toSet())));
+
+                    return postIds.stream()
+                            .map(postId -> {
+                                Set<Long> likers = likersByPostId.getOrDefault(postId, Set.of());
+                                Set<Long> followers = followersByPostId.getOrDefault(postId, Set.of());
+                                return new PostReactionStateDto(postId, likers.contains(userId), followers.contains(userId),
+                                        likers.size(), followers.size());
+                            })
+                            .toList();
+                });
+    }
+
+    public Optional<PostSummaryDto> findSummaryById(Long id) {
+        return postRepository.findPostSummaryById(id);
+    }
+
+    public Page<PostSummaryDto> getPageOfPostSummariesByTopicId(Long topicId, Integer limit, Integer page) {
+        Pageable newestFirst = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        return postRepository.findPostSummariesByTopicId(topicId, newestFirst);
+    }
+
+    @Transactional
+    public void changeCommentCount(Long postId, long delta) {
+        entityCounterService.changePostCommentCount(postId, delta);
+        postRepository.findTopicIdById(postId).ifPresent(listCacheVersionService::bumpTopicPosts);
+    }
+
+    @Cacheable(value = "postCache", key = "{#id}", sync = true)
     public Optional<PostDto> findById(Long id) {
         return postRepository.findById(id)
                 .map(post -> modelMapper.map(post, PostDto.class));
     }
 
     @Transactional
-    @CachePut(value = "pageCache", key = "{#postRequestDto}")
+    @CachePut(value = "postCache", key = "{#result.id}")
     public PostDto createPost(PostRequestDto postRequestDto) {
         Post postToSave = modelMapper.map(postRequestDto, Post.class);
         UserDto userById = userService
@@ -125,13 +210,15 @@ public class PostService {
 
         postToSave.setUser(modelMapper.map(userById, User.class));
         postToSave.setTopic(modelMapper.map(topicById, Topic.class));
+        listCacheVersionService.bumpTopicPosts(topicById.getId());
+        listCacheVersionService.bumpTopics();
 
         return modelMapper.map(postRepository.save(postToSave), PostDto.class);
     }
 
     @Transactional
-    @CachePut(value = "postCache", key = "{#postId}")
-    public PostDto followPost(Long postId, Long userId) {
+    @CacheEvict(value = "postCache", key = "{#postId}")
+    public PostReactionStateDto followPost(Long postId, Long userId) {
         Post postFromDb = postRepository
                 .findById(postId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -140,19 +227,25 @@ public class PostService {
                 .findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        if (postFromDb.getFollowers().contains(userById)) {
+        boolean alreadyFollowed = reactionSetService.addPostFollower(postId, userId)
+                .map(added -> !added)
+                .orElseGet(() -> postFromDb.getFollowers().contains(userById));
+        if (alreadyFollowed) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Post already followed by this user!");
         }
 
-        postFromDb.getFollowers().add(userById);
+        addIfLoaded(postFromDb.getFollowers(), userById);
         userById.getFollowedPosts().add(postFromDb);
+        entityCounterService.changePostFollowerCount(postId, 1);
+        postFromDb.setFollowerCount(postFromDb.getFollowerCount() + 1);
+        bumpTopicPostsOf(postFromDb);
 
-        return modelMapper.map(postFromDb, PostDto.class);
+        return reactionStateOf(postFromDb, null, true);
     }
 
     @Transactional
-    @CachePut(value = "postCache", key = "{#postId}")
-    public PostDto unfollowPost(Long postId, Long userId) {
+    @CacheEvict(value = "postCache", key = "{#postId}")
+    public PostReactionStateDto unfollowPost(Long postId, Long userId) {
         Post postFromDb = postRepository
                 .findById(postId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -161,15 +254,21 @@ public class PostService {
                 .findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        postFromDb.getFollowers().remove(userById);
+        boolean wasFollowed = reactionSetService.removePostFollower(postId, userId)
+                .orElseGet(() -> postFromDb.getFollowers().contains(userById));
+        removeIfLoaded(postFromDb.getFollowers(), userById);
+        if (wasFollowed && entityCounterService.changePostFollowerCount(postId, -1) > 0) {
+            postFromDb.setFollowerCount(postFromDb.getFollowerCount() - 1);
+        }
         userById.getFollowedPosts().remove(postFromDb);
+        bumpTopicPostsOf(postFromDb);
 
-        return modelMapper.map(postFromDb, PostDto.class);
+        return reactionStateOf(postFromDb, null, false);
     }
 
     @Transactional
-    @CachePut(value = "postCache", key = "{#postId}")
-    public PostDto likePost(Long postId, Long userId) {
+    @CacheEvict(value = "postCache", key = "{#postId}")
+    public PostReactionStateDto likePost(Long postId, Long userId) {
         Post postFromDb = postRepository
                 .findById(postId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -178,27 +277,31 @@ public class PostService {
                 .findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        if (postFromDb.getLikers().contains(userById)) {
+        boolean alreadyLiked = reactionSetService.addPostLiker(postId, userId)
+                .map(added -> !added)
+                .orElseGet(() -> postFromDb.getLikers().contains(userById));
+        if (alreadyLiked) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Post already liked by user!");
         }
 
-        postFromDb.getLikers().add(userById);
+        addIfLoaded(postFromDb.getLikers(), userById);
         userById.getLikedPosts().add(postFromDb);
-
-        notificationClient.sendNotification(
-                        Notification.of(
-                                userById.getUsername(),
-                                postFromDb.getUser().getId().toString(),
-                                "Liked yor post!",
-                                "/post/" + postFromDb.getId(),
-                                false
-                        )
+        entityCounterService.changePostLikeCount(postId, 1);
+        postFromDb.setLikeCount(postFromDb.getLikeCount() + 1);
+
+        notificationDispatchService.dispatch(
+                Notification.of(
+                        userById.getUsername(),
+                        postFromDb.getUser().getId().toString(),
+                        "Liked yor post!",
+                        "/post/" + postFromDb.getId(),
+                        false
                 )
-                .doOnNext(notification -> log.info("Notification Response: {}", notification))
-                .doOnError(e -> log.info("Error occurred: {}", e.getMessage()))
-                .subscribe();
+        );
 
-        return modelMapper.map(postFromDb, PostDto.class);
+        bumpTopicPostsOf(postFromDb);
+
+        return reactionStateOf(postFromDb, true, null);
     }
 
     @Transactional
@@ -215,12 +318,14 @@ public class PostService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
 
+        bumpTopicPostsOf(postFromDb);
         EntityUpdateUtil.setEntityLastEditor(userRepository, postFromDb, postRequestDto.getUserId());
         modelMapper.map(postRequestDto, postFromDb);
-        modelMapper.map(postRequestDto, topicById);
         postFromDb.setUpdatedAt(Date.from(Instant.now()));
         postFromDb.setTopic(modelMapper.map(topicById, Topic.class));
         postFromDb.setKeywords(postRequestDto.getKeywords());
+        bumpTopicPostsOf(postFromDb);
+        listCacheVersionService.bumpTopics();
 
         return modelMapper.map(postFromDb, PostDto.class);
     }
@@ -228,12 +333,15 @@ public class PostService {
     @Transactional
     @CacheEvict(value = "postCache", key = "{#id}")
     public boolean deleteById(Long id) {
+        postRepository.findTopicIdById(id).ifPresent(listCacheVersionService::bumpTopicPosts);
+        listCacheVersionService.bumpTopics();
+        listCacheVersionService.bumpPostComments(id);
         return postRepository.deletePostById(id) == 1;
     }
 
     @Transactional
-    @CachePut(value = "postCache", key = "{#postId}")
-    public PostDto unlikePost(Long postId, Long userId) {
+    @CacheEvict(value = "postCache", key = "{#postId}")
+    public PostReactionStateDto unlikePost(Long postId, Long userId) {
         Post postFromDb = postRepository
                 .findById(postId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -242,18 +350,62 @@ public class PostService {
                 .findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        postFromDb.getLikers().remove(userById);
+        boolean wasLiked = reactionSetService.removePostLiker(postId, userId)
+                .orElseGet(() -> postFromDb.getLikers().contains(userById));
+        removeIfLoaded(postFromDb.getLikers(), userById);
+        if (wasLiked && entityCounterService.changePostLikeCount(postId, -1) > 0) {
+            postFromDb.setLikeCount(postFromDb.getLikeCount() - 1);
+        }
         userById.getLikedPosts().remove(postFromDb);
+        bumpTopicPostsOf(postFromDb);
 
-        return modelMapper.map(postFromDb, PostDto.class);
+        return reactionStateOf(postFromDb, false, null);
     }
 
-    public List<PostDto> findPostByContentOrTitle(String contentOrTitle) {
-        return postRepository.findByTitleContainsIgnoreCaseOrContentContainsIgnoreCase(contentOrTitle, contentOrTitle)
+    public List<PostDto> findPostByContentOrTitle(String contentOrTitle, Optional<Integer> limit, Optional<Integer> page) {
+        Pageable pageable = PageRequest.of(page.orElse(1) - 1, limit.orElse(DEFAULT_SEARCH_LIMIT));
+        List<Long> rankedPostIds = searchPosts(SearchHighlightUtil.extractTerms(contentOrTitle), pageable)
+                .map(PostSearchRow::getId)
+                .getContent();
+
+        return mapPostIdsToPostDtos(rankedPostIds);
+    }
+
+    /**
+     * @return posts of the given ids through the list projection, in the order of the ids
+     */
+    private List<PostDto> mapPostIdsToPostDtos(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, PostDto> postsById = mapPostListRowsToPostDtos(postRepository.findPostListRowsByIds(postIds))
                 .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
+                .collect(Collectors.toMap(PostDto::getId, post -> post));
+
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
                 .toList();
+    }
 
+    public Page<PostSearchHitDto> searchPostsWithHighlights(String contentOrTitle, Integer limit, Integer page) {
+        List<String> terms = SearchHighlightUtil.extractTerms(contentOrTitle);
+        return searchPosts(terms, PageRequest.of(page - 1, limit))
+                .map(row -> PostSearchHitDto.builder()
+                        .id(row.getId())
+                        .title(row.getTitle())
+                        .highlightedTitle(SearchHighlightUtil.highlight(row.getTitle(), terms))
+                        .highlightedContent(SearchHighlightUtil.snippet(row.getContent(), terms, SearchHighlightUtil.SNIPPET_LENGTH))
+                        .createdAt(row.getCreatedAt())
+                        .score(row.getScore())
+                        .build());
+    }
+
+    private Page<PostSearchRow> searchPosts(List<String> terms, Pageable pageable) {
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return postRepository.searchByTitleOrContent(SearchHighlightUtil.toBooleanModeQuery(terms), pageable);
     }
 
     public List<PostDto> getPaginatedNumberOfPosts(Long topicId, Integer number, Integer page) {
@@ -262,9 +414,65 @@ public class PostService {
     }
 
     public List<PostDto> getListOfPostsByPageableObject(Long topicId, Pageable pageable) {
-        return postRepository.findAllPaginatedByTopic_Id(topicId, pageable)
+        return mapPostListRowsToPostDtos(postRepository.findPostListRowsByTopicId(topicId, pageable));
+    }
+
+    private List<PostDto> mapPostListRowsToPostDtos(List<PostListRow> rows) {
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> postIds = rows.stream().map(PostListRow::getId).toList();
+
+        Map<Long, List<LikerSimpleDto>> likersByPostId = postRepository.findLikersOfPosts(postIds)
                 .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
+                .collect(Collectors.groupingBy(PostRelationRow::getPostId, Collectors.mapping(
+                        row -> new LikerSimpleDto(row.getRelatedId(), row.getName()), Collectors.toList())));
+        Map<Long, List<FollowerSimpleDto>> followersByPostId = postRepository.findFollowersOfPosts(postIds)
+                .stream()
+                .collect(Collectors.groupingBy(PostRelationRow::getPostId, Collectors.mapping(
+                        row -> new FollowerSimpleDto(row.getRelatedId(), row.getName()), Collectors.toList())));
+        Map<Long, Set<Keyword>> keywordsByPostId = postRepository.findKeywordsOfPosts(postIds)
+                .stream()
+                .collect(Collectors.groupingBy(PostRelationRow::getPostId, Collectors.mapping(
+                        row -> new Keyword(row.getRelatedId(), row.getName()), Collectors.toSet())));
+        Map<Long, List<CommentSimpleDto>> commentsByPostId = postRepository.findCommentsOfPosts(postIds)
+                .stream()
+                .collect(Collectors.groupingBy(PostCommentRow::getPostId, Collectors.mapping(
+                        row -> new CommentSimpleDto(row.getId(), row.getContent(), row.getCreatedAt(), row.getUpdatedAt()), Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> PostDto.builder()
+                        .id(row.getId())
+                        .title(row.getTitle())
+                        .content(row.getContent())
+                        .createdAt(row.getCreatedAt())
+                        .updatedAt(row.getUpdatedAt())
+                        .user(row.getUserId() == null ? null : UserSimpleDto.builder()
+                                .id(row.getUserId())
+                                .username(row.getUsername())
+                                .email(row.getEmail())
+                                .firstName(row.getFirstName())
+                                .lastName(row.getLastName())
+                                .bio(row.getBio())
+                                .avatar(row.getAvatar())
+                                .createdAt(row.getUserCreatedAt())
+                                .updatedAt(row.getUserUpdatedAt())
+                                .accountStatus(row.getAccountStatus())
+                                .userRoles(row.getUserRoles())
+                                .build())
+                        .topic(row.getTopicId() == null ? null : new TopicSimpleDto(
+                                row.getTopicId(),
+                                row.getTopicName(),
+                                row.getTopicDescription(),
+                                row.getTopicCreatedAt(),
+                                row.getTopicUpdatedAt()))
+                        .comments(commentsByPostId.getOrDefault(row.getId(), Collections.emptyList()))
+                        .likers(likersByPostId.getOrDefault(row.getId(), Collections.emptyList()))
+                        .followers(followersByPostId.getOrDefault(row.getId(), Collections.emptyList()))
+                        .likersQuantity(row.getLikersQuantity())
+                        .followersQuantity(row.getFollowersQuantity())
+                        .keywords(keywordsByPostId.getOrDefault(row.getId(), Collections.emptySet()))
+                        .build())
                 .toList();
     }
 
@@ -282,62 +490,66 @@ public class PostService {
         return getListOfPostsByPageableObject(topicId, paginatedAndSortedDescending);
     }
 
-    public Set<Post> filterRecordsFromDatabaseByKeywordsToRetrieveOnlyPostsWhichHaveAllNecessaryKeywords(List<Post> posts, List<String> keywords) {
-        LinkedHashSet<Post> sortedPosts = new LinkedHashSet<>();
-        for (Post post : posts) {
-            List<String> postKeywords = post.getKeywords().stream().map(Keyword::getName).toList();
-            if (new HashSet<>(postKeywords).containsAll(keywords)) {
-                sortedPosts.add(post);
-            }
-        }
-
-        return sortedPosts;
+    public List<PostDto> getPaginatedAndFilteredByKeywords(Long topicId, Integer limit, Integer page, List<String> keywords) {
+        Pageable pageWithExactNumberOfElements = PageRequest.of(page - 1, limit);
+        return getPageOfPostsHavingAllKeywords(topicId, keywords, pageWithExactNumberOfElements).getContent();
     }
 
-    public List<PostDto> getPaginatedAndFilteredByKeywords(Long topicId, Integer limit, Integer page, List<String> keywords) {
-        List<Post> posts = filterRecordsFromDatabaseByKeywordsToRetrieveOnlyPostsWhichHaveAllNecessaryKeywords(
-                postRepository.findAllPostsByTopicIdAndKeywords(topicId, new HashSet<>(keywords)), keywords).stream().toList();
-        return getPage(posts, page, limit)
-                .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
-                .toList();
+    public Page<PostDto> getPageOfPostsHavingAllKeywords(Long topicId, List<String> keywords, Pageable pageable) {
+        Set<String> distinctKeywords = new HashSet<>(keywords);
+        Page<Long> postIds = distinctKeywords.isEmpty()
+                ? postRepository.findPostIdPageByTopicId(topicId, pageable)
+                : postRepository.findPostIdsByTopicIdHavingAllKeywords(topicId, distinctKeywords, distinctKeywords.size(), pageable);
+
+        return new PageImpl<>(mapPostIdsToPostDtos(postIds.getContent()), pageable, postIds.getTotalElements());
     }
 
-    public List<Post> getPage(List<Post> sourceList, int page, int pageSize) {
-        if (pageSize <= 0 || page <= 0) {
-            throw new IllegalArgumentException("invalid page size: " + pageSize);
+    /**
+     * The post side of likers and followers is mapped by the user side and never written, it is only kept in step
+     * when it has been loaded already. Adding to or removing from a lazy set would load all of it.
+     */
+    private static void addIfLoaded(Set<User> users, User user) {
+        if (Hibernate.isInitialized(users)) {
+            users.add(user);
         }
+    }
 
-        int fromIndex = (page - 1) * pageSize;
-        if (sourceList == null || sourceList.size() <= fromIndex) {
-            return Collections.emptyList();
+    private static void removeIfLoaded(Set<User> users, User user) {
+        if (Hibernate.isInitialized(users)) {
+            users.remove(user);
         }
+    }
 
-        return sourceList.subList(fromIndex, Math.min(fromIndex + pageSize, sourceList.size()));
+    /**
+     * Built from the counters of the post, its likers, followers and comments are not loaded for the answer.
+     */
+    private PostReactionStateDto reactionStateOf(Post post, Boolean liked, Boolean followed) {
+        return PostReactionStateDto.builder()
+                .postId(post.getId())
+                .liked(liked)
+                .followed(followed)
+                .likeCount(post.getLikeCount())
+                .followerCount(post.getFollowerCount())
+                .build();
+    }
+
+    private void bumpTopicPostsOf(Post post) {
+        if (post.getTopic() != null) {
+            listCacheVersionService.bumpTopicPosts(post.getTopic().getId());
+        }
     }
 
     public List<PostDto> getPaginatedAndSortedAndFilteredPosts(Long topicId, Integer limit, Integer page, String orderBy, List<String> keywords) {
-        List<Post> posts;
         String[] split = orderBy.split("\\.");
-
         String sortBy = split[0];
         String direction = split[1];
 
         if (direction.equalsIgnoreCase("asc")) {
-            Sort sortTopicsAscending = Sort.by(Sort.Direction.ASC, sortBy);
-
-            posts = filterRecordsFromDatabaseByKeywordsToRetrieveOnlyPostsWhichHaveAllNecessaryKeywords(
-                    postRepository.findAllSortedPostsByTopicIdAndKeywords(topicId, new HashSet<>(keywords), sortTopicsAscending), keywords).stream().toList();
-
-        } else {
-            Sort sortTopicsDescending = Sort.by(Sort.Direction.DESC, sortBy);
-            posts = filterRecordsFromDatabaseByKeywordsToRetrieveOnlyPostsWhichHaveAllNecessaryKeywords(
-                    postRepository.findAllSortedPostsByTopicIdAndKeywords(topicId, new HashSet<>(keywords), sortTopicsDescending), keywords).stream().toList();
+            Pageable paginatedAndSortedAscending = PageRequest.of(page - 1, limit, Sort.by(sortBy).ascending());
+            return getPageOfPostsHavingAllKeywords(topicId, keywords, paginatedAndSortedAscending).getContent();
         }
+        Pageable paginatedAndSortedDescending = PageRequest.of(page - 1, limit, Sort.by(sortBy).descending());
 
-        return getPage(posts, page, limit)
-                .stream()
-                .map(post -> modelMapper.map(post, PostDto.class))
-                .toList();
+        return getPageOfPostsHavingAllKeywords(topicId, keywords, paginatedAndSortedDescending).getContent();
     }
-}
\ No newline at end of file
+}
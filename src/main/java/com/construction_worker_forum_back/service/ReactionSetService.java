@@ -0,0 +1,292 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.dto.PostReactionStateDto;
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.repository.CommentRepository;
+import com.construction_worker_forum_back.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Mirrors likers and followers of posts and likers of comments into Redis sets of user ids.
+ * A set is loaded from MySQL on first use and always contains {@link #LOADED_MARKER}, so an empty set can be told
+ * apart from one which is not loaded yet. Loading and changing membership run as Lua scripts checking the marker, so a set
+ * expiring or evicted meanwhile is never recreated with only some of its members. Membership changes made inside
+ * a transaction are reverted if it rolls back.
+ * Every method returns an empty result when Redis can't be reached, so callers can fall back to MySQL.
+ */
+@Service
+@Slf4j
+public class ReactionSetService {
+
+    private static final String LOADED_MARKER = "0";
+    /**
+     * Adds the marker and the user ids from ARGV[2..] and sets the TTL ARGV[1] unless the set is loaded already.
+     */
+    private static final DefaultRedisScript<Long> LOAD_SET = new DefaultRedisScript<>(
+            "if redis.call('sismember', KEYS[1], '" + LOADED_MARKER + "') == 1 then return 0 end " +
+                    addInChunks(2) +
+                    "redis.call('expire', KEYS[1], ARGV[1]) " +
+                    "return 1",
+            Long.class);
+    /**
+     * Adds (ARGV[2] = 1) or removes member ARGV[1]. A set which is not loaded is loaded first from ARGV[4..]
+     * with the TTL ARGV[3], without them -1 is returned instead.
+     */
+    private static final DefaultRedisScript<Long> CHANGE_MEMBERSHIP = new DefaultRedisScript<>(
+            "if redis.call('sismember', KEYS[1], '" + LOADED_MARKER + "') == 0 then " +
+                    "if #ARGV < 4 then return -1 end " +
+                    addInChunks(4) +
+                    "redis.call('expire', KEYS[1], ARGV[3]) " +
+                    "end " +
+                    "if ARGV[2] == '1' then return redis.call('sadd', KEYS[1], ARGV[1]) end " +
+                    "return redis.call('srem', KEYS[1], ARGV[1])",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final Duration setTtl;
+
+    public ReactionSetService(
+            StringRedisTemplate redisTemplate,
+            PostRepository postRepository,
+            CommentRepository commentRepository,
+            @Value("${reaction.set.ttl:PT24H}") Duration setTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.setTtl = setTtl;
+    }
+
+    public Optional<Boolean> addPostLiker(Long postId, Long userId) {
+        return changeMembership(postLikersKey(postId), userId, true, () -> loadPostLikers(List.of(postId)).get(postId));
+    }
+
+    public Optional<Boolean> removePostLiker(Long postId, Long userId) {
+        return changeMembership(postLikersKey(postId), userId, false, () -> loadPostLikers(List.of(postId)).get(postId));
+    }
+
+    public Optional<Boolean> addPostFollower(Long postId, Long userId) {
+        return changeMembership(postFollowersKey(postId), userId, true, () -> loadPostFollowers(List.of(postId)).get(postId));
+    }
+
+    public Optional<Boolean> removePostFollower(Long postId, Long userId) {
+        return changeMembership(postFollowersKey(postId), userId, false, () -> loadPostFollowers(List.of(postId)).get(postId));
+    }
+
+    public Optional<Boolean> addCommentLiker(Long commentId, Long userId) {
+        return changeMembership(commentLikersKey(commentId), userId, true, () -> commentRepository.findLikerIdsOfComment(commentId));
+    }
+
+    public Optional<Boolean> removeCommentLiker(Long commentId, Long userId) {
+        return changeMembership(commentLikersKey(commentId), userId, false, () -> commentRepository.findLikerIdsOfComment(commentId));
+    }
+
+    /**
+     * Answers "liked/followed by me" and the counts for a page of posts with one pipelined round trip.
+     * Sets missing in Redis are loaded from MySQL with one query per relation and stored for the next request.
+     */
+    public Optional<List<PostReactionStateDto>> getPostReactionStates(Long userId, List<Long> postIds) {
+        try {
+            String member = String.valueOf(userId);
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Long postId : postIds) {
+                    stringConnection.sIsMember(postLikersKey(postId), member);
+                    stringConnection.sCard(postLikersKey(postId));
+                    stringConnection.sIsMember(postFollowersKey(postId), member);
+                    stringConnection.sCard(postFollowersKey(postId));
+                }
+                return null;
+            });
+
+            List<Long> postsWithoutLikers = new ArrayList<>();
+            List<Long> postsWithoutFollowers = new ArrayList<>();
+            for (int i = 0; i < postIds.size(); i++) {
+                if (toLong(replies.get(i * 4 + 1)) == 0) postsWithoutLikers.add(postIds.get(i));
+                if (toLong(replies.get(i * 4 + 3)) == 0) postsWithoutFollowers.add(postIds.get(i));
+            }
+            Map<Long, Set<Long>> loadedLikers = storeLoaded(postsWithoutLikers, loadPostLikers(postsWithoutLikers), this::postLikersKey);
+            Map<Long, Set<Long>> loadedFollowers = storeLoaded(postsWithoutFollowers, loadPostFollowers(postsWithoutFollowers), this::postFollowersKey);
+
+            List<PostReactionStateDto> states = new ArrayList<>(postIds.size());
+            for (int i = 0; i < postIds.size(); i++) {
+                Long postId = postIds.get(i);
+                Set<Long> likers = loadedLikers.get(postId);
+                Set<Long> followers = loadedFollowers.get(postId);
+                states.add(PostReactionStateDto.builder()
+                        .postId(postId)
+                        .liked(likers != null ? likers.contains(userId) : Boolean.TRUE.equals(replies.get(i * 4)))
+                        .likeCount(likers != null ? likers.size() : toLong(replies.get(i * 4 + 1)) - 1)
+                        .followed(followers != null ? followers.contains(userId) : Boolean.TRUE.equals(replies.get(i * 4 + 2)))
+                        .followerCount(followers != null ? followers.size() : toLong(replies.get(i * 4 + 3)) - 1)
+                        .build());
+            }
+            return Optional.of(states);
+        } catch (DataAccessException e) {
+            log.warn("Reaction sets are not available: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void evictPostLikers(Collection<Long> postIds) {
+        evict(postIds.stream().map(this::postLikersKey).toList());
+    }
+
+    public void evictCommentLikers(Collection<Long> commentIds) {
+        evict(commentIds.stream().map(this::commentLikersKey).toList());
+    }
+
+    private Optional<Boolean> changeMembership(String key, Long userId, boolean add, Supplier<Collection<Long>> loader) {
+        try {
+            String member = String.valueOf(userId);
+            long changed = change(key, member, add, List.of());
+            if (changed < 0) {
+                Collection<Long> userIds = loader.get();
+                changed = change(key, member, add, Arrays.asList(toMembers(userIds == null ? Set.of() : userIds)));
+            }
+            boolean membershipChanged = changed > 0;
+            if (membershipChanged) {
+                revertOnRollback(key, member, add);
+            }
+            return Optional.of(membershipChanged);
+        } catch (DataAccessException e) {
+            log.warn("Reaction set {} is not available: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param members loaded members to store first when the set is not loaded
+     * @return number of members added or removed, -1 when the set is not loaded and no members were given
+     */
+    private long change(String key, String member, boolean add, List<String> members) {
+        List<String> arguments = new ArrayList<>(members.size() + 3);
+        arguments.add(member);
+        arguments.add(add ? "1" : "0");
+        arguments.add(String.valueOf(setTtl.getSeconds()));
+        arguments.addAll(members);
+        Long changed = redisTemplate.execute(CHANGE_MEMBERSHIP, List.of(key), arguments.toArray());
+        return changed == null ? -1 : changed;
+    }
+
+    /**
+     * Only a loaded set is reverted. One which expired or was evicted since the change is loaded from MySQL
+     * with the outcome of the transaction next time.
+     */
+    private void revertOnRollback(String key, String member, boolean added) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    change(key, member, !added, List.of());
+                } catch (DataAccessException e) {
+                    redisTemplate.delete(key);
+                }
+            }
+        });
+    }
+
+    private Map<Long, Set<Long>> storeLoaded(List<Long> ids, Map<Long, Set<Long>> members, Function<Long, String> keyOf) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<Long>> loaded = new HashMap<>();
+        String ttl = String.valueOf(setTtl.getSeconds());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Long id : ids) {
+                Set<Long> userIds = members.getOrDefault(id, Set.of());
+                loaded.put(id, userIds);
+                String[] userMembers = toMembers(userIds);
+                String[] keyAndArguments = new String[userMembers.length + 2];
+                keyAndArguments[0] = keyOf.apply(id);
+                keyAndArguments[1] = ttl;
+                System.arraycopy(userMembers, 0, keyAndArguments, 2, userMembers.length);
+                stringConnection.eval(LOAD_SET.getScriptAsString(), ReturnType.INTEGER, 1, keyAndArguments);
+            }
+            return null;
+        });
+        return loaded;
+    }
+
+    private void evict(List<String> keys) {
+        try {
+            redisTemplate.delete(keys);
+        } catch (DataAccessException e) {
+            log.warn("Reaction sets {} could not be evicted: {}", keys, e.getMessage());
+        }
+    }
+
+    private Map<Long, Set<Long>> loadPostLikers(List<Long> postIds) {
+        return groupUserIds(postIds.isEmpty() ? List.of() : postRepository.findLikersOfPosts(postIds));
+    }
+
+    private Map<Long, Set<Long>> loadPostFollowers(List<Long> postIds) {
+        return groupUserIds(postIds.isEmpty() ? List.of() : postRepository.findFollowersOfPosts(postIds));
+    }
+
+    private Map<Long, Set<Long>> groupUserIds(List<PostRelationRow> rows) {
+        return rows.stream().collect(Collectors.groupingBy(
+                PostRelationRow::getPostId,
+                Collectors.mapping(PostRelationRow::getRelatedId, Collectors.toSet())));
+    }
+
+    /**
+     * Lua limits the number of arguments of one call, so big sets are added 1000 members at a time.
+     */
+    private static String addInChunks(int firstArgument) {
+        return "for i = " + firstArgument + ", #ARGV, 1000 do " +
+                "redis.call('sadd', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) " +
+                "end ";
+    }
+
+    private static String[] toMembers(Collection<Long> userIds) {
+        String[] members = new String[userIds.size() + 1];
+        members[0] = LOADED_MARKER;
+        int i = 1;
+        for (Long userId : userIds) {
+            members[i++] = String.valueOf(userId);
+        }
+        return members;
+    }
+
+    private static long toLong(Object reply) {
+        return reply == null ? 0 : ((Number) reply).longValue();
+    }
+
+    private String postLikersKey(Long postId) {
+        return "post:" + postId + ":likers";
+    }
+
+    private String postFollowersKey(Long postId) {
+        return "post:" + postId + ":followers";
+    }
+
+    private String commentLikersKey(Long commentId) {
+        return "comment:" + commentId + ":likers";
+    }
+}
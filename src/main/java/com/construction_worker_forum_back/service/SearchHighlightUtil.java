@@ -0,0 +1,99 @@
+package com.construction_worker_forum_back.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a user phrase into a MySQL boolean mode full-text query and marks the matched words in search results.
+ */
+public class SearchHighlightUtil {
+
+    public static final int SNIPPET_LENGTH = 200;
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchHighlightUtil() {
+    }
+
+    public static List<String> extractTerms(String phrase) {
+        if (phrase == null) {
+            return List.of();
+        }
+        return Arrays.stream(TERM_SEPARATOR.split(phrase.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isBlank())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Every term is optional and matched as a prefix, so "concre mix" finds "concrete mixing" as well.
+     */
+    public static String toBooleanModeQuery(List<String> terms) {
+        return terms.stream()
+                .map(term -> term + "*")
+                .collect(Collectors.joining(" "));
+    }
+
+    public static String highlight(String text, List<String> terms) {
+        if (text == null || terms.isEmpty()) {
+            return escapeHtml(text);
+        }
+        Matcher matcher = termPattern(terms).matcher(text);
+        StringBuilder result = new StringBuilder(text.length() + 32);
+        int last = 0;
+        while (matcher.find()) {
+            result.append(escapeHtml(text.substring(last, matcher.start())))
+                    .append("<mark>")
+                    .append(escapeHtml(matcher.group()))
+                    .append("</mark>");
+            last = matcher.end();
+        }
+        return result.append(escapeHtml(text.substring(last))).toString();
+    }
+
+    /**
+     * Cuts a window of at most {@code length} characters around the first matched term and highlights it.
+     */
+    public static String snippet(String text, List<String> terms, int length) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() <= length) {
+            return highlight(text, terms);
+        }
+        int firstMatch = 0;
+        if (!terms.isEmpty()) {
+            Matcher matcher = termPattern(terms).matcher(text);
+            if (matcher.find()) {
+                firstMatch = matcher.start();
+            }
+        }
+        int start = Math.max(0, Math.min(firstMatch - length / 4, text.length() - length));
+        int end = start + length;
+
+        return (start > 0 ? "..." : "") + highlight(text.substring(start, end), terms) + (end < text.length() ? "..." : "");
+    }
+
+    private static Pattern termPattern(List<String> terms) {
+        String alternatives = terms.stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        return Pattern.compile("(?<![\\p{L}\\p{N}])(?:" + alternatives + ")[\\p{L}\\p{N}]*",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+}
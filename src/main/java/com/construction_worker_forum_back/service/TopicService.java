@@ -1,5 +1,7 @@
 package com.construction_worker_forum_back.service;
 
+import com.construction_worker_forum_back.model.PageCursor;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.dto.TopicRequestDto;
 import com.construction_worker_forum_back.model.dto.UserDto;
@@ -35,7 +37,10 @@ public class TopicService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final ModelMapper modelMapper;
+    private final ListCacheVersionService listCacheVersionService;
 
+    @Cacheable(value = ListCacheVersionService.TOPIC_PAGES,
+            key = "{@listCacheVersionService.topicsVersion(), #orderBy.orElse(''), #limit.orElse(0), #page.orElse(0)}")
     public List<TopicDto> getAllTopics(
             Optional<String> orderBy,
             Optional<Integer> limit,
@@ -57,7 +62,31 @@ public class TopicService {
                 .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "topicCache", key = "{#id}")
+    public CursorPageDto<TopicDto> getTopicsByCursor(Optional<String> cursor, Integer limit, Optional<String> orderBy) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive!");
+        }
+        Pageable rowsWithOneExtra = PageRequest.of(0, limit + 1);
+        Sort.Direction direction;
+        List<Topic> topics;
+        if (cursor.isPresent()) {
+            PageCursor pageCursor = PageCursor.decode(cursor.get());
+            direction = pageCursor.getDirection();
+            topics = direction.isAscending()
+                    ? topicRepository.findTopicsAfter(pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra)
+                    : topicRepository.findTopicsBefore(pageCursor.getCreatedAt(), pageCursor.getId(), rowsWithOneExtra);
+        } else {
+            direction = PageCursor.parseDirection(orderBy.orElse(null), Sort.Direction.DESC);
+            topics = topicRepository.findAllBy(PageRequest.of(0, limit + 1, PageCursor.keysetSort(direction)));
+        }
+
+        return CursorPageDto.of(topics, limit, direction, Topic::getCreatedAt, Topic::getId, page -> page
+                .stream()
+                .map(topic -> modelMapper.map(topic, TopicDto.class))
+                .toList());
+    }
+
+    @Cacheable(value = "topicCache", key = "{#id}", sync = true)
     public Optional<TopicDto> findTopicById(Long id) {
         return topicRepository.findById(id)
                 .map(topic -> modelMapper.map(topic, TopicDto.class));
@@ -71,6 +100,8 @@ public class TopicService {
     @Transactional
     @CacheEvict(value = "topicCache", key = "{#id}")
     public boolean deleteTopicById(Long id) {
+        listCacheVersionService.bumpTopics();
+        listCacheVersionService.bumpTopicPosts(id);
         return topicRepository.deleteTopicById(id) == 1;
     }
 
@@ -82,6 +113,7 @@ public class TopicService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
         topicToSave.setUser(modelMapper.map(userById, User.class));
+        listCacheVersionService.bumpTopics();
 
         return modelMapper.map(topicRepository.save(topicToSave), TopicDto.class);
     }
@@ -96,6 +128,8 @@ public class TopicService {
         topicFromDb.setUpdatedAt(Date.from(Instant.now()));
         EntityUpdateUtil.setEntityLastEditor(userRepository, topicFromDb, topicRequestDto.getUserId());
         modelMapper.map(topicRequestDto, topicFromDb);
+        listCacheVersionService.bumpTopics();
+        listCacheVersionService.bumpTopicPosts(id);
 
         return modelMapper.map(topicFromDb, TopicDto.class);
     }
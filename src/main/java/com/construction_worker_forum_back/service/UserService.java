@@ -10,6 +10,8 @@ import com.construction_worker_forum_back.model.dto.simple.BioSimpleDto;
 import com.construction_worker_forum_back.model.entity.User;
 import com.construction_worker_forum_back.model.security.AccountStatus;
 import com.construction_worker_forum_back.model.security.UserDetailsImpl;
+import com.construction_worker_forum_back.repository.CommentRepository;
+import com.construction_worker_forum_back.repository.PostRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -46,6 +48,9 @@ public class UserService implements UserDetailsService {
     private String bucketName;
 
     private final AmazonS3Client s3Client;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final ListCacheVersionService listCacheVersionService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -71,7 +76,7 @@ public class UserService implements UserDetailsService {
                 .toList();
     }
 
-    @Cacheable(value = "userCache", key = "{#id}")
+    @Cacheable(value = "userCache", key = "{#id}", sync = true)
     public Optional<UserDto> findById(Long id) {
         return userRepository.findById(id)
                 .map(user -> modelMapper.map(user, UserDto.class));
@@ -99,6 +104,7 @@ public class UserService implements UserDetailsService {
                 .findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         user.setBio(newBio.getNewBio());
+        bumpListsEmbedding(user.getId());
         return modelMapper.map(userRepository.save(user), UserDto.class);
     }
 
@@ -115,6 +121,7 @@ public class UserService implements UserDetailsService {
             s3Client.putObject(new PutObjectRequest(bucketName, fileName, file));
             user.setAvatar(fileName);
             userRepository.save(user);
+            bumpListsEmbedding(user.getId());
             file.delete();
         } catch (Exception e) {
             file.delete();
@@ -146,6 +153,7 @@ public class UserService implements UserDetailsService {
                 .findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         user.setAvatar(null);
+        bumpListsEmbedding(user.getId());
 
         return "Avatar deleted";
     }
@@ -159,6 +167,7 @@ public class UserService implements UserDetailsService {
 
         modelMapper.map(userRequestDto, user);
         user.setUpdatedAt(Date.from(Instant.now()));
+        bumpListsEmbedding(id);
 
         return modelMapper.map(user, UserDto.class);
     }
@@ -178,6 +187,17 @@ public class UserService implements UserDetailsService {
                 .findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         user.setAccountStatus(AccountStatus.DELETED);
+        bumpListsEmbedding(user.getId());
         return modelMapper.map(user, UserDto.class);
     }
+
+    /**
+     * Cached topic, topic post and post comment pages embed the profile of their authors, so every scope the user
+     * wrote in is bumped when the profile changes. Topic pages share one scope, it is bumped regardless.
+     */
+    private void bumpListsEmbedding(Long userId) {
+        listCacheVersionService.bumpTopics();
+        postRepository.findTopicIdsOfUserPosts(userId).forEach(listCacheVersionService::bumpTopicPosts);
+        commentRepository.findPostIdsOfUserComments(userId).forEach(listCacheVersionService::bumpPostComments);
+    }
 }
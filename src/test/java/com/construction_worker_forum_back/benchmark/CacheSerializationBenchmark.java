@@ -0,0 +1,98 @@
+package com.construction_worker_forum_back.benchmark;
+
+import com.construction_worker_forum_back.config.mapper.EntityDtoMapper;
+import com.construction_worker_forum_back.config.mapper.MappingFixtures;
+import com.construction_worker_forum_back.config.redis.CompactCacheSerializer;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
+import com.construction_worker_forum_back.model.entity.Post;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of cached DTOs with the JDK serializer Redis caches used by default and with {@link CompactCacheSerializer}.
+ * Bytes per entry are reported by {@link #entrySize} as secondary results, so they land in the JMH result file next to
+ * the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    @Param({"0", "50"})
+    private int likersCount;
+
+    @Param({"jdk", "compact"})
+    private String serializerName;
+
+    private RedisSerializer<Object> serializer;
+    private PostDto postDto;
+    private UserDto userDto;
+    private byte[] serializedPostDto;
+    private byte[] serializedUserDto;
+
+    /**
+     * Event counters are summed over threads and iterations, {@link #entrySize} runs a single shot on a single thread,
+     * so they are the sizes of one entry.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long postDtoBytes;
+        public long userDtoBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            postDtoBytes = 0;
+            userDtoBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        serializer = "compact".equals(serializerName)
+                ? new CompactCacheSerializer(1024)
+                : new JdkSerializationRedisSerializer();
+        Post post = MappingFixtures.post(likersCount, 10);
+        postDto = EntityDtoMapper.toPostDto(post);
+        userDto = EntityDtoMapper.toUserDto(post.getUser());
+        serializedPostDto = serializer.serialize(postDto);
+        serializedUserDto = serializer.serialize(userDto);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Threads(1)
+    public void entrySize(EntrySize size) {
+        size.postDtoBytes = serializer.serialize(postDto).length;
+        size.userDtoBytes = serializer.serialize(userDto).length;
+    }
+
+    @Benchmark
+    public byte[] serializePostDto() {
+        return serializer.serialize(postDto);
+    }
+
+    @Benchmark
+    public Object deserializePostDto() {
+        return serializer.deserialize(serializedPostDto);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDto() {
+        return serializer.serialize(userDto);
+    }
+
+    @Benchmark
+    public Object deserializeUserDto() {
+        return serializer.deserialize(serializedUserDto);
+    }
+}
@@ -0,0 +1,59 @@
+package com.construction_worker_forum_back.benchmark;
+
+import com.construction_worker_forum_back.config.mapper.MappingFixtures;
+import com.construction_worker_forum_back.config.mapper.ModelMapperConfig;
+import com.construction_worker_forum_back.config.mapper.ReflectiveModelMapper;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
+import com.construction_worker_forum_back.model.entity.Post;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective STRICT ModelMapper mapping with the hand-written converters
+ * registered by {@link ModelMapperConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"0", "50"})
+    private int likersCount;
+
+    private ModelMapper reflectiveMapper;
+    private ModelMapper configuredMapper;
+    private Post post;
+
+    @Setup
+    public void setUp() {
+        reflectiveMapper = ReflectiveModelMapper.create();
+        configuredMapper = new ModelMapperConfig().setup();
+        post = MappingFixtures.post(likersCount, 10);
+    }
+
+    @Benchmark
+    public PostDto reflectivePostMapping() {
+        return reflectiveMapper.map(post, PostDto.class);
+    }
+
+    @Benchmark
+    public PostDto configuredPostMapping() {
+        return configuredMapper.map(post, PostDto.class);
+    }
+
+    @Benchmark
+    public UserDto reflectiveUserMapping() {
+        return reflectiveMapper.map(post.getUser(), UserDto.class);
+    }
+
+    @Benchmark
+    public UserDto configuredUserMapping() {
+        return configuredMapper.map(post.getUser(), UserDto.class);
+    }
+}
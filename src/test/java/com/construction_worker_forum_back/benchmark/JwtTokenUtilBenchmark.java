@@ -0,0 +1,48 @@
+package com.construction_worker_forum_back.benchmark;
+
+import com.construction_worker_forum_back.config.mapper.MappingFixtures;
+import com.construction_worker_forum_back.config.security.JwtTokenUtil;
+import com.construction_worker_forum_back.model.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and the parsing done by {@link com.construction_worker_forum_back.config.security.JwtFilter} on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "key", "benchmark_secret_key");
+        ReflectionTestUtils.setField(jwtTokenUtil, "expirationTime", 60);
+        userDetails = new UserDetailsImpl(MappingFixtures.user(1L));
+        token = jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public void parseTokenAsJwtFilterDoes(Blackhole blackhole) {
+        blackhole.consume(jwtTokenUtil.getUsernameFromToken(token));
+        blackhole.consume(jwtTokenUtil.getGrantedAuthoritiesFromToken(token));
+        blackhole.consume(jwtTokenUtil.validateToken(token));
+    }
+}
@@ -0,0 +1,104 @@
+package com.construction_worker_forum_back.benchmark;
+
+import com.construction_worker_forum_back.config.mapper.ModelMapperConfig;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.projection.PostListRow;
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.model.security.Role;
+import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.EntityCounterService;
+import com.construction_worker_forum_back.service.ListCacheVersionService;
+import com.construction_worker_forum_back.service.NotificationDispatchService;
+import com.construction_worker_forum_back.service.PostService;
+import com.construction_worker_forum_back.service.ReactionSetService;
+import com.construction_worker_forum_back.service.TopicService;
+import com.construction_worker_forum_back.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Service side of the keyword filtered and the plain topic listings.
+ * Filtering itself runs in the database (see the productivity tests), so the repository is stubbed
+ * and the benchmark measures what is left per request: assembling projection rows into a page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostServiceBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private PostService postService;
+    private Pageable pageable;
+    private final List<String> keywords = List.of("roof", "repair");
+
+    @Setup
+    public void setUp() {
+        PostRepository postRepository = stub(PostRepository.class);
+        pageable = PageRequest.of(0, pageSize);
+
+        List<PostListRow> rows = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new PostListRow(id, "title", "content", new Date(), null,
+                        1L, "user", "user@example.com", "John", "Doe", null, null, new Date(), null, AccountStatus.ACTIVE, Role.USER,
+                        1L, "topic", "description", new Date(), null, 20L, 10L))
+                .toList();
+        List<PostRelationRow> likers = LongStream.rangeClosed(1, pageSize)
+                .boxed()
+                .flatMap(postId -> LongStream.range(0, 20).mapToObj(userId -> new PostRelationRow(postId, userId, "user" + userId)))
+                .toList();
+        Page<Long> postIds = new PageImpl<>(rows.stream().map(PostListRow::getId).toList(), pageable, 10_000);
+        given(postRepository.findPostIdsByTopicIdHavingAllKeywords(anyLong(), anySet(), anyLong(), any(Pageable.class)))
+                .willReturn(postIds);
+        given(postRepository.findPostListRowsByIds(anyCollection())).willReturn(rows);
+        given(postRepository.findPostListRowsByTopicId(anyLong(), any(Pageable.class))).willReturn(rows);
+        given(postRepository.findLikersOfPosts(anyCollection())).willReturn(likers);
+        given(postRepository.findFollowersOfPosts(anyCollection())).willReturn(likers);
+
+        postService = new PostService(
+                postRepository,
+                stub(UserRepository.class),
+                stub(UserService.class),
+                stub(TopicService.class),
+                new ModelMapperConfig().setup(),
+                stub(NotificationDispatchService.class),
+                stub(ReactionSetService.class),
+                stub(ListCacheVersionService.class),
+                stub(EntityCounterService.class)
+        );
+    }
+
+    /**
+     * Stub only mocks don't record invocations, so the hot loop measures the service instead of Mockito.
+     */
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    @Benchmark
+    public Page<PostDto> pageOfPostsHavingAllKeywords() {
+        return postService.getPageOfPostsHavingAllKeywords(1L, keywords, pageable);
+    }
+
+    @Benchmark
+    public List<PostDto> topicListingFromProjections() {
+        return postService.getListOfPostsByPageableObject(1L, pageable);
+    }
+}
@@ -1,12 +1,15 @@
 package com.construction_worker_forum_back.cache.embedded;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.config.redis.RedisConfig;
 import com.construction_worker_forum_back.model.dto.PostDto;
 import com.construction_worker_forum_back.model.entity.Post;
 import com.construction_worker_forum_back.repository.PostRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.EntityCounterService;
+import com.construction_worker_forum_back.service.ListCacheVersionService;
+import com.construction_worker_forum_back.service.NotificationDispatchService;
 import com.construction_worker_forum_back.service.PostService;
+import com.construction_worker_forum_back.service.ReactionSetService;
 import com.construction_worker_forum_back.service.TopicService;
 import com.construction_worker_forum_back.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -51,7 +54,13 @@ class PostServiceCacheTest {
     @MockBean
     private UserService userService;
     @MockBean
-    private NotificationClient notificationClient;
+    private NotificationDispatchService notificationDispatchService;
+    @MockBean
+    private ReactionSetService reactionSetService;
+    @MockBean
+    private ListCacheVersionService listCacheVersionService;
+    @MockBean
+    private EntityCounterService entityCounterService;
     @Autowired
     private PostService postService;
     @Autowired
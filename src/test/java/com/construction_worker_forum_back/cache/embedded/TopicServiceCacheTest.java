@@ -5,6 +5,7 @@ import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.entity.Topic;
 import com.construction_worker_forum_back.repository.TopicRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.ListCacheVersionService;
 import com.construction_worker_forum_back.service.TopicService;
 import com.construction_worker_forum_back.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,8 @@ public class TopicServiceCacheTest {
     private UserService userService;
     @MockBean
     private ModelMapper modelMapper;
+    @MockBean
+    private ListCacheVersionService listCacheVersionService;
     @Autowired
     private TopicService topicService;
     @Autowired
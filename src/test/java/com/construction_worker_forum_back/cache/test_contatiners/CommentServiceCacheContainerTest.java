@@ -1,12 +1,15 @@
 package com.construction_worker_forum_back.cache.test_contatiners;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.dto.CommentDto;
 import com.construction_worker_forum_back.model.entity.Comment;
 import com.construction_worker_forum_back.repository.CommentRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
 import com.construction_worker_forum_back.service.CommentService;
+import com.construction_worker_forum_back.service.EntityCounterService;
+import com.construction_worker_forum_back.service.ListCacheVersionService;
+import com.construction_worker_forum_back.service.NotificationDispatchService;
 import com.construction_worker_forum_back.service.PostService;
+import com.construction_worker_forum_back.service.ReactionSetService;
 import com.construction_worker_forum_back.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
@@ -35,7 +38,13 @@ public class CommentServiceCacheContainerTest extends AbstractTestContainerSetUp
     @MockBean
     private ModelMapper modelMapper;
     @MockBean
-    private NotificationClient notificationClient;
+    private NotificationDispatchService notificationDispatchService;
+    @MockBean
+    private ReactionSetService reactionSetService;
+    @MockBean
+    private ListCacheVersionService listCacheVersionService;
+    @MockBean
+    private EntityCounterService entityCounterService;
     @Autowired
     private CommentService commentService;
     @Autowired
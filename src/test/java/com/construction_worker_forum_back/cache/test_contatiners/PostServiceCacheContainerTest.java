@@ -1,11 +1,14 @@
 package com.construction_worker_forum_back.cache.test_contatiners;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.dto.PostDto;
 import com.construction_worker_forum_back.model.entity.Post;
 import com.construction_worker_forum_back.repository.PostRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.EntityCounterService;
+import com.construction_worker_forum_back.service.ListCacheVersionService;
+import com.construction_worker_forum_back.service.NotificationDispatchService;
 import com.construction_worker_forum_back.service.PostService;
+import com.construction_worker_forum_back.service.ReactionSetService;
 import com.construction_worker_forum_back.service.TopicService;
 import com.construction_worker_forum_back.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -35,7 +38,13 @@ public class PostServiceCacheContainerTest extends AbstractTestContainerSetUpCla
     @MockBean
     private UserService userService;
     @MockBean
-    private NotificationClient notificationClient;
+    private NotificationDispatchService notificationDispatchService;
+    @MockBean
+    private ReactionSetService reactionSetService;
+    @MockBean
+    private ListCacheVersionService listCacheVersionService;
+    @MockBean
+    private EntityCounterService entityCounterService;
     @Autowired
     private PostService postService;
     @Autowired
@@ -0,0 +1,79 @@
+package com.construction_worker_forum_back.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new NotificationCircuitBreaker(
+                meterRegistry,
+                4,
+                4,
+                0.5,
+                Duration.ofSeconds(1),
+                0.5,
+                Duration.ofMinutes(1),
+                1
+        );
+    }
+
+    @Test
+    void itShouldStayClosedUntilMinimumNumberOfCallsWasRecorded() {
+        //when
+        circuitBreaker.onResult(FAST, true);
+        circuitBreaker.onResult(FAST, true);
+        circuitBreaker.onResult(FAST, true);
+
+        //then
+        assertEquals(NotificationCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void itShouldForgetFailuresSlidingOutOfWindow() {
+        //given
+        circuitBreaker.onResult(FAST, true);
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(FAST, false);
+
+        //when
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(FAST, true);
+
+        //then
+        assertEquals(NotificationCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void itShouldOpenOnSlowCallsAndShortCircuit() {
+        //given
+        long slow = Duration.ofSeconds(2).toNanos();
+
+        //when
+        circuitBreaker.onResult(slow, false);
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(slow, false);
+        circuitBreaker.onResult(FAST, false);
+
+        //then
+        assertEquals(NotificationCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(1.0, meterRegistry.counter("notification.circuit.short_circuited").count());
+        assertEquals(1.0, meterRegistry.counter("notification.circuit.transitions", "from", "CLOSED", "to", "OPEN").count());
+        assertEquals(1.0, meterRegistry.get("notification.circuit.state").gauge().value());
+    }
+}
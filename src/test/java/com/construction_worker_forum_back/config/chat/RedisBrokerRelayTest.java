@@ -0,0 +1,140 @@
+package com.construction_worker_forum_back.config.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBrokerRelayTest {
+
+    private static final String DESTINATION = "/user/luke/queue/messages";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private SetOperations<String, String> setOperations;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private MessageChannel brokerChannel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisBrokerRelay redisBrokerRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redisBrokerRelay = new RedisBrokerRelay(redisTemplate, messagingTemplate, new ObjectMapper(), meterRegistry);
+    }
+
+    private Message<byte[]> userMessage(String content) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(DESTINATION);
+        return MessageBuilder.createMessage(content.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private String ownNodeId() {
+        return redisBrokerRelay.getChannel().substring("chat:broker:".length());
+    }
+
+    @Test
+    void itShouldPublishToOtherNodesAndDropNodesWithoutListener() {
+        //given
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members("chat:broker:nodes:luke")).willReturn(Set.of(ownNodeId(), "alive", "gone"));
+        given(redisTemplate.convertAndSend(eq("chat:broker:alive"), anyString())).willReturn(1L);
+        given(redisTemplate.convertAndSend(eq("chat:broker:gone"), anyString())).willReturn(0L);
+
+        //when
+        redisBrokerRelay.preSend(userMessage("Hello there"), brokerChannel);
+
+        //then
+        verify(redisTemplate, never()).convertAndSend(eq(redisBrokerRelay.getChannel()), anyString());
+        verify(setOperations).remove("chat:broker:nodes:luke", "gone");
+        assertEquals(1.0, meterRegistry.counter("chat.broker.relayed", "direction", "out").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldHandRelayedMessageToLocalBrokerWithoutPublishingItAgain() {
+        //given
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members("chat:broker:nodes:luke")).willReturn(Set.of(ownNodeId(), "other"));
+        given(redisTemplate.convertAndSend(eq("chat:broker:other"), anyString())).willReturn(1L);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        redisBrokerRelay.preSend(userMessage("Hello there"), brokerChannel);
+        verify(redisTemplate).convertAndSend(eq("chat:broker:other"), published.capture());
+        org.springframework.data.redis.connection.Message redisMessage =
+                mock(org.springframework.data.redis.connection.Message.class);
+        given(redisMessage.getBody()).willReturn(published.getValue().getBytes(StandardCharsets.UTF_8));
+
+        //when
+        redisBrokerRelay.onMessage(redisMessage, null);
+
+        //then
+        ArgumentCaptor<Message<byte[]>> delivered = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(DESTINATION), delivered.capture());
+        assertEquals("Hello there", new String(delivered.getValue().getPayload(), StandardCharsets.UTF_8));
+        redisBrokerRelay.preSend(delivered.getValue(), brokerChannel);
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void itShouldRegisterNodeOnFirstSubscriptionAndUnregisterAfterLastSession() {
+        //given
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+
+        //when
+        redisBrokerRelay.onSubscribe(subscribeEvent("session-1", "sub-0"));
+        redisBrokerRelay.onSubscribe(subscribeEvent("session-2", "sub-0"));
+        redisBrokerRelay.onDisconnect(disconnectEvent("session-1"));
+
+        //then
+        verify(setOperations, times(1)).add("chat:broker:nodes:luke", ownNodeId());
+        verify(setOperations, never()).remove(anyString(), any());
+
+        redisBrokerRelay.onDisconnect(disconnectEvent("session-2"));
+        verify(setOperations).remove("chat:broker:nodes:luke", ownNodeId());
+    }
+
+    private SessionSubscribeEvent subscribeEvent(String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(DESTINATION);
+        return new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private SessionDisconnectEvent disconnectEvent(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return new SessionDisconnectEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()),
+                sessionId, CloseStatus.NORMAL);
+    }
+}
@@ -0,0 +1,123 @@
+package com.construction_worker_forum_back.config.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketConfigTest {
+
+    @Mock
+    private ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+    @Mock
+    private WebSocketHandler webSocketHandler;
+    @Mock
+    private WebSocketSession session;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private WebSocketTransportProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("chat.websocket", WebSocketTransportProperties.class)
+                .orElseGet(WebSocketTransportProperties::new);
+    }
+
+    @Test
+    void itShouldBindTransportProperties() {
+        //when
+        WebSocketTransportProperties properties = bind(Map.of(
+                "chat.websocket.outbound.core-pool-size", "4",
+                "chat.websocket.outbound.max-pool-size", "8",
+                "chat.websocket.outbound.queue-capacity", "100",
+                "chat.websocket.send-time-limit", "PT2S",
+                "chat.websocket.send-buffer-size-limit", "128KB",
+                "chat.websocket.sock-js-enabled", "false"
+        ));
+
+        //then
+        assertEquals(4, properties.getOutbound().getCorePoolSize());
+        assertEquals(8, properties.getOutbound().getMaxPoolSize());
+        assertEquals(100, properties.getOutbound().getQueueCapacity());
+        assertEquals(16, properties.getInbound().getCorePoolSize());
+        assertEquals(Duration.ofSeconds(2), properties.getSendTimeLimit());
+        assertEquals(DataSize.ofKilobytes(128), properties.getSendBufferSizeLimit());
+        assertEquals(DataSize.ofKilobytes(32), properties.getMessageSizeLimit());
+        assertFalse(properties.isSockJsEnabled());
+    }
+
+    @Test
+    void itShouldCountTasksRejectedBySaturatedChannel() throws InterruptedException {
+        //given
+        WebSocketTransportProperties properties = bind(Map.of(
+                "chat.websocket.outbound.core-pool-size", "1",
+                "chat.websocket.outbound.max-pool-size", "1",
+                "chat.websocket.outbound.queue-capacity", "1"
+        ));
+        WebSocketConfig webSocketConfig = new WebSocketConfig(redisBrokerRelay, properties, meterRegistry);
+        ThreadPoolTaskExecutor executor = webSocketConfig.channelExecutor("outbound", properties.getOutbound());
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            executor.execute(blocked);
+            executor.execute(blocked);
+
+            //when
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(blocked));
+
+            //then
+            assertEquals(1.0, meterRegistry.counter("chat.websocket.executor.rejected", "channel", "outbound").count());
+            assertEquals(1.0, meterRegistry.get("chat.websocket.executor.queued").tag("channel", "outbound").gauge().value());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void itShouldCountSessionsClosedAsNotReliable() throws Exception {
+        //given
+        WebSocketConfig.UnreliableSessionCounter decorator = new WebSocketConfig.UnreliableSessionCounter(
+                webSocketHandler, meterRegistry.counter("chat.websocket.sessions.unreliable"));
+
+        //when
+        decorator.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        decorator.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        //then
+        assertEquals(1.0, meterRegistry.counter("chat.websocket.sessions.unreliable").count());
+        verify(webSocketHandler).afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        verify(webSocketHandler).afterConnectionClosed(session, CloseStatus.NORMAL);
+    }
+}
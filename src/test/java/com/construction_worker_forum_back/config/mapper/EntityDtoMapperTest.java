@@ -0,0 +1,86 @@
+package com.construction_worker_forum_back.config.mapper;
+
+import com.construction_worker_forum_back.model.dto.CommentDto;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.dto.UserDto;
+import com.construction_worker_forum_back.model.entity.Comment;
+import com.construction_worker_forum_back.model.entity.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EntityDtoMapperTest {
+
+    private final ModelMapper reflectiveMapper = ReflectiveModelMapper.create();
+    private final ModelMapper configuredMapper = new ModelMapperConfig().setup();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void givenPost_whenMappedByHand_thenOutputIsSameAsReflectiveMapping() {
+        // given
+        Post post = MappingFixtures.post(5, 3);
+
+        // when
+        PostDto expected = reflectiveMapper.map(post, PostDto.class);
+        PostDto actual = configuredMapper.map(post, PostDto.class);
+
+        // then
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual));
+        assertEquals(5L, actual.getLikersQuantity().longValue());
+    }
+
+    @Test
+    void givenCommentWithParent_whenMappedByHand_thenOutputIsSameAsReflectiveMapping() {
+        // given
+        Post post = MappingFixtures.post(3, 2);
+        Comment parent = post.getComments().get(0);
+        Comment reply = MappingFixtures.comment(post, 2000L, post.getUser());
+        reply.setParentComment(parent);
+        parent.getSubComments().add(reply);
+
+        // when
+        CommentDto expectedParent = reflectiveMapper.map(parent, CommentDto.class);
+        CommentDto actualParent = configuredMapper.map(parent, CommentDto.class);
+        CommentDto expectedReply = reflectiveMapper.map(reply, CommentDto.class);
+        CommentDto actualReply = configuredMapper.map(reply, CommentDto.class);
+
+        // then
+        assertEquals(objectMapper.valueToTree(expectedParent), objectMapper.valueToTree(actualParent));
+        assertEquals(objectMapper.valueToTree(expectedReply), objectMapper.valueToTree(actualReply));
+    }
+
+    @Test
+    void givenUserAndTopic_whenMappedByHand_thenOutputIsSameAsReflectiveMapping() {
+        // given
+        Post post = MappingFixtures.post(3, 2);
+
+        // when
+        UserDto expectedUser = reflectiveMapper.map(post.getUser(), UserDto.class);
+        UserDto actualUser = configuredMapper.map(post.getUser(), UserDto.class);
+        TopicDto expectedTopic = reflectiveMapper.map(post.getTopic(), TopicDto.class);
+        TopicDto actualTopic = configuredMapper.map(post.getTopic(), TopicDto.class);
+
+        // then
+        assertEquals(objectMapper.valueToTree(expectedUser), objectMapper.valueToTree(actualUser));
+        assertEquals(objectMapper.valueToTree(expectedTopic), objectMapper.valueToTree(actualTopic));
+    }
+
+    @Test
+    void givenPostWithoutRelations_whenMappedByHand_thenRelationsAreNull() {
+        // given
+        Post post = Post.builder().id(1L).title("foo").build();
+
+        // when
+        PostDto actual = EntityDtoMapper.toPostDto(post);
+
+        // then
+        assertEquals("foo", actual.getTitle());
+        assertNull(actual.getUser());
+        assertNull(actual.getTopic());
+        assertNull(actual.getLikers());
+    }
+}
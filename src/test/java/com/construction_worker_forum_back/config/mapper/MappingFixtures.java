@@ -0,0 +1,97 @@
+package com.construction_worker_forum_back.config.mapper;
+
+import com.construction_worker_forum_back.model.entity.*;
+import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.model.security.Role;
+
+import java.util.*;
+
+/**
+ * Fully populated entity graphs shared by mapping tests and benchmarks.
+ */
+public class MappingFixtures {
+
+    public static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .password("secret")
+                .email("user" + id + "@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .bio("Some bio")
+                .avatar(String.valueOf(id))
+                .createdAt(new Date(1_600_000_000_000L))
+                .updatedAt(new Date(1_600_000_100_000L))
+                .accountStatus(AccountStatus.ACTIVE)
+                .userRoles(Role.USER)
+                .userComments(new ArrayList<>())
+                .userPosts(new ArrayList<>())
+                .followedPosts(new HashSet<>())
+                .likedPosts(new HashSet<>())
+                .likedComments(new HashSet<>())
+                .build();
+    }
+
+    public static Post post(int likersCount, int commentsCount) {
+        User author = user(1L);
+        Topic topic = Topic.builder()
+                .id(1L)
+                .name("Roofs")
+                .description("Everything about roofs")
+                .createdAt(new Date(1_600_000_000_000L))
+                .user(author)
+                .posts(new ArrayList<>())
+                .build();
+
+        Post post = Post.builder()
+                .id(1L)
+                .title("How to fix a roof")
+                .content("Some long content of the post")
+                .createdAt(new Date(1_600_000_000_000L))
+                .updatedAt(new Date(1_600_000_200_000L))
+                .user(author)
+                .topic(topic)
+                .comments(new ArrayList<>())
+                .likers(new HashSet<>())
+                .followers(new HashSet<>())
+                .keywords(new HashSet<>(List.of(new Keyword(1L, "roof"), new Keyword(2L, "repair"))))
+                .build();
+        topic.getPosts().add(post);
+        author.getUserPosts().add(post);
+
+        for (long i = 0; i < likersCount; i++) {
+            User liker = user(100L + i);
+            post.getLikers().add(liker);
+            liker.getLikedPosts().add(post);
+            if (i % 2 == 0) {
+                post.getFollowers().add(liker);
+                liker.getFollowedPosts().add(post);
+            }
+        }
+        for (long i = 0; i < commentsCount; i++) {
+            Comment comment = comment(post, 1000L + i, author);
+            post.getComments().add(comment);
+            author.getUserComments().add(comment);
+        }
+        post.setLikeCount((long) post.getLikers().size());
+        post.setFollowerCount((long) post.getFollowers().size());
+        post.setCommentCount((long) post.getComments().size());
+        return post;
+    }
+
+    public static Comment comment(Post post, long id, User author) {
+        Comment comment = Comment.builder()
+                .id(id)
+                .content("Comment " + id)
+                .createdAt(new Date(1_600_000_300_000L))
+                .user(author)
+                .post(post)
+                .likers(new HashSet<>())
+                .subComments(new HashSet<>())
+                .build();
+        comment.getLikers().addAll(post.getLikers());
+        comment.setLikeCount((long) comment.getLikers().size());
+        return comment;
+    }
+}
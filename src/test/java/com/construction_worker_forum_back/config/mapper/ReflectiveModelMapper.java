@@ -0,0 +1,69 @@
+package com.construction_worker_forum_back.config.mapper;
+
+import com.construction_worker_forum_back.model.dto.CommentDto;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
+import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
+import com.construction_worker_forum_back.model.entity.Comment;
+import com.construction_worker_forum_back.model.entity.Post;
+import com.construction_worker_forum_back.model.entity.User;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The purely reflective STRICT mapper which was used before {@link EntityDtoMapper} was introduced.
+ * Kept as the reference for output equality tests and mapping benchmarks.
+ */
+public class ReflectiveModelMapper {
+
+    public static ModelMapper create() {
+        var mapper = new ModelMapper();
+        mapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+
+        Converter<Set<User>, List<LikerSimpleDto>> usersToLikersListConverter =
+                context -> context.getSource()
+                        .stream()
+                        .map(user -> mapper.map(user, LikerSimpleDto.class))
+                        .toList();
+
+        Converter<Set<User>, List<FollowerSimpleDto>> usersToFollowersListConverter =
+                context -> context.getSource()
+                        .stream()
+                        .map(user -> mapper.map(user, FollowerSimpleDto.class))
+                        .toList();
+
+        Converter<Set<Comment>, Long> subCommentsToTheirQuantity =
+                context -> (long) context.getSource().size();
+
+        Converter<Set<User>, Long> usersToTheirQuantity =
+                context -> (long) context.getSource().size();
+
+        mapper.createTypeMap(Post.class, PostDto.class)
+                .addMappings(map -> map
+                        .using(usersToLikersListConverter)
+                        .map(Post::getLikers, PostDto::setLikers))
+                .addMappings(map -> map
+                        .using(usersToFollowersListConverter)
+                        .map(Post::getFollowers, PostDto::setFollowers))
+                .addMappings(map -> map
+                        .using(usersToTheirQuantity)
+                        .map(Post::getLikers, PostDto::setLikersQuantity))
+                .addMappings(map -> map
+                        .using(usersToTheirQuantity)
+                        .map(Post::getFollowers, PostDto::setFollowersQuantity));
+
+        mapper.createTypeMap(Comment.class, CommentDto.class)
+                .addMappings(map -> map
+                        .using(usersToLikersListConverter)
+                        .map(Comment::getLikers, CommentDto::setLikers))
+                .addMappings(map -> map
+                        .using(subCommentsToTheirQuantity)
+                        .map(Comment::getSubComments, CommentDto::setSubCommentsQuantity));
+
+        return mapper;
+    }
+}
@@ -0,0 +1,86 @@
+package com.construction_worker_forum_back.config.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePolicyPropertiesTest {
+
+    private static final List<String> CACHE_NAMES = List.of("postCache", "topicPages", "listCacheVersions");
+
+    @Test
+    void itShouldApplyDefaultsToCachesWithoutSpec() {
+        //given
+        CachePolicyProperties properties = new CachePolicyProperties();
+        CachePolicyProperties.Spec postSpec = new CachePolicyProperties.Spec();
+        postSpec.setNearMaximumSize(500);
+        postSpec.setCacheNullValues(false);
+        properties.getSpecs().put("postCache", postSpec);
+
+        //when
+        CachePolicyProperties.Spec expectedPost = properties.specOf("postCache");
+        CachePolicyProperties.Spec expectedTopicPages = properties.specOf("topicPages");
+
+        //then
+        assertEquals(Duration.ofHours(1), expectedPost.getTtl());
+        assertEquals(500, expectedPost.getNearMaximumSize());
+        assertFalse(expectedPost.isCacheNullValues());
+        assertEquals(Duration.ofHours(1), expectedTopicPages.getTtl());
+        assertEquals(0, expectedTopicPages.getNearMaximumSize());
+        assertEquals(CachePolicyProperties.SerializerType.COMPACT, expectedTopicPages.getSerializer());
+        assertTrue(expectedTopicPages.isCacheNullValues());
+    }
+
+    @Test
+    void itShouldDisableNearTierOfAllCachesWhenNearIsDisabled() {
+        //given
+        CachePolicyProperties properties = new CachePolicyProperties();
+        CachePolicyProperties.Spec postSpec = new CachePolicyProperties.Spec();
+        postSpec.setNearMaximumSize(500);
+        properties.getSpecs().put("postCache", postSpec);
+        properties.getNear().setEnabled(false);
+
+        //when
+        CachePolicyProperties.Spec expected = properties.specOf("postCache");
+
+        //then
+        assertEquals(0, expected.getNearMaximumSize());
+    }
+
+    @Test
+    void itShouldReportAllProblemsOfInvalidConfigurationTogether() {
+        //given
+        CachePolicyProperties properties = new CachePolicyProperties();
+        CachePolicyProperties.Spec typo = new CachePolicyProperties.Spec();
+        properties.getSpecs().put("postsCache", typo);
+        CachePolicyProperties.Spec listPages = new CachePolicyProperties.Spec();
+        listPages.setTtl(Duration.ofHours(48));
+        properties.getSpecs().put("topicPages", listPages);
+        CachePolicyProperties.Spec versions = new CachePolicyProperties.Spec();
+        versions.setTtl(Duration.ofHours(24));
+        properties.getSpecs().put("listCacheVersions", versions);
+        properties.getLoadLock().setWait(Duration.ofSeconds(10));
+
+        //when
+        IllegalStateException expected = assertThrows(IllegalStateException.class,
+                () -> properties.validate(CACHE_NAMES, "listCacheVersions", List.of("topicPages")));
+
+        //then
+        assertTrue(expected.getMessage().contains("cache.specs.postsCache configures an unknown cache"));
+        assertTrue(expected.getMessage().contains("TTL of topicPages must not exceed the TTL of listCacheVersions"));
+        assertTrue(expected.getMessage().contains("cache.load-lock.wait must be shorter than cache.load-lock.ttl"));
+    }
+
+    @Test
+    void itShouldAcceptDefaultConfiguration() {
+        //given
+        CachePolicyProperties properties = new CachePolicyProperties();
+
+        //when
+        //then
+        assertDoesNotThrow(() -> properties.validate(CACHE_NAMES, "listCacheVersions", List.of("topicPages")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.construction_worker_forum_back.config.redis;
+
+import com.construction_worker_forum_back.config.mapper.EntityDtoMapper;
+import com.construction_worker_forum_back.config.mapper.MappingFixtures;
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.entity.Keyword;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCacheSerializerTest {
+
+    private final CompactCacheSerializer serializer = new CompactCacheSerializer(1024);
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    @Test
+    void itShouldReadBackPostDtoSmallerThanJdkSerialization() {
+        //given
+        PostDto postDto = EntityDtoMapper.toPostDto(MappingFixtures.post(50, 10));
+
+        //when
+        byte[] bytes = serializer.serialize(postDto);
+        PostDto expected = (PostDto) serializer.deserialize(bytes);
+
+        //then
+        assertTrue(bytes.length < jdkSerializer.serialize(postDto).length);
+        assertEquals(postDto.getId(), expected.getId());
+        assertEquals(postDto.getTitle(), expected.getTitle());
+        assertEquals(postDto.getCreatedAt(), expected.getCreatedAt());
+        assertEquals(postDto.getUser().getUsername(), expected.getUser().getUsername());
+        assertEquals(50, expected.getLikers().size());
+        assertEquals(postDto.getLikersQuantity(), expected.getLikersQuantity());
+        assertEquals(postDto.getKeywords().stream().map(Keyword::getName).collect(Collectors.toSet()),
+                expected.getKeywords().stream().map(Keyword::getName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void itShouldReadBackListsOfDtos() {
+        //given
+        List<TopicDto> topics = List.of(
+                TopicDto.builder().id(1L).name("Roofs").build(),
+                TopicDto.builder().id(2L).name("Walls").build());
+
+        //when
+        Object expected = serializer.deserialize(serializer.serialize(topics));
+
+        //then
+        assertEquals(List.of("Roofs", "Walls"), ((List<?>) expected).stream().map(topic -> ((TopicDto) topic).getName()).toList());
+    }
+
+    @Test
+    void itShouldKeepJdkSerializationForOtherTypesAndReadJdkEntries() {
+        //given
+        PostDto postDto = EntityDtoMapper.toPostDto(MappingFixtures.post(0, 0));
+
+        //when
+        byte[] versionBytes = serializer.serialize(42L);
+        Object jdkEntry = serializer.deserialize(jdkSerializer.serialize(postDto));
+
+        //then
+        assertEquals(42L, jdkSerializer.deserialize(versionBytes));
+        assertEquals(postDto.getTitle(), ((PostDto) jdkEntry).getTitle());
+    }
+
+    @Test
+    void itShouldTreatEntriesOfUnknownFormatVersionAsMiss() {
+        //given
+        byte[] bytes = serializer.serialize(EntityDtoMapper.toPostDto(MappingFixtures.post(0, 0)));
+        bytes[1] = CompactCacheSerializer.FORMAT_VERSION + 1;
+
+        //when
+        Object expected = serializer.deserialize(bytes);
+
+        //then
+        assertNull(expected);
+    }
+}
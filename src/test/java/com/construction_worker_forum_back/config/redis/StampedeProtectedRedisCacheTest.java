@@ -0,0 +1,177 @@
+package com.construction_worker_forum_back.config.redis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StampedeProtectedRedisCacheTest {
+
+    @Mock
+    private RedisCacheWriter cacheWriter;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private StampedeProtectedRedisCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StampedeProtectedRedisCache(
+                "postCache",
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)),
+                redisTemplate,
+                new StampedeProtection(Duration.ofSeconds(5), Duration.ofMillis(200), 0, Duration.ofMillis(50), 0.1));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private StampedeProtectedRedisCache cacheWithEarlyRefresh(double beta) {
+        return new StampedeProtectedRedisCache(
+                "postCache",
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)),
+                redisTemplate,
+                new StampedeProtection(Duration.ofSeconds(5), Duration.ofMillis(200), beta, Duration.ofMillis(50), 0.1));
+    }
+
+    @Test
+    void itShouldShareOneLoadBetweenConcurrentLookupsOfOneKey() throws Exception {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            releaseLoad.await();
+            return "post";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<String> first = executor.submit(() -> cache.get(List.of(1L), loader));
+        loadStarted.await();
+        Future<String> second = executor.submit(() -> cache.get(List.of(1L), loader));
+        while (cache.getCoalescedLoadCount() == 0) {
+            Thread.onSpinWait();
+        }
+        releaseLoad.countDown();
+
+        //then
+        assertEquals("post", first.get(1, TimeUnit.SECONDS));
+        assertEquals("post", second.get(1, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getLoadCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void itShouldWaitForValueLoadedByLockHolderInsteadOfLoading() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(false);
+        given(cacheWriter.get(eq("postCache"), any()))
+                .willReturn(null)
+                .willReturn(RedisSerializer.java().serialize("post loaded by other instance"));
+
+        //when
+        String expected = cache.get(List.of(1L), () -> "post");
+
+        //then
+        assertEquals("post loaded by other instance", expected);
+        assertEquals(0, cache.getLoadCount());
+        assertEquals(1, cache.getLockWaitCount());
+        verify(cacheWriter, never()).put(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void itShouldSpreadTtlOfWrittenEntries() {
+        //given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+
+        //when
+        cache.get(List.of(1L), () -> "post");
+
+        //then
+        verify(cacheWriter).put(eq("postCache"), any(), any(), ttl.capture());
+        assertTrue(ttl.getValue().compareTo(Duration.ofMinutes(54)) >= 0);
+        assertTrue(ttl.getValue().compareTo(Duration.ofMinutes(66)) <= 0);
+    }
+
+    @Test
+    void itShouldNotStoreMissingValueWhenCacheDoesNotCacheNullValues() {
+        //given
+        cache = new StampedeProtectedRedisCache(
+                "userCache",
+                cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig().disableCachingNullValues(),
+                redisTemplate,
+                new StampedeProtection(Duration.ofSeconds(5), Duration.ofMillis(200), 0, Duration.ofMillis(50), 0.1));
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+
+        //when
+        Object expected = cache.get(List.of(1L), () -> null);
+
+        //then
+        assertNull(expected);
+        assertEquals(1, cache.getLoadCount());
+        verify(cacheWriter, never()).put(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void itShouldReadValueAndTtlInOneRoundTripWhenEarlyRefreshIsOn() {
+        //given
+        cache = cacheWithEarlyRefresh(1);
+        given(redisTemplate.executePipelined(any(RedisCallback.class), isNull()))
+                .willReturn(List.of(RedisSerializer.java().serialize("cached post"), Duration.ofMinutes(30).toMillis()));
+
+        //when
+        String expected = cache.get(List.of(1L), () -> "post");
+
+        //then
+        assertEquals("cached post", expected);
+        assertEquals(0, cache.getLoadCount());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class), isNull());
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+        verifyNoInteractions(cacheWriter);
+    }
+
+    @Test
+    void itShouldRefreshEarlyWhenTtlIsAboutToRunOut() {
+        //given
+        cache = cacheWithEarlyRefresh(1_000_000);
+        given(redisTemplate.executePipelined(any(RedisCallback.class), isNull()))
+                .willReturn(List.of(RedisSerializer.java().serialize("cached post"), 1L));
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+
+        //when
+        String expected = cache.get(List.of(1L), () -> "post");
+
+        //then
+        assertEquals("post", expected);
+        assertEquals(1, cache.getEarlyRefreshCount());
+        verify(cacheWriter).put(eq("postCache"), any(), any(), any());
+    }
+}
@@ -0,0 +1,117 @@
+package com.construction_worker_forum_back.config.redis;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoTierCacheTest {
+
+    private static final RedisSerializationContext.SerializationPair<Object> SERIALIZATION =
+            RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.java());
+
+    private ConcurrentMapCache shared;
+    private List<String> publishedInvalidations;
+    private TwoTierCache twoTierCache;
+
+    @BeforeEach
+    void setUp() {
+        shared = new ConcurrentMapCache("postCache");
+        publishedInvalidations = new ArrayList<>();
+        twoTierCache = new TwoTierCache(shared, newNearCache(), SERIALIZATION, publishedInvalidations::add);
+    }
+
+    @Test
+    void itShouldServeRepeatedReadsFromNearTier() {
+        //given
+        shared.put(List.of(1L), "post");
+        twoTierCache.get(List.of(1L));
+        shared.evict(List.of(1L));
+
+        //when
+        var expected = twoTierCache.get(List.of(1L), String.class);
+
+        //then
+        assertEquals("post", expected);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldHandOutCopiesOfNearValue() {
+        //given
+        twoTierCache.put(List.of(1L), new ArrayList<>(List.of("post")));
+        shared.evict(List.of(1L));
+        List<String> changedByCaller = twoTierCache.get(List.of(1L), List.class);
+        changedByCaller.add("changed by caller");
+
+        //when
+        var expected = twoTierCache.get(List.of(1L), List.class);
+
+        //then
+        assertEquals(List.of("post"), expected);
+    }
+
+    @Test
+    void itShouldPublishInvalidationOnPutAndDropNearCopyOnInvalidation() {
+        //given
+        twoTierCache.put(List.of(1L), "post");
+        shared.put(List.of(1L), "post updated on other instance");
+
+        //when
+        twoTierCache.evictNear("[1]");
+        var expected = twoTierCache.get(List.of(1L), String.class);
+
+        //then
+        assertEquals(List.of("[1]"), publishedInvalidations);
+        assertEquals("post updated on other instance", expected);
+    }
+
+    @Test
+    void itShouldNotKeepValueNearWhenInvalidationArrivesDuringSharedRead() {
+        //given
+        ConcurrentMapCache racingShared = new ConcurrentMapCache("postCache") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper stale = super.get(key);
+                twoTierCache.evictNear(String.valueOf(key));
+                super.put(key, "post updated on other instance");
+                return stale;
+            }
+        };
+        racingShared.put(List.of(1L), "post");
+        twoTierCache = new TwoTierCache(racingShared, newNearCache(), SERIALIZATION, publishedInvalidations::add);
+
+        //when
+        var first = twoTierCache.get(List.of(1L), String.class);
+        var second = twoTierCache.get(List.of(1L), String.class);
+
+        //then
+        assertEquals("post", first);
+        assertEquals("post updated on other instance", second);
+    }
+
+    @Test
+    void itShouldNotPublishInvalidationsForCachesWithoutNearTier() {
+        //given
+        twoTierCache = new TwoTierCache(shared, null, SERIALIZATION, publishedInvalidations::add);
+
+        //when
+        twoTierCache.put(List.of(1L), "post");
+        twoTierCache.evict(List.of(1L));
+
+        //then
+        assertTrue(publishedInvalidations.isEmpty());
+        assertNull(shared.get(List.of(1L)));
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<String, byte[]> newNearCache() {
+        return Caffeine.newBuilder().maximumSize(100).build();
+    }
+}
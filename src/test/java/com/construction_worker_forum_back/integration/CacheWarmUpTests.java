@@ -0,0 +1,90 @@
+package com.construction_worker_forum_back.integration;
+
+import com.construction_worker_forum_back.model.dto.PostDto;
+import com.construction_worker_forum_back.model.dto.TopicDto;
+import com.construction_worker_forum_back.model.entity.Post;
+import com.construction_worker_forum_back.model.entity.Topic;
+import com.construction_worker_forum_back.model.entity.User;
+import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.model.security.Role;
+import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.repository.TopicRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.CacheWarmUpService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("dev")
+@TestPropertySource(properties = "cache.warm-up.enabled=true")
+class CacheWarmUpTests extends TestcontainersConfig {
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TopicRepository topicRepository;
+    @Autowired
+    private RemoveService removeService;
+
+    @BeforeEach
+    void setUp() {
+        removeService.removeAll();
+        List.of("postCache", "topicCache", "userCache")
+                .forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    @Test
+    void givenPostWithLazyCollections_whenWarmingUp_thenEntriesReachTheCaches() {
+        //given
+        User author = userRepository.save(User.builder()
+                .username("user")
+                .password("password2")
+                .email("userunique@example.com")
+                .userRoles(Role.USER)
+                .accountStatus(AccountStatus.ACTIVE)
+                .build());
+        Topic topic = topicRepository.save(Topic.builder()
+                .user(author)
+                .name("Tower cranes")
+                .description("Test description")
+                .build());
+        Post post = postRepository.save(Post.builder()
+                .user(author)
+                .topic(topic)
+                .title("Title of new post")
+                .content("content")
+                .build());
+        author.setLikedPosts(new HashSet<>(Set.of(post)));
+        userRepository.save(author);
+
+        //when
+        int loaded = cacheWarmUpService.warmUp();
+
+        //then
+        assertEquals(3, loaded);
+        Cache.ValueWrapper cachedPost = Objects.requireNonNull(cacheManager.getCache("postCache")).get(List.of(post.getId()));
+        assertNotNull(cachedPost);
+        assertEquals(1, ((PostDto) cachedPost.get()).getLikers().size());
+        Cache.ValueWrapper cachedTopic = Objects.requireNonNull(cacheManager.getCache("topicCache")).get(List.of(topic.getId()));
+        assertNotNull(cachedTopic);
+        assertEquals("Tower cranes", ((TopicDto) cachedTopic.get()).getName());
+        assertNotNull(Objects.requireNonNull(cacheManager.getCache("userCache")).get(List.of(author.getId())));
+    }
+}
@@ -231,6 +231,59 @@ class PostControllerTests extends TestcontainersConfig {
                 .andExpect(jsonPath("$.likers[0].username").value(userToLike.getUsername()));
     }
 
+    @Test
+    void givenAuthorizedUser_WhenLikingPostThroughReactionsRoute_ThenReturnCreatedAndReactionState() throws Exception {
+        //given
+        PostRequestDto post = PostRequestDto.builder()
+                .userId(savedUser.getId())
+                .topicId(savedTopic.getId())
+                .content("New post")
+                .title("Title of new post")
+                .build();
+        Post postFromDb = postRepository.save(modelMapper.map(post, Post.class));
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/post/reactions/like")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("postId", String.valueOf(postFromDb.getId()))
+                        .header("Authorization", "Bearer " + tokenUtil.generateToken(userDetails)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.postId").value(postFromDb.getId()))
+                .andExpect(jsonPath("$.liked").value(true))
+                .andExpect(jsonPath("$.likeCount").value(1));
+    }
+
+    @Test
+    void givenAnonymousUser_whenReadingReactionStates_thenReturnUnauthorized() throws Exception {
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/reactions")
+                        .param("postIds", "1"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void givenAuthorizedUser_whenReadingReactionStates_thenReturnStatesOfAuthenticatedUser() throws Exception {
+        //given
+        PostRequestDto post = PostRequestDto.builder()
+                .userId(savedUser.getId())
+                .topicId(savedTopic.getId())
+                .content("New post")
+                .title("Title of new post")
+                .build();
+        Post postFromDb = postRepository.save(modelMapper.map(post, Post.class));
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/post/reactions/like")
+                .param("postId", String.valueOf(postFromDb.getId()))
+                .header("Authorization", "Bearer " + tokenUtil.generateToken(userDetails)));
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/reactions")
+                        .param("postIds", String.valueOf(postFromDb.getId()))
+                        .header("Authorization", "Bearer " + tokenUtil.generateToken(userDetails)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].postId").value(postFromDb.getId()))
+                .andExpect(jsonPath("$[0].liked").value(true));
+    }
+
     @Test
     void givenAuthorizedUser_WhenFollowingPost_ThenReturnCreatedAndPostDto() throws Exception {
         //given
@@ -332,4 +385,101 @@ class PostControllerTests extends TestcontainersConfig {
                         .header("Authorization", "Bearer " + tokenUtil.generateToken(userDetailsFollower)))
                 .andExpect(jsonPath("$.status").value("Post unfollowed successfully!"));
     }
+
+    private Post savePost(String title) {
+        PostRequestDto post = PostRequestDto.builder()
+                .userId(savedUser.getId())
+                .topicId(savedTopic.getId())
+                .content("New post")
+                .title(title)
+                .build();
+        return postRepository.save(modelMapper.map(post, Post.class));
+    }
+
+    private void reactAs(String username, String reaction, Long postId) throws Exception {
+        User reactingUser = userRepository.save(User.builder()
+                .username(username)
+                .password("toot1234")
+                .email(username + "@test.com")
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/post/{reaction}", reaction)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("postId", String.valueOf(postId))
+                        .param("userId", String.valueOf(reactingUser.getId()))
+                        .header("Authorization", "Bearer " + tokenUtil.generateToken(new UserDetailsImpl(reactingUser))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void givenPostLikedByTwoUsers_whenRequestingPageOfLikers_ThenTotalIsTakenFromLikeCounter() throws Exception {
+        //given
+        Post postFromDb = savePost("Title of new post");
+        reactAs("toot", "like", postFromDb.getId());
+        reactAs("obi", "like", postFromDb.getId());
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/likers/{id}/page", postFromDb.getId())
+                        .param("limit", "1")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].username").value("toot"))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
+    @Test
+    void givenPostFollowedByTwoUsers_whenRequestingPageOfFollowers_ThenTotalIsTakenFromFollowerCounter() throws Exception {
+        //given
+        Post postFromDb = savePost("Title of new post");
+        reactAs("toot", "follow", postFromDb.getId());
+        reactAs("obi", "follow", postFromDb.getId());
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/followers/{id}/page", postFromDb.getId())
+                        .param("limit", "1")
+                        .param("page", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].username").value("obi"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void givenLikedPost_whenRequestingSummary_ThenReturnCountsWithoutLists() throws Exception {
+        //given
+        Post postFromDb = savePost("Title of new post");
+        reactAs("toot", "like", postFromDb.getId());
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/{id}/summary", postFromDb.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(postFromDb.getId()))
+                .andExpect(jsonPath("$.title").value("Title of new post"))
+                .andExpect(jsonPath("$.topicId").value(savedTopic.getId()))
+                .andExpect(jsonPath("$.likeCount").value(1))
+                .andExpect(jsonPath("$.followerCount").value(0))
+                .andExpect(jsonPath("$.likers").doesNotExist());
+    }
+
+    @Test
+    void givenMissingPost_whenRequestingSummary_ThenReturnNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/{id}/summary", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void givenPostsInTopic_whenRequestingSummaries_ThenReturnNewestFirst() throws Exception {
+        //given
+        savePost("older");
+        Post newer = savePost("newer");
+
+        //when + then
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/post/all_by_topicid/{topicId}/summaries", savedTopic.getId())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(newer.getId()))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
 }
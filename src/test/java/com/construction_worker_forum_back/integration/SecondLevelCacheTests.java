@@ -0,0 +1,119 @@
+package com.construction_worker_forum_back.integration;
+
+import com.construction_worker_forum_back.model.entity.Post;
+import com.construction_worker_forum_back.model.entity.Topic;
+import com.construction_worker_forum_back.model.entity.User;
+import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.model.security.Role;
+import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.repository.TopicRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import com.construction_worker_forum_back.service.PostService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+        "spring.jpa.properties.javax.persistence.sharedCache.mode=ENABLE_SELECTIVE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SecondLevelCacheTests extends TestcontainersConfig {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TopicRepository topicRepository;
+    @Autowired
+    private RemoveService removeService;
+
+    private User savedUser;
+    private Topic savedTopic;
+
+    @BeforeEach
+    void setUp() {
+        removeService.removeAll();
+        savedUser = userRepository.save(User.builder()
+                .username("user")
+                .password("password2")
+                .email("userunique@example.com")
+                .userRoles(Role.USER)
+                .accountStatus(AccountStatus.ACTIVE)
+                .build());
+        savedTopic = topicRepository.save(Topic.builder()
+                .user(savedUser)
+                .name("Tower cranes")
+                .description("Test description")
+                .build());
+    }
+
+    private Post savePost(String title) {
+        return postRepository.save(Post.builder()
+                .user(savedUser)
+                .topic(savedTopic)
+                .title(title)
+                .content("content")
+                .build());
+    }
+
+    private CacheRegionStatistics topicRegion() {
+        return entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics("topicCache");
+    }
+
+    @Test
+    void givenCachedTopic_whenLikingPostOfTopic_thenTopicIsStillReadFromSecondLevelCache() {
+        //given
+        Post liked = savePost("liked");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        topicRepository.findById(savedTopic.getId());
+        assertEquals(1, topicRegion().getPutCount());
+
+        //when
+        postService.likePost(liked.getId(), savedUser.getId());
+        long hits = topicRegion().getHitCount();
+        Topic topicAfterLike = topicRepository.findById(savedTopic.getId()).orElseThrow();
+        Post likedAfterLike = postRepository.findById(liked.getId()).orElseThrow();
+
+        //then
+        assertEquals(hits + 1, topicRegion().getHitCount());
+        assertEquals("Tower cranes", topicAfterLike.getName());
+        assertEquals(1L, likedAfterLike.getLikeCount());
+    }
+
+    @Test
+    void givenPost_whenReadingIt_thenItIsNotPutInSecondLevelCache() {
+        //given
+        Post post = savePost("post");
+        entityManagerFactory.getCache().evictAll();
+
+        //when
+        postRepository.findById(post.getId());
+
+        //then
+        assertFalse(entityManagerFactory.getCache().contains(Post.class, post.getId()));
+    }
+}
@@ -2,25 +2,38 @@ package com.construction_worker_forum_back.integration.chat;
 
 import com.construction_worker_forum_back.exception.MessageNotFoundException;
 import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.dto.CursorPageDto;
 import com.construction_worker_forum_back.repository.ChatMessageRepository;
 import com.construction_worker_forum_back.service.ChatMessageService;
+import com.construction_worker_forum_back.service.ChatRoomService;
+import com.construction_worker_forum_back.service.ChatUnreadCounterService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.Date;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 @ActiveProfiles("dev")
 class ChatMessageServiceIntegrationTests extends MongoTestcontainersConfig {
 
     @Autowired
     private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
     private ChatMessageService chatMessageService;
     private String obiWanId;
     private String lukeId;
@@ -30,10 +43,15 @@ class ChatMessageServiceIntegrationTests extends MongoTestcontainersConfig {
     @BeforeEach
     void setup() {
         chatMessageService = new ChatMessageService(chatMessageRepository);
+        ChatRoomService chatRoomService = mock(ChatRoomService.class);
+        ReflectionTestUtils.setField(chatMessageService, "chatRoomService", chatRoomService);
+        ReflectionTestUtils.setField(chatMessageService, "mongoOperations", mongoTemplate);
+        ReflectionTestUtils.setField(chatMessageService, "unreadCounterService", mock(ChatUnreadCounterService.class));
 
         obiWanId = "senderId";
         lukeId = "recipientId";
         chatId = String.format("%s_%s", obiWanId, lukeId);
+        given(chatRoomService.getChatId(anyString(), anyString(), eq(false))).willReturn(Optional.of(chatId));
 
         messageToLuke = ChatMessage.builder()
                 .chatId(chatId)
@@ -71,4 +89,78 @@ class ChatMessageServiceIntegrationTests extends MongoTestcontainersConfig {
                 );
         assertEquals(id, actualId);
     }
+
+    @Test
+    void givenLongConversation_whenPagedWithCursor_thenLatestMessagesComeFirstAndOlderPagesFollow() {
+
+        // given
+        Instant start = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            chatMessageService.save(ChatMessage.builder()
+                    .chatId(chatId)
+                    .senderId(obiWanId)
+                    .recipientId(lukeId)
+                    .content("message " + i)
+                    .timestamp(Date.from(start.plusSeconds(i)))
+                    .build());
+        }
+
+        // when
+        CursorPageDto<ChatMessage> latest = chatMessageService.findChatMessagePage(lukeId, obiWanId, Optional.empty(), 2);
+        CursorPageDto<ChatMessage> older = chatMessageService.findChatMessagePage(lukeId, obiWanId, Optional.of(latest.getNextCursor()), 2);
+        CursorPageDto<ChatMessage> oldest = chatMessageService.findChatMessagePage(lukeId, obiWanId, Optional.of(older.getNextCursor()), 2);
+
+        // then
+        assertEquals(List.of("message 4", "message 3"), latest.getContent().stream().map(ChatMessage::getContent).toList());
+        assertEquals(List.of("message 2", "message 1"), older.getContent().stream().map(ChatMessage::getContent).toList());
+        assertEquals(List.of("message 0"), oldest.getContent().stream().map(ChatMessage::getContent).toList());
+        assertTrue(latest.isHasNext());
+        assertFalse(oldest.isHasNext());
+        assertNull(oldest.getNextCursor());
+    }
+
+    @Test
+    void givenConversation_whenListed_thenWholeConversationComesOldestFirst() {
+
+        // given
+        Instant start = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            chatMessageService.save(ChatMessage.builder()
+                    .chatId(chatId)
+                    .senderId(obiWanId)
+                    .recipientId(lukeId)
+                    .content("message " + i)
+                    .timestamp(Date.from(start.plusSeconds(i)))
+                    .build());
+        }
+
+        // when
+        List<ChatMessage> messages = chatMessageService.findChatMessages(lukeId, obiWanId);
+
+        // then
+        assertEquals(List.of("message 0", "message 1", "message 2"), messages.stream().map(ChatMessage::getContent).toList());
+    }
+
+    @Test
+    void givenConversation_whenStreamed_thenMessagesComeOldestFirst() {
+
+        // given
+        chatMessageService.save(messageToLuke);
+        ChatMessage reply = ChatMessage.builder()
+                .chatId(chatId)
+                .senderId(lukeId)
+                .recipientId(obiWanId)
+                .content("General Kenobi!")
+                .timestamp(Date.from(Instant.now().plusSeconds(1)))
+                .build();
+        chatMessageService.save(reply);
+        List<String> contents = new ArrayList<>();
+
+        // when
+        long count = chatMessageService.forEachChatMessage(obiWanId, lukeId, chatMessage -> contents.add(chatMessage.getContent()));
+
+        // then
+        assertEquals(2, count);
+        assertEquals(List.of("Hello There!", "General Kenobi!"), contents);
+    }
 }
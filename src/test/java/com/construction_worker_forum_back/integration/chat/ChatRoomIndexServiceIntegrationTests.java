@@ -0,0 +1,149 @@
+package com.construction_worker_forum_back.integration.chat;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.ChatRoom;
+import com.construction_worker_forum_back.service.ChatRoomIndexService;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("dev")
+class ChatRoomIndexServiceIntegrationTests extends MongoTestcontainersConfig {
+
+    private static final String MIGRATIONS_COLLECTION = "migrations";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private ChatRoomIndexService chatRoomIndexService;
+
+    @BeforeEach
+    void setup() {
+        mongoTemplate.dropCollection(ChatRoom.class);
+        mongoTemplate.dropCollection(MIGRATIONS_COLLECTION);
+        chatRoomIndexService = new ChatRoomIndexService(mongoTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        mongoTemplate.dropCollection(ChatRoom.class);
+        mongoTemplate.dropCollection(ChatMessage.class);
+        mongoTemplate.dropCollection(MIGRATIONS_COLLECTION);
+    }
+
+    private void claim(Date claimedAt) {
+        mongoTemplate.insert(new Document("_id", "chat_room_sender_recipient_dedupe")
+                .append("completed", false)
+                .append("claimedAt", claimedAt), MIGRATIONS_COLLECTION);
+    }
+
+    private boolean hasUniqueIndex() {
+        return mongoTemplate.indexOps(ChatRoom.class).getIndexInfo().stream()
+                .anyMatch(index -> index.getName().equals("sender_recipient") && index.isUnique());
+    }
+
+    private ChatRoom room(String chatId, String senderId, String recipientId) {
+        return mongoTemplate.insert(ChatRoom.builder().chatId(chatId).senderId(senderId).recipientId(recipientId).build());
+    }
+
+    @Test
+    void givenDuplicateRooms_whenCreatingUniqueIndex_thenDuplicatesAreRemovedAndMessagesKept() {
+
+        // given
+        room("obiWan_luke", "luke", "obiWan");
+        room("luke_obiWan", "obiWan", "luke");
+        room("obiWan_luke", "obiWan", "luke");
+        mongoTemplate.insert(ChatMessage.builder().chatId("luke_obiWan").senderId("obiWan").recipientId("luke").content("Hello There!").build());
+
+        // when
+        chatRoomIndexService.createUniqueIndex();
+
+        // then
+        List<ChatRoom> rooms = mongoTemplate.find(
+                Query.query(Criteria.where("senderId").is("obiWan").and("recipientId").is("luke")), ChatRoom.class);
+        assertThat(rooms).hasSize(1);
+        assertEquals("obiWan_luke", rooms.get(0).getChatId());
+        assertEquals(2, mongoTemplate.count(new Query(), ChatRoom.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("chatId").is("obiWan_luke")), ChatMessage.class));
+
+        assertTrue(hasUniqueIndex());
+    }
+
+    @Test
+    void givenUniqueIndex_whenInsertingDuplicateRoom_thenItIsRejected() {
+
+        // given
+        room("luke_obiWan", "obiWan", "luke");
+        chatRoomIndexService.createUniqueIndex();
+
+        // when + then
+        assertThrows(DuplicateKeyException.class, () -> room("luke_obiWan", "obiWan", "luke"));
+        assertThat(mongoTemplate.indexOps(ChatRoom.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains("sender_recipient");
+    }
+
+    @Test
+    void givenDuplicateRooms_whenCreatingUniqueIndex_thenMigrationIsMarkedCompleted() {
+
+        // given
+        room("luke_obiWan", "obiWan", "luke");
+        room("luke_obiWan", "obiWan", "luke");
+
+        // when
+        chatRoomIndexService.createUniqueIndex();
+
+        // then
+        Document marker = mongoTemplate.findById("chat_room_sender_recipient_dedupe", Document.class, MIGRATIONS_COLLECTION);
+        assertNotNull(marker);
+        assertTrue(marker.getBoolean("completed"));
+        assertEquals(1, mongoTemplate.count(new Query(), ChatRoom.class));
+    }
+
+    @Test
+    void givenMigrationClaimedByAnotherInstance_whenCreatingUniqueIndex_thenRoomsAreLeftAlone() {
+
+        // given
+        room("luke_obiWan", "obiWan", "luke");
+        room("luke_obiWan", "obiWan", "luke");
+        claim(new Date());
+
+        // when
+        chatRoomIndexService.createUniqueIndex();
+
+        // then
+        assertEquals(2, mongoTemplate.count(new Query(), ChatRoom.class));
+        assertFalse(hasUniqueIndex());
+    }
+
+    @Test
+    void givenExpiredClaim_whenCreatingUniqueIndex_thenMigrationIsTakenOver() {
+
+        // given
+        room("luke_obiWan", "obiWan", "luke");
+        room("luke_obiWan", "obiWan", "luke");
+        claim(new Date(System.currentTimeMillis() - Duration.ofHours(1).toMillis()));
+
+        // when
+        chatRoomIndexService.createUniqueIndex();
+
+        // then
+        assertEquals(1, mongoTemplate.count(new Query(), ChatRoom.class));
+        assertTrue(hasUniqueIndex());
+    }
+}
@@ -2,21 +2,34 @@ package com.construction_worker_forum_back.productivity;
 
 import com.construction_worker_forum_back.integration.RemoveService;
 import com.construction_worker_forum_back.integration.TestcontainersConfig;
+import com.construction_worker_forum_back.model.dto.PostDto;
 import com.construction_worker_forum_back.model.dto.PostRequestDto;
 import com.construction_worker_forum_back.model.dto.TopicRequestDto;
 import com.construction_worker_forum_back.model.dto.UserRequestDto;
+import com.construction_worker_forum_back.model.entity.Keyword;
 import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.service.KeywordService;
 import com.construction_worker_forum_back.service.PostService;
 import com.construction_worker_forum_back.service.TopicService;
 import com.construction_worker_forum_back.service.UserService;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestExecutionListeners;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.context.TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS;
 
+@Slf4j
 @TestExecutionListeners(listeners = { TestProductivityExecutionListener.class }, mergeMode = MERGE_WITH_DEFAULTS)
 public class PostProductivityServiceTest extends TestcontainersConfig {
 
@@ -25,14 +38,16 @@ public class PostProductivityServiceTest extends TestcontainersConfig {
     private final UserService userService;
     private final TopicService topicService;
     private final RemoveService removeService;
+    private final KeywordService keywordService;
 
     @Autowired
-    public PostProductivityServiceTest(PostService postService, PostRepository postRepository, RemoveService removeService, UserService userService, TopicService topicService) {
+    public PostProductivityServiceTest(PostService postService, PostRepository postRepository, RemoveService removeService, UserService userService, TopicService topicService, KeywordService keywordService) {
         this.postService = postService;
         this.postRepository = postRepository;
         this.removeService = removeService;
         this.topicService = topicService;
         this.userService = userService;
+        this.keywordService = keywordService;
     }
 
     @BeforeEach
@@ -79,4 +94,59 @@ public class PostProductivityServiceTest extends TestcontainersConfig {
         //then
         assertEquals(100, postRepository.findAll().size());
     }
+
+    @Test
+    public void productivityPostFilteringByKeywordsTest() {
+        //given
+        Long userId = userService.register(UserRequestDto.builder()
+                .username("jake")
+                .password("secret")
+                .email("jake@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build()).get().getId();
+
+        Long topicId = topicService.createTopic(TopicRequestDto.builder()
+                .name("Testtesttets")
+                .description("TestTestTest")
+                .userId(userId)
+                .build()).getId();
+
+        List<Keyword> allKeywords = keywordService.getAllKeywords();
+        Set<Keyword> bothKeywords = new HashSet<>(allKeywords.subList(0, 2));
+        Set<Keyword> oneKeyword = new HashSet<>(allKeywords.subList(0, 1));
+        List<String> wantedKeywords = bothKeywords.stream().map(Keyword::getName).toList();
+
+        Runtime runtime = Runtime.getRuntime();
+        int createdPosts = 0;
+
+        for (int topicSize : new int[]{100, 300, 900}) {
+            for (; createdPosts < topicSize; createdPosts++) {
+                postService.createPost(PostRequestDto.builder()
+                        .userId(userId)
+                        .content("secret" + createdPosts)
+                        .title("jake" + createdPosts)
+                        .topicId(topicId)
+                        .keywords(createdPosts % 2 == 0 ? bothKeywords : oneKeyword)
+                        .build());
+            }
+
+            //when
+            System.gc();
+            long usedHeapBefore = runtime.totalMemory() - runtime.freeMemory();
+            long startTime = System.nanoTime();
+            Page<PostDto> page = Page.empty();
+            for (int i = 0; i < 20; i++) {
+                page = postService.getPageOfPostsHavingAllKeywords(topicId, wantedKeywords, PageRequest.of(1, 10, Sort.by("title").descending()));
+            }
+            long averageLatency = TimeUnit.NANOSECONDS.toMicros((System.nanoTime() - startTime) / 20);
+            long usedHeapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+            log.info("LOGGER => topic with {} posts: {} us per page, {} KB heap growth", topicSize, averageLatency, (usedHeapAfter - usedHeapBefore) / 1024);
+
+            //then
+            assertEquals(10, page.getNumberOfElements());
+            assertEquals(topicSize / 2, page.getTotalElements());
+        }
+    }
 }
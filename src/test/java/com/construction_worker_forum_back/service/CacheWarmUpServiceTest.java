@@ -0,0 +1,83 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.repository.PostRepository;
+import com.construction_worker_forum_back.repository.TopicRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmUpServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private TopicRepository topicRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PostService postService;
+    @Mock
+    private TopicService topicService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CacheWarmUpService cacheWarmUpService(Duration timeBudget) {
+        return new CacheWarmUpService(
+                postRepository, topicRepository, userRepository,
+                postService, topicService, userService, transactionManager,
+                3, 2, 2, 2, 2, timeBudget);
+    }
+
+    @Test
+    void itShouldLoadMostRecentlyActiveEntriesThroughCachedServices() {
+        //given
+        given(postRepository.findRecentlyActiveIds(PageRequest.of(0, 3))).willReturn(List.of(30L, 20L, 10L));
+        given(topicRepository.findRecentlyActiveIds(PageRequest.of(0, 2))).willReturn(List.of(2L));
+        given(userRepository.findRecentlyActiveIds(PageRequest.of(0, 2))).willReturn(List.of(5L, 4L));
+        given(postService.findById(20L)).willThrow(new IllegalStateException("redis is down"));
+
+        //when
+        int expected = cacheWarmUpService(Duration.ofSeconds(5)).warmUp();
+
+        //then
+        assertEquals(5, expected);
+        verify(postService).findById(30L);
+        verify(postService).findById(10L);
+        verify(topicService).findTopicById(2L);
+        verify(userService).findById(5L);
+        verify(userService).findById(4L);
+        verify(transactionManager, times(6)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void itShouldStopLoadingWhenTimeBudgetRunsOut() {
+        //given
+        given(postRepository.findRecentlyActiveIds(any())).willReturn(List.of(30L, 20L, 10L));
+        given(topicRepository.findRecentlyActiveIds(any())).willReturn(List.of());
+        given(userRepository.findRecentlyActiveIds(any())).willReturn(List.of());
+
+        //when
+        int expected = cacheWarmUpService(Duration.ZERO).warmUp();
+
+        //then
+        assertEquals(0, expected);
+        verifyNoInteractions(postService);
+    }
+}
@@ -0,0 +1,177 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import com.construction_worker_forum_back.model.chat.MessageStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatMessageWriteBehindServiceTest {
+
+    @Mock
+    private MongoOperations mongoOperations;
+    @Mock
+    private ChatUnreadCounterService unreadCounterService;
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatMessageWriteBehindService writeBehindService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehindService = newService(2, 10);
+    }
+
+    private ChatMessageWriteBehindService newService(int capacity, int batchSize) {
+        return new ChatMessageWriteBehindService(
+                mongoOperations,
+                unreadCounterService,
+                new ObjectMapper(),
+                meterRegistry,
+                capacity,
+                batchSize,
+                tempDir.resolve("recovery.jsonl")
+        );
+    }
+
+    private ChatMessage message(String content) {
+        return ChatMessage.builder()
+                .id(new ObjectId().toHexString())
+                .chatId("luke_obi")
+                .senderId("obi")
+                .recipientId("luke")
+                .content(content)
+                .timestamp(new Date())
+                .status(MessageStatus.RECEIVED)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldInsertMessagesInAcceptedOrderAndCountThemAsUnread() {
+        //given
+        ChatMessage first = message("Hello there");
+        ChatMessage second = message("General Kenobi");
+
+        //when
+        writeBehindService.submit(first);
+        writeBehindService.submit(second);
+        writeBehindService.flush();
+
+        //then
+        ArgumentCaptor<Collection<ChatMessage>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoOperations).insert(batch.capture(), eq(ChatMessage.class));
+        assertEquals(List.of(first, second), List.copyOf(batch.getValue()));
+        verify(unreadCounterService, times(2)).increment("luke", "obi");
+        assertEquals(0, writeBehindService.getPendingCount());
+        assertEquals(2.0, meterRegistry.counter("chat.write_behind.written").count());
+    }
+
+    @Test
+    void itShouldStoreMessageReadBeforeFlushAsDelivered() {
+        //given
+        ChatMessage chatMessage = message("Hello there");
+        writeBehindService.submit(chatMessage);
+
+        //when
+        ChatMessage expected = writeBehindService.markDelivered(chatMessage.getId()).orElseThrow();
+        writeBehindService.flush();
+
+        //then
+        assertEquals(MessageStatus.DELIVERED, expected.getStatus());
+        verifyNoInteractions(unreadCounterService);
+        assertTrue(writeBehindService.markDelivered(chatMessage.getId()).isEmpty());
+    }
+
+    @Test
+    void itShouldKeepFailedBatchAndRejectMessagesWhenQueueIsFull() {
+        //given
+        given(mongoOperations.insert(anyCollection(), eq(ChatMessage.class)))
+                .willThrow(new DataAccessResourceFailureException("mongo is down"));
+        writeBehindService.submit(message("1"));
+        writeBehindService.submit(message("2"));
+        writeBehindService.flush();
+        writeBehindService.submit(message("3"));
+        writeBehindService.submit(message("4"));
+
+        //when
+        assertThrows(ResponseStatusException.class, () -> writeBehindService.submit(message("5")));
+
+        //then
+        verify(mongoOperations, timeout(1000).times(2)).insert(anyCollection(), eq(ChatMessage.class));
+        assertEquals(4, writeBehindService.getPendingCount());
+        assertEquals(1.0, meterRegistry.counter("chat.write_behind.rejected").count());
+        verifyNoInteractions(unreadCounterService);
+    }
+
+    @Test
+    void itShouldFlushOnBackgroundThreadWhenBatchIsQueued() {
+        //given
+        writeBehindService = newService(10, 2);
+        AtomicReference<String> flushingThread = new AtomicReference<>();
+        given(mongoOperations.insert(anyCollection(), eq(ChatMessage.class))).willAnswer(invocation -> {
+            flushingThread.set(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        //when
+        writeBehindService.submit(message("Hello there"));
+        writeBehindService.submit(message("General Kenobi"));
+
+        //then
+        verify(mongoOperations, timeout(1000)).insert(anyCollection(), eq(ChatMessage.class));
+        assertEquals("chat-write-behind-flush", flushingThread.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldRecoverMessagesLeftOnShutdownOnNextStart() {
+        //given
+        ChatMessage chatMessage = message("Hello there");
+        given(mongoOperations.insert(anyCollection(), eq(ChatMessage.class)))
+                .willThrow(new DataAccessResourceFailureException("mongo is down"))
+                .willReturn(List.of());
+        writeBehindService.submit(chatMessage);
+        writeBehindService.shutdown();
+        assertTrue(Files.exists(tempDir.resolve("recovery.jsonl")));
+
+        //when
+        ChatMessageWriteBehindService restarted = newService(2, 10);
+        restarted.recover();
+        restarted.flush();
+
+        //then
+        ArgumentCaptor<Collection<ChatMessage>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoOperations, times(2)).insert(batch.capture(), eq(ChatMessage.class));
+        ChatMessage expected = batch.getValue().iterator().next();
+        assertEquals(chatMessage.getId(), expected.getId());
+        assertEquals(chatMessage.getTimestamp(), expected.getTimestamp());
+        assertFalse(Files.exists(tempDir.resolve("recovery.jsonl")));
+        assertEquals(0, restarted.getPendingCount());
+    }
+}
@@ -2,11 +2,18 @@ package com.construction_worker_forum_back.service;
 
 import com.construction_worker_forum_back.model.chat.ChatRoom;
 import com.construction_worker_forum_back.repository.ChatRoomRepository;
+import com.construction_worker_forum_back.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Optional;
@@ -14,8 +21,10 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ActiveProfiles("dev")
@@ -24,12 +33,22 @@ class ChatRoomServiceTest {
 
     @Mock
     private ChatRoomRepository chatRoomRepository;
-    @InjectMocks
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MongoOperations mongoOperations;
+    private SimpleMeterRegistry meterRegistry;
     private ChatRoomService chatRoomService;
     private final String senderId = "senderId";
     private final String recipientId = "recipientId";
     private final String chatId = String.format("%s_%s", senderId, recipientId);
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        chatRoomService = new ChatRoomService(chatRoomRepository, userRepository, new ModelMapper(), mongoOperations, meterRegistry);
+    }
+
     @Test
     void givenExistingChatRoomInDb_whenTryingToGetChatId_thenReturnChatId() {
 
@@ -57,14 +76,43 @@ class ChatRoomServiceTest {
     void givenNotExistingChatRoom_whenTryingToGetChatId_thenCreateChatRoomsAndReturnCommonChatId() {
 
         // given
-        given(chatRoomRepository.findBySenderIdAndRecipientId(senderId, recipientId))
+        String derivedChatId = ChatRoomService.chatIdOf(senderId, recipientId);
+        given(chatRoomRepository.findBySenderIdAndRecipientId(any(), any()))
                 .willReturn(Optional.empty());
+        given(mongoOperations.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ChatRoom.class)))
+                .willReturn(ChatRoom.builder().chatId(derivedChatId).build());
 
         // when
         Optional<String> actualChatId = chatRoomService.getChatId(senderId, recipientId, true);
 
         // then
         assertTrue(actualChatId.isPresent());
-        assertEquals(chatId, actualChatId.get());
+        assertEquals(derivedChatId, actualChatId.get());
+        assertEquals(derivedChatId, ChatRoomService.chatIdOf(recipientId, senderId));
+        verify(mongoOperations, times(2)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ChatRoom.class));
+        verify(chatRoomRepository, never()).save(any(ChatRoom.class));
+    }
+
+    @Test
+    void givenResolvedChatRoom_whenTryingToGetChatIdAgain_thenAnswerFromMemory() {
+
+        // given
+        ChatRoom chatRoom = ChatRoom.builder()
+                .chatId(chatId)
+                .senderId(senderId)
+                .recipientId(recipientId)
+                .build();
+        given(chatRoomRepository.findBySenderIdAndRecipientId(senderId, recipientId))
+                .willReturn(Optional.of(chatRoom));
+
+        // when
+        chatRoomService.getChatId(senderId, recipientId, false);
+        Optional<String> actualChatId = chatRoomService.getChatId(senderId, recipientId, false);
+
+        // then
+        assertEquals(Optional.of(chatId), actualChatId);
+        verify(chatRoomRepository, times(1)).findBySenderIdAndRecipientId(senderId, recipientId);
+        assertEquals(1L, meterRegistry.timer("chat.room.lookup", "source", "cache").count());
+        assertEquals(1L, meterRegistry.timer("chat.room.lookup", "source", "mongo").count());
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.chat.ChatMessage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatUnreadCounterServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    @Mock
+    private MongoOperations mongoOperations;
+
+    private ChatUnreadCounterService chatUnreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        chatUnreadCounterService = new ChatUnreadCounterService(redisTemplate, mongoOperations, Duration.ofHours(1));
+    }
+
+    @Test
+    void itShouldAnswerAllUnreadCountsFromLoadedHash() {
+        //given
+        given(redisTemplate.opsForHash()).willReturn(hashOperations);
+        given(hashOperations.entries("chat:unread:luke")).willReturn(Map.of("~loaded", "0", "obiWan", "3", "leia", "1"));
+
+        //when
+        Map<String, Long> expected = chatUnreadCounterService.getUnreadCounts("luke");
+
+        //then
+        assertEquals(Map.of("obiWan", 3L, "leia", 1L), expected);
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldLoadHashFromMongoWhenItIsNotLoaded() {
+        //given
+        given(redisTemplate.opsForHash()).willReturn(hashOperations);
+        given(hashOperations.entries("chat:unread:luke")).willReturn(Map.of("obiWan", "1"));
+        given(mongoOperations.aggregate(any(Aggregation.class), eq(ChatMessage.class), eq(Document.class)))
+                .willReturn(new AggregationResults<>(List.of(new Document("_id", "obiWan").append("count", 2)), new Document()));
+
+        //when
+        long expected = chatUnreadCounterService.getUnreadCount("luke", "obiWan");
+
+        //then
+        assertEquals(2L, expected);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("chat:unread:luke")),
+                eq(String.valueOf(Duration.ofHours(1).toMillis())), eq("obiWan"), eq("2"));
+        verify(hashOperations, never()).putAll(any(), any());
+        verify(redisTemplate, never()).expire(any(), any(Duration.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldChangeCounterWithoutExtendingItsTtl() {
+        //when
+        chatUnreadCounterService.increment("luke", "obiWan");
+
+        //then
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("chat:unread:luke")), eq("obiWan"), eq("1"));
+    }
+
+    @Test
+    void itShouldCountInMongoWhenRedisIsUnavailable() {
+        //given
+        given(redisTemplate.opsForHash()).willThrow(new RedisConnectionFailureException("redis is down"));
+        given(mongoOperations.aggregate(any(Aggregation.class), eq(ChatMessage.class), eq(Document.class)))
+                .willReturn(new AggregationResults<>(List.of(new Document("_id", "obiWan").append("count", 4)), new Document()));
+
+        //when
+        Map<String, Long> expected = chatUnreadCounterService.getUnreadCounts("luke");
+
+        //then
+        assertEquals(Map.of("obiWan", 4L), expected);
+    }
+}
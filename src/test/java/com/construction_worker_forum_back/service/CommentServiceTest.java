@@ -1,6 +1,5 @@
 package com.construction_worker_forum_back.service;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.dto.CommentDto;
 import com.construction_worker_forum_back.model.dto.CommentRequestDto;
 import com.construction_worker_forum_back.model.dto.PostDto;
@@ -11,6 +10,7 @@ import com.construction_worker_forum_back.model.dto.simple.PostSimpleDto;
 import com.construction_worker_forum_back.model.dto.simple.UserSimpleDto;
 import com.construction_worker_forum_back.model.entity.Comment;
 import com.construction_worker_forum_back.model.entity.Post;
+import com.construction_worker_forum_back.model.entity.Topic;
 import com.construction_worker_forum_back.model.entity.User;
 import com.construction_worker_forum_back.repository.CommentRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
@@ -21,7 +21,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.sql.Date;
 import java.time.Instant;
@@ -32,6 +35,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -52,11 +57,23 @@ public class CommentServiceTest {
     private PostService postService;
 
     @Mock
-    private NotificationClient notificationClient;
+    private NotificationDispatchService notificationDispatchService;
 
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private ReactionSetService reactionSetService;
+
+    @Mock
+    private ListCacheVersionService listCacheVersionService;
+
+    @Mock
+    private EntityCounterService entityCounterService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -171,6 +188,7 @@ public class CommentServiceTest {
         assertEquals(expected.getPost().getId(), postDto.getId());
 
         verify(commentRepository, atLeastOnce()).save(comment);
+        verify(postService).changeCommentCount(commentRequestDto.getPostId(), 1);
     }
 
     @Test
@@ -279,47 +297,91 @@ public class CommentServiceTest {
 
 
     @Test
-    void itShouldLikeComment() {
+    void itShouldLikeCommentByInsertingJoinRow() {
         //Given
-        User user = User.builder().username("adam").id(1L).build();
-        Comment comment = Comment.builder().id(1L).likers(new HashSet<>(List.of(User.builder().id(2L).build()))).build();
-        CommentDto commentDto = CommentDto.builder().id(1L).likers(new ArrayList<>(List.of(LikerSimpleDto.builder().id(2L).build()))).build();
-        user.setLikedComments(new HashSet<>(List.of(comment)));
+        Comment comment = Comment.builder().id(1L).build();
 
         given(commentRepository.findById(comment.getId())).willReturn(Optional.of(comment));
-        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
-        given(modelMapper.map(comment, CommentDto.class)).willReturn(commentDto);
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(reactionSetService.addCommentLiker(comment.getId(), 1L)).willReturn(Optional.of(true));
+        given(jdbcTemplate.update(anyString(), eq(1L), eq(comment.getId()))).willReturn(1);
 
         //When
-        var expected = commentService.likeComment(comment.getId(), user.getId());
+        commentService.likeComment(comment.getId(), 1L);
 
         //Then
-        assertNotNull(expected.getLikers());
+        verify(entityCounterService).changeCommentLikeCount(comment.getId(), 1);
+        verifyNoInteractions(modelMapper);
+    }
 
-        verify(userRepository, atLeastOnce()).findById(user.getId());
-        verify(commentRepository, atLeastOnce()).findById(comment.getId());
-        verify(modelMapper, atLeastOnce()).map(comment, CommentDto.class);
+    @Test
+    void itShouldRefuseDuplicateLikeFromReactionSetWithoutWriting() {
+        //Given
+        Comment comment = Comment.builder().id(1L).build();
+
+        given(commentRepository.findById(comment.getId())).willReturn(Optional.of(comment));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(reactionSetService.addCommentLiker(comment.getId(), 1L)).willReturn(Optional.of(false));
+
+        //When
+        var exception = assertThrows(ResponseStatusException.class, () -> commentService.likeComment(comment.getId(), 1L));
+
+        //Then
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verifyNoInteractions(jdbcTemplate, entityCounterService);
     }
 
     @Test
-    void itShouldDislikeComment() {
+    void itShouldRefuseDuplicateLikeByGuardedInsertWhenReactionSetIsUnavailable() {
         //Given
-        User user = User.builder().username("adam").id(1L).build();
-        Comment comment = Comment.builder().id(1L).likers(new HashSet<>(List.of(user))).build();
-        user.setLikedComments(new HashSet<>(List.of(comment)));
+        Comment comment = Comment.builder().id(1L).build();
 
         given(commentRepository.findById(comment.getId())).willReturn(Optional.of(comment));
-        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(reactionSetService.addCommentLiker(comment.getId(), 1L)).willReturn(Optional.empty());
+        given(jdbcTemplate.update(anyString(), eq(1L), eq(comment.getId()))).willReturn(0);
 
+        //When
+        var exception = assertThrows(ResponseStatusException.class, () -> commentService.likeComment(comment.getId(), 1L));
+
+        //Then
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verifyNoInteractions(entityCounterService);
+    }
+
+    @Test
+    void itShouldDislikeCommentByDeletingJoinRow() {
+        //Given
+        Comment comment = Comment.builder().id(1L).build();
+
+        given(commentRepository.findById(comment.getId())).willReturn(Optional.of(comment));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(reactionSetService.removeCommentLiker(comment.getId(), 1L)).willReturn(Optional.of(true));
+        given(jdbcTemplate.update(anyString(), eq(1L), eq(comment.getId()))).willReturn(1);
 
         //When
-        commentService.unlikeComment(comment.getId(), user.getId());
+        commentService.unlikeComment(comment.getId(), 1L);
 
         //Then
-        verify(userRepository, atLeastOnce()).findById(user.getId());
-        verify(commentRepository, atLeastOnce()).findById(comment.getId());
+        verify(entityCounterService).changeCommentLikeCount(comment.getId(), -1);
     }
 
+    @Test
+    void itShouldNotChangeLikeCountWhenNoLikeWasDeleted() {
+        //Given
+        Comment comment = Comment.builder().id(1L).build();
+
+        given(commentRepository.findById(comment.getId())).willReturn(Optional.of(comment));
+        given(userRepository.existsById(1L)).willReturn(true);
+        given(reactionSetService.removeCommentLiker(comment.getId(), 1L)).willReturn(Optional.empty());
+        given(jdbcTemplate.update(anyString(), eq(1L), eq(comment.getId()))).willReturn(0);
+
+        //When
+        commentService.unlikeComment(comment.getId(), 1L);
+
+        //Then
+        verify(entityCounterService, never()).changeCommentLikeCount(anyLong(), anyLong());
+    }
 
     @Test
     void itShouldDeleteComment() {
@@ -355,10 +417,16 @@ public class CommentServiceTest {
                 .username("adam")
                 .build();
 
+        Post post = Post.builder()
+                .id(2L)
+                .topic(Topic.builder().id(3L).build())
+                .build();
+
         Comment comment = Comment.builder()
                 .id(commentToUpdateId)
                 .content(commentRequestDto.getContent())
                 .user(user)
+                .post(post)
                 .build();
 
         CommentDto commentDto = CommentDto.builder()
@@ -385,6 +453,8 @@ public class CommentServiceTest {
 
         verify(commentRepository, atLeastOnce()).findById(commentToUpdateId);
         verify(modelMapper, atLeastOnce()).map(comment, CommentDto.class);
+        verify(listCacheVersionService).bumpPostComments(post.getId());
+        verify(listCacheVersionService).bumpTopicPosts(post.getTopic().getId());
     }
 
 }
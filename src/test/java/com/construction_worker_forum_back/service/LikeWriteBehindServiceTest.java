@@ -0,0 +1,182 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.entity.Comment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeWriteBehindServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private NotificationDispatchService notificationDispatchService;
+    @Mock
+    private ReactionSetService reactionSetService;
+    @Mock
+    private ListCacheVersionService listCacheVersionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LikeWriteBehindService likeWriteBehindService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        likeWriteBehindService = likeWriteBehindService(100, 200);
+    }
+
+    private LikeWriteBehindService likeWriteBehindService(int maxPending, int rejectPending) {
+        return new LikeWriteBehindService(
+                jdbcTemplate,
+                transactionTemplate,
+                new ConcurrentMapCacheManager("postCache", "commentCache"),
+                entityManagerFactory,
+                notificationDispatchService,
+                reactionSetService,
+                listCacheVersionService,
+                meterRegistry,
+                maxPending,
+                rejectPending
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldWriteOnlyTheLatestStatePerUserAndComment() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .willReturn(new int[][]{{1}});
+
+        //when
+        likeWriteBehindService.likeComment(1L, 2L);
+        likeWriteBehindService.unlikeComment(1L, 2L);
+        likeWriteBehindService.likeComment(1L, 2L);
+        likeWriteBehindService.flush();
+
+        //then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<?>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(sql.capture(), rows.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        assertTrue(sql.getAllValues().get(0).startsWith("insert into comment_like"));
+        assertEquals(1, rows.getAllValues().get(0).size());
+        assertTrue(sql.getAllValues().get(1).startsWith("update comments set like_count"));
+        assertEquals(0, likeWriteBehindService.getPendingCount());
+        assertEquals(2.0, meterRegistry.counter("likes.write_behind.deduplicated").count());
+        verify(entityManagerFactory.getCache()).evict(Comment.class, 1L);
+        verifyNoInteractions(notificationDispatchService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldLookUpOwnersOfAllNewlyLikedPostsInOneQuery() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .willReturn(new int[][]{{1, 1}});
+
+        //when
+        likeWriteBehindService.likePost(1L, 2L);
+        likeWriteBehindService.likePost(3L, 4L);
+        likeWriteBehindService.flush();
+
+        //then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> pairs = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowCallbackHandler.class), pairs.capture());
+        assertTrue(sql.getValue().endsWith("where (u.id, p.id) in ((?, ?), (?, ?))"));
+        assertTrue(pairs.getAllValues().containsAll(List.of(1L, 2L, 3L, 4L)));
+    }
+
+    @Test
+    void itShouldKeepLikesForRetryWhenFlushFails() {
+        //given
+        given(transactionTemplate.execute(any())).willThrow(new IllegalStateException("database is down"));
+
+        //when
+        likeWriteBehindService.likePost(1L, 2L);
+        likeWriteBehindService.flush();
+
+        //then
+        assertEquals(1, likeWriteBehindService.getPendingCount());
+        assertEquals(1.0, meterRegistry.counter("likes.write_behind.flush.failures").count());
+        assertEquals(1L, meterRegistry.timer("likes.write_behind.flush").count());
+    }
+
+    @Test
+    void itShouldNotTouchDatabaseWhenNothingIsPending() {
+        //when
+        likeWriteBehindService.flush();
+
+        //then
+        verifyNoInteractions(transactionTemplate, jdbcTemplate);
+        assertEquals(0L, meterRegistry.timer("likes.write_behind.flush").count());
+    }
+
+    @Test
+    void itShouldFlushOnBackgroundThreadWhenMaxPendingIsReached() {
+        //given
+        likeWriteBehindService = likeWriteBehindService(2, 10);
+        AtomicReference<String> flushingThread = new AtomicReference<>();
+        given(transactionTemplate.execute(any())).willAnswer(invocation -> {
+            flushingThread.set(Thread.currentThread().getName());
+            throw new IllegalStateException("database is down");
+        });
+
+        //when
+        likeWriteBehindService.likePost(1L, 2L);
+        likeWriteBehindService.likePost(1L, 3L);
+
+        //then
+        verify(transactionTemplate, timeout(1000)).execute(any());
+        assertEquals("like-write-behind-flush", flushingThread.get());
+    }
+
+    @Test
+    void itShouldRejectNewLikesAboveRejectPendingCount() {
+        //given
+        likeWriteBehindService = likeWriteBehindService(10, 2);
+        likeWriteBehindService.likePost(1L, 2L);
+        likeWriteBehindService.likePost(1L, 3L);
+
+        //when
+        var exception = assertThrows(ResponseStatusException.class, () -> likeWriteBehindService.likePost(1L, 4L));
+        likeWriteBehindService.unlikePost(1L, 2L);
+
+        //then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(2, likeWriteBehindService.getPendingCount());
+        assertEquals(1.0, meterRegistry.counter("likes.write_behind.rejected").count());
+    }
+}
@@ -0,0 +1,55 @@
+package com.construction_worker_forum_back.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListCacheVersionServiceTest {
+
+    private ListCacheVersionService listCacheVersionService;
+
+    @BeforeEach
+    void setUp() {
+        listCacheVersionService = new ListCacheVersionService(new ConcurrentMapCacheManager(ListCacheVersionService.VERSIONS));
+    }
+
+    @Test
+    void itShouldKeepVersionUntilScopeIsBumped() {
+        //given
+        long initial = listCacheVersionService.topicPostsVersion(1L);
+
+        //when
+        long unchanged = listCacheVersionService.topicPostsVersion(1L);
+        listCacheVersionService.bumpTopicPosts(1L);
+        long bumped = listCacheVersionService.topicPostsVersion(1L);
+
+        //then
+        assertEquals(initial, unchanged);
+        assertTrue(bumped > initial);
+        assertEquals(listCacheVersionService.topicPostsVersion(2L), listCacheVersionService.topicPostsVersion(2L));
+    }
+
+    @Test
+    void itShouldBumpVersionOnlyAfterCommit() {
+        //given
+        long initial = listCacheVersionService.postCommentsVersion(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            //when
+            listCacheVersionService.bumpPostComments(1L);
+            long duringTransaction = listCacheVersionService.postCommentsVersion(1L);
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+            //then
+            assertEquals(initial, duringTransaction);
+            assertTrue(listCacheVersionService.postCommentsVersion(1L) > initial);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.client.NotificationCircuitBreaker;
+import com.construction_worker_forum_back.client.NotificationClient;
+import com.construction_worker_forum_back.model.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the dispatcher with a real client against a local stand-in of the notification service.
+ */
+class NotificationDispatchServiceTest {
+
+    private final List<String> receivedBatches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicReference<Duration> responseDelay = new AtomicReference<>(Duration.ZERO);
+    private DisposableServer notificationServer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        notificationServer = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/notification-service/bulk", (request, response) -> request.receive()
+                        .aggregate()
+                        .asString()
+                        .delayUntil(body -> Mono.delay(responseDelay.get()))
+                        .flatMap(body -> {
+                            requests.incrementAndGet();
+                            if (failuresLeft.getAndDecrement() > 0) {
+                                return response.status(503).send().then();
+                            }
+                            receivedBatches.add(body);
+                            return response.status(202).send().then();
+                        })))
+                .bindNow();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationServer.disposeNow();
+    }
+
+    private NotificationDispatchService newDispatcher(int capacity, int batchSize, int maxRetries) throws Exception {
+        return newDispatcher(capacity, batchSize, maxRetries, circuitBreaker(20, Duration.ofSeconds(1)), Duration.ZERO);
+    }
+
+    private NotificationCircuitBreaker circuitBreaker(int minimumCalls, Duration slowCallDuration) {
+        return new NotificationCircuitBreaker(
+                meterRegistry,
+                minimumCalls,
+                minimumCalls,
+                0.5,
+                slowCallDuration,
+                0.5,
+                Duration.ofMillis(200),
+                1
+        );
+    }
+
+    private NotificationDispatchService newDispatcher(
+            int capacity,
+            int batchSize,
+            int maxRetries,
+            NotificationCircuitBreaker circuitBreaker
+    ) throws Exception {
+        return newDispatcher(capacity, batchSize, maxRetries, circuitBreaker, Duration.ZERO);
+    }
+
+    private NotificationDispatchService newDispatcher(
+            int capacity,
+            int batchSize,
+            int maxRetries,
+            NotificationCircuitBreaker circuitBreaker,
+            Duration coalesceWindow
+    ) throws Exception {
+        NotificationClient notificationClient = new NotificationClient(
+                "http://localhost:" + notificationServer.port() + "/notification-service",
+                "/bulk",
+                2,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1)
+        );
+        return new NotificationDispatchService(
+                notificationClient,
+                circuitBreaker,
+                meterRegistry,
+                capacity,
+                100,
+                batchSize,
+                1,
+                maxRetries,
+                Duration.ofMillis(10),
+                Duration.ofMillis(50),
+                Duration.ofSeconds(5),
+                coalesceWindow,
+                100
+        );
+    }
+
+    private Notification notification(String recipientId) {
+        return Notification.of("obi", recipientId, "Liked yor post!", "/post/1", false);
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * A batch frees its in-flight slot only after its outcome was counted.
+     */
+    private void awaitNoBatchInFlight() throws InterruptedException {
+        await(() -> meterRegistry.get("notification.dispatch.in_flight").gauge().value() == 0);
+    }
+
+    @Test
+    void itShouldSendBufferedNotificationsInOneBatchAfterRetryingUnavailableService() throws Exception {
+        //given
+        failuresLeft.set(2);
+        NotificationDispatchService dispatcher = newDispatcher(100, 10, 3);
+        dispatcher.dispatch(notification("1"));
+        dispatcher.dispatch(notification("2"));
+        dispatcher.dispatch(notification("3"));
+
+        //when
+        dispatcher.flush();
+
+        //then
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 3.0);
+        assertEquals(1, receivedBatches.size());
+        assertTrue(receivedBatches.get(0).contains("\"recipientId\":\"3\""));
+        assertEquals(2.0, meterRegistry.counter("notification.dispatch.retried").count());
+        assertEquals(0, dispatcher.getQueuedCount());
+    }
+
+    @Test
+    void itShouldDropBatchAfterRetriesAreExhausted() throws Exception {
+        //given
+        failuresLeft.set(10);
+        NotificationDispatchService dispatcher = newDispatcher(100, 10, 1);
+        dispatcher.dispatch(notification("1"));
+
+        //when
+        dispatcher.flush();
+
+        //then
+        await(() -> meterRegistry.counter("notification.dispatch.dropped", "reason", "failed").count() == 1.0);
+        assertTrue(receivedBatches.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("notification.dispatch.retried").count());
+    }
+
+    @Test
+    void itShouldDropNotificationsOverBufferCapacity() throws Exception {
+        //given
+        NotificationDispatchService dispatcher = newDispatcher(2, 10, 0);
+
+        //when
+        dispatcher.dispatch(notification("1"));
+        dispatcher.dispatch(notification("2"));
+        dispatcher.dispatch(notification("3"));
+
+        //then
+        assertEquals(2, dispatcher.getQueuedCount());
+        assertEquals(1.0, meterRegistry.counter("notification.dispatch.dropped", "reason", "overflow").count());
+    }
+
+    @Test
+    void itShouldSpillWhileCircuitIsOpenAndSendSpilledNotificationsOnceServiceRecovered() throws Exception {
+        //given
+        failuresLeft.set(2);
+        NotificationCircuitBreaker circuitBreaker = circuitBreaker(2, Duration.ofSeconds(1));
+        NotificationDispatchService dispatcher = newDispatcher(100, 10, 3, circuitBreaker);
+        dispatcher.dispatch(notification("1"));
+        dispatcher.flush();
+        await(() -> dispatcher.getSpilledCount() == 1);
+        awaitNoBatchInFlight();
+
+        //when
+        dispatcher.dispatch(notification("2"));
+        dispatcher.flush();
+
+        //then
+        assertEquals(NotificationCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, dispatcher.getSpilledCount());
+        assertEquals(2, requests.get());
+        assertEquals(2.0, meterRegistry.counter("notification.circuit.short_circuited").count());
+
+        //when
+        Thread.sleep(250);
+        dispatcher.flush();
+
+        //then
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 2.0);
+        assertEquals(1, receivedBatches.size());
+        assertEquals(0, dispatcher.getSpilledCount());
+        assertEquals(NotificationCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(1.0, meterRegistry.counter("notification.circuit.transitions", "from", "HALF_OPEN", "to", "CLOSED").count());
+        assertEquals(0.0, meterRegistry.counter("notification.dispatch.dropped", "reason", "failed").count());
+    }
+
+    @Test
+    void itShouldOpenCircuitWhenServiceRespondsSlowly() throws Exception {
+        //given
+        responseDelay.set(Duration.ofMillis(200));
+        NotificationCircuitBreaker circuitBreaker = circuitBreaker(2, Duration.ofMillis(100));
+        NotificationDispatchService dispatcher = newDispatcher(100, 10, 0, circuitBreaker);
+        dispatcher.dispatch(notification("1"));
+        dispatcher.flush();
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 1.0);
+        awaitNoBatchInFlight();
+        dispatcher.dispatch(notification("2"));
+        dispatcher.flush();
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 2.0);
+        awaitNoBatchInFlight();
+
+        //when
+        dispatcher.dispatch(notification("3"));
+        dispatcher.flush();
+
+        //then
+        assertEquals(NotificationCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1, dispatcher.getSpilledCount());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void itShouldSendFirstNotificationOfBurstAtOnceAndMergeFollowingOnesWhenWindowCloses() throws Exception {
+        //given
+        NotificationDispatchService dispatcher = newDispatcher(100, 10, 0, circuitBreaker(20, Duration.ofSeconds(1)), Duration.ofMillis(200));
+        dispatcher.dispatch(Notification.of("obi", "1", "Liked yor post!", "/post/1", false));
+        dispatcher.dispatch(Notification.of("anakin", "1", "Liked yor post!", "/post/1", false));
+        dispatcher.dispatch(Notification.of("padme", "1", "Liked yor post!", "/post/1", false));
+        dispatcher.dispatch(Notification.of("anakin", "1", "Liked yor post!", "/post/1", false));
+        dispatcher.dispatch(Notification.of("luke", "1", "Liked yor post!", "/post/1", false));
+        dispatcher.dispatch(Notification.of("luke", "1", "Commented on your post!", "/post/1", false));
+
+        //when
+        dispatcher.flush();
+
+        //then
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 2.0);
+        awaitNoBatchInFlight();
+        assertEquals(1, receivedBatches.size());
+        assertTrue(receivedBatches.get(0).contains("\"senderName\":\"obi\""));
+        assertEquals(2.0, meterRegistry.get("notification.dispatch.bursts").gauge().value());
+
+        //when
+        Thread.sleep(250);
+        dispatcher.flush();
+
+        //then
+        await(() -> meterRegistry.counter("notification.dispatch.sent").count() == 3.0);
+        assertEquals(2, receivedBatches.size());
+        assertTrue(receivedBatches.get(1).contains("\"senderName\":\"luke and 2 others\""));
+        assertEquals(2.0, meterRegistry.counter("notification.dispatch.coalesced").count());
+        assertEquals(0.0, meterRegistry.get("notification.dispatch.bursts").gauge().value());
+    }
+
+    @Test
+    void itShouldSendNotificationsOneByOneWhenTooManyBurstsAreOpen() throws Exception {
+        //given
+        NotificationDispatchService dispatcher = newDispatcher(1000, 1000, 0, circuitBreaker(20, Duration.ofSeconds(1)), Duration.ofSeconds(30));
+        for (int i = 0; i < 100; i++) {
+            dispatcher.dispatch(notification(String.valueOf(i)));
+            dispatcher.dispatch(notification(String.valueOf(i)));
+        }
+
+        //when
+        dispatcher.dispatch(notification("100"));
+        dispatcher.dispatch(notification("100"));
+
+        //then
+        assertEquals(102, dispatcher.getQueuedCount());
+        assertEquals(100.0, meterRegistry.get("notification.dispatch.bursts").gauge().value());
+    }
+
+    @Test
+    void itShouldRetryOnlyTransientFailures() {
+        assertTrue(NotificationDispatchService.isRetryable(WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+        assertTrue(NotificationDispatchService.isRetryable(WebClientResponseException.create(429, "Too Many Requests", null, null, null)));
+        assertFalse(NotificationDispatchService.isRetryable(WebClientResponseException.create(400, "Bad Request", null, null, null)));
+    }
+}
@@ -1,15 +1,19 @@
 package com.construction_worker_forum_back.service;
 
-import com.construction_worker_forum_back.client.NotificationClient;
 import com.construction_worker_forum_back.model.dto.PostDto;
 import com.construction_worker_forum_back.model.dto.PostRequestDto;
+import com.construction_worker_forum_back.model.dto.PostSummaryDto;
 import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.dto.UserDto;
-import com.construction_worker_forum_back.model.dto.simple.TopicSimpleDto;
-import com.construction_worker_forum_back.model.entity.Keyword;
+import com.construction_worker_forum_back.model.dto.projection.PostListRow;
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.model.dto.projection.PostSearchRow;
+import com.construction_worker_forum_back.model.dto.simple.FollowerSimpleDto;
+import com.construction_worker_forum_back.model.dto.simple.LikerSimpleDto;
 import com.construction_worker_forum_back.model.entity.Post;
 import com.construction_worker_forum_back.model.entity.Topic;
 import com.construction_worker_forum_back.model.entity.User;
+import com.construction_worker_forum_back.model.security.AccountStatus;
 import com.construction_worker_forum_back.model.security.Role;
 import com.construction_worker_forum_back.repository.PostRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
@@ -20,10 +24,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 
@@ -45,9 +52,15 @@ public class PostServiceTest {
     @Mock
     private TopicService topicService;
     @Mock
-    private NotificationClient notificationClient;
+    private NotificationDispatchService notificationDispatchService;
     @Mock
     private UserService userService;
+    @Mock
+    private ReactionSetService reactionSetService;
+    @Mock
+    private ListCacheVersionService listCacheVersionService;
+    @Mock
+    private EntityCounterService entityCounterService;
     @InjectMocks
     private PostService postService;
 
@@ -82,7 +95,6 @@ public class PostServiceTest {
         given(topicService.findTopicById(topic.getId())).willReturn(Optional.of(topicDto));
         given(postRepository.findById(updatedId)).willReturn(Optional.of(post));
         doNothing().when(modelMapper).map(postRequestDto, post);
-        doNothing().when(modelMapper).map(postRequestDto, topicDto);
 
         //when
         postService.updatePostById(updatedId, postRequestDto);
@@ -90,6 +102,7 @@ public class PostServiceTest {
         //then
         verify(postRepository, atLeastOnce()).findById(any());
         verify(modelMapper, atLeastOnce()).map(any(), any());
+        verify(modelMapper, never()).map(postRequestDto, topicDto);
     }
 
     @Test
@@ -133,10 +146,8 @@ public class PostServiceTest {
     @Test
     void itShouldGetAllPosts() {
         //given
-        Post post = new Post();
-        List<Post> postList = new ArrayList<>(List.of(post));
-        given(modelMapper.map(post, PostDto.class)).willReturn(new PostDto());
-        given(postRepository.findAll()).willReturn(postList);
+        PostListRow row = postListRow(1L, "foo1", "test description 1", 1L);
+        given(postRepository.findAllPostListRows()).willReturn(List.of(row));
 
         //when
         var expected = postService.getAllPosts();
@@ -144,7 +155,8 @@ public class PostServiceTest {
         //then
         assertTrue(expected.size() > 0);
 
-        verify(postRepository, atLeastOnce()).findAll();
+        verify(postRepository, atLeastOnce()).findAllPostListRows();
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
     }
 
     @Test
@@ -202,45 +214,132 @@ public class PostServiceTest {
         verify(postRepository, atLeastOnce()).findById(anyLong());
     }
 
+    @Test
+    void itShouldGetPageOfPostLikers() {
+        //given
+        var likers = new PageImpl<>(List.of(new LikerSimpleDto(2L, "obi")), PageRequest.of(1, 1), 2);
+        given(postRepository.findLikersOfPost(1L, PageRequest.of(1, 1))).willReturn(likers);
+
+        //when
+        var expected = postService.getPageOfPostLikers(1L, 1, 2);
+
+        //then
+        assertEquals(2, expected.getTotalElements());
+        assertEquals("obi", expected.getContent().get(0).getUsername());
+        verify(postRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void itShouldGetPageOfPostFollowers() {
+        //given
+        var followers = new PageImpl<>(List.of(new FollowerSimpleDto(2L, "obi")), PageRequest.of(0, 10), 1);
+        given(postRepository.findFollowersOfPost(1L, PageRequest.of(0, 10))).willReturn(followers);
+
+        //when
+        var expected = postService.getPageOfPostFollowers(1L, 10, 1);
+
+        //then
+        assertEquals(1, expected.getTotalElements());
+        assertEquals(2L, expected.getContent().get(0).getId());
+        verify(postRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void itShouldFindSummaryById() {
+        //given
+        PostSummaryDto summary = PostSummaryDto.builder().id(1L).title("foo").likeCount(3L).build();
+        given(postRepository.findPostSummaryById(1L)).willReturn(Optional.of(summary));
+
+        //when
+        var expected = postService.findSummaryById(1L);
+
+        //then
+        assertTrue(expected.isPresent());
+        assertEquals(3L, expected.get().getLikeCount());
+        verify(postRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void itShouldGetPageOfPostSummariesByTopicIdNewestFirst() {
+        //given
+        Pageable newestFirst = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        PostSummaryDto summary = PostSummaryDto.builder().id(1L).topicId(1L).build();
+        given(postRepository.findPostSummariesByTopicId(1L, newestFirst)).willReturn(new PageImpl<>(List.of(summary)));
+
+        //when
+        var expected = postService.getPageOfPostSummariesByTopicId(1L, 5, 1);
+
+        //then
+        assertEquals(1, expected.getContent().size());
+        verify(postRepository).findPostSummariesByTopicId(1L, newestFirst);
+    }
+
     @Test
     void itShouldGetPostByTopicId() {
         //given
-        Post post = new Post();
-        post.setId(1L);
-        Topic topic = new Topic();
-        topic.setId(1L);
-        post.setTopic(topic);
-        List<Post> postList = new ArrayList<>(List.of(post));
-        given(postRepository.findByTopic_Id(post.getTopic().getId())).willReturn(postList);
+        PostListRow row = postListRow(1L, "foo1", "test description 1", 1L);
+        given(postRepository.findPostListRowsByTopicId(row.getTopicId(), Pageable.unpaged())).willReturn(List.of(row));
 
         //when
-        var expected = postService.getPostsByTopicId(post.getTopic().getId(), Optional.empty(), Optional.empty(), Optional.empty(), Collections.emptyList());
+        var expected = postService.getPostsByTopicId(row.getTopicId(), Optional.empty(), Optional.empty(), Optional.empty(), Collections.emptyList());
 
         //then
         assertTrue(expected.size() > 0);
 
-        verify(postRepository, atLeastOnce()).findByTopic_Id(anyLong());
+        verify(postRepository, atLeastOnce()).findPostListRowsByTopicId(anyLong(), any(Pageable.class));
     }
 
     @Test
     void itShouldFindPostByContentOrTitle() {
         //given
-        Post post = new Post();
-        post.setTitle("test");
-        post.setContent("test");
-        List<Post> postList = new ArrayList<>(List.of(post));
-        given(postRepository.findByTitleContainsIgnoreCaseOrContentContainsIgnoreCase(
-                post.getTitle(),
-                post.getContent()))
-                .willReturn(postList);
+        PostSearchRow hit = mock(PostSearchRow.class);
+        given(hit.getId()).willReturn(1L);
+        PostListRow row = postListRow(1L, "test", "test", 1L);
+        given(postRepository.searchByTitleOrContent("test*", PageRequest.of(0, PostService.DEFAULT_SEARCH_LIMIT)))
+                .willReturn(new PageImpl<>(List.of(hit)));
+        given(postRepository.findPostListRowsByIds(List.of(1L))).willReturn(List.of(row));
 
         //when
-        var expected = postService.findPostByContentOrTitle(post.getTitle());
+        var expected = postService.findPostByContentOrTitle("Test", Optional.empty(), Optional.empty());
 
         //then
-        assertTrue(expected.size() > 0);
+        assertEquals(1, expected.size());
+        assertEquals("test", expected.get(0).getTitle());
 
-        verify(postRepository, atLeastOnce()).findByTitleContainsIgnoreCaseOrContentContainsIgnoreCase(anyString(), anyString());
+        verify(postRepository, atLeastOnce()).searchByTitleOrContent(anyString(), any(Pageable.class));
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+    }
+
+    @Test
+    void itShouldHighlightSearchHits() {
+        //given
+        PostSearchRow hit = mock(PostSearchRow.class);
+        given(hit.getId()).willReturn(1L);
+        given(hit.getTitle()).willReturn("Concrete <mixing>");
+        given(hit.getContent()).willReturn("How long should concrete cure?");
+        given(hit.getCreatedAt()).willReturn(new Date());
+        given(hit.getScore()).willReturn(1.5);
+        given(postRepository.searchByTitleOrContent("concr* cure*", PageRequest.of(0, 10)))
+                .willReturn(new PageImpl<>(List.of(hit)));
+
+        //when
+        var expected = postService.searchPostsWithHighlights("concr, cure", 10, 1).getContent();
+
+        //then
+        assertEquals(1, expected.size());
+        assertEquals("<mark>Concrete</mark> &lt;mixing&gt;", expected.get(0).getHighlightedTitle());
+        assertEquals("How long should <mark>concrete</mark> <mark>cure</mark>?", expected.get(0).getHighlightedContent());
+    }
+
+    @Test
+    void itShouldNotQueryIndexForBlankSearch() {
+        //when
+        var expected = postService.findPostByContentOrTitle(" ,. ", Optional.empty(), Optional.empty());
+
+        //then
+        assertTrue(expected.isEmpty());
+
+        verify(postRepository, never()).searchByTitleOrContent(anyString(), any(Pageable.class));
     }
 
     @Test
@@ -260,6 +359,7 @@ public class PostServiceTest {
         //then
         verify(postRepository, atLeastOnce()).findById(anyLong());
         verify(userRepository, atLeastOnce()).findById(anyLong());
+        verify(entityCounterService, never()).changePostLikeCount(anyLong(), anyLong());
     }
 
     @Test
@@ -281,6 +381,90 @@ public class PostServiceTest {
         verify(userRepository, atLeastOnce()).findById(anyLong());
     }
 
+    @Test
+    void itShouldDecrementLikeCountWhenUnlikingLikedPost() {
+        //given
+        Post post = new Post();
+        post.setId(1L);
+        post.setLikeCount(2L);
+        User user = new User();
+        user.setId(1L);
+        given(postRepository.findById(post.getId())).willReturn(Optional.of(post));
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(reactionSetService.removePostLiker(post.getId(), user.getId())).willReturn(Optional.of(true));
+        given(entityCounterService.changePostLikeCount(post.getId(), -1)).willReturn(1);
+
+        //when
+        var expected = postService.unlikePost(post.getId(), user.getId());
+
+        //then
+        assertFalse(expected.getLiked());
+        assertEquals(1L, expected.getLikeCount());
+        verify(entityCounterService).changePostLikeCount(post.getId(), -1);
+    }
+
+    @Test
+    void itShouldNotDecrementLikeCountBelowZero() {
+        //given
+        Post post = new Post();
+        post.setId(1L);
+        User user = new User();
+        user.setId(1L);
+        given(postRepository.findById(post.getId())).willReturn(Optional.of(post));
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(reactionSetService.removePostLiker(post.getId(), user.getId())).willReturn(Optional.of(true));
+        given(entityCounterService.changePostLikeCount(post.getId(), -1)).willReturn(0);
+
+        //when
+        var expected = postService.unlikePost(post.getId(), user.getId());
+
+        //then
+        assertEquals(0L, expected.getLikeCount());
+        assertEquals(Long.valueOf(0L), post.getLikeCount());
+    }
+
+    @Test
+    void itShouldDecrementFollowerCountWhenUnfollowingFollowedPost() {
+        //given
+        Post post = new Post();
+        post.setId(1L);
+        post.setFollowerCount(1L);
+        User user = new User();
+        user.setId(1L);
+        given(postRepository.findById(post.getId())).willReturn(Optional.of(post));
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(reactionSetService.removePostFollower(post.getId(), user.getId())).willReturn(Optional.of(true));
+        given(entityCounterService.changePostFollowerCount(post.getId(), -1)).willReturn(1);
+
+        //when
+        var expected = postService.unfollowPost(post.getId(), user.getId());
+
+        //then
+        assertFalse(expected.getFollowed());
+        assertEquals(0L, expected.getFollowerCount());
+        verify(entityCounterService).changePostFollowerCount(post.getId(), -1);
+    }
+
+    @Test
+    void itShouldNotDecrementFollowerCountBelowZero() {
+        //given
+        Post post = new Post();
+        post.setId(1L);
+        User user = new User();
+        user.setId(1L);
+        given(postRepository.findById(post.getId())).willReturn(Optional.of(post));
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(reactionSetService.removePostFollower(post.getId(), user.getId())).willReturn(Optional.of(true));
+        given(entityCounterService.changePostFollowerCount(post.getId(), -1)).willReturn(0);
+
+        //when
+        var expected = postService.unfollowPost(post.getId(), user.getId());
+
+        //then
+        assertEquals(0L, expected.getFollowerCount());
+        assertEquals(Long.valueOf(0L), post.getFollowerCount());
+    }
+
     @Test
     void itShouldLikePost() {
         //given
@@ -293,11 +477,57 @@ public class PostServiceTest {
         given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
 
         //when
-        postService.likePost(post.getId(), user.getId());
+        var expected = postService.likePost(post.getId(), user.getId());
 
         //then
+        assertEquals(Long.valueOf(1L), post.getLikeCount());
+        assertTrue(expected.getLiked());
+        assertEquals(1L, expected.getLikeCount());
+        verify(modelMapper, never()).map(any(Post.class), eq(PostDto.class));
         verify(postRepository, atLeastOnce()).findById(anyLong());
         verify(userRepository, atLeastOnce()).findById(anyLong());
+        verify(entityCounterService).changePostLikeCount(post.getId(), 1);
+    }
+
+    @Test
+    void itShouldRejectDuplicateLikeUsingReactionSet() {
+        //given
+        Post post = mock(Post.class);
+        User user = new User();
+        user.setId(1L);
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(reactionSetService.addPostLiker(1L, user.getId())).willReturn(Optional.of(false));
+
+        //when
+        var exception = assertThrows(ResponseStatusException.class, () -> postService.likePost(1L, user.getId()));
+
+        //then
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        verify(post, never()).getLikers();
+        verify(entityCounterService, never()).changePostLikeCount(anyLong(), anyLong());
+    }
+
+    @Test
+    void itShouldAnswerReactionStatesFromDatabaseWhenReactionSetsAreUnavailable() {
+        //given
+        given(reactionSetService.getPostReactionStates(1L, List.of(1L, 2L))).willReturn(Optional.empty());
+        given(postRepository.findLikersOfPosts(List.of(1L, 2L))).willReturn(List.of(
+                new PostRelationRow(1L, 1L, "me"),
+                new PostRelationRow(1L, 2L, "other"),
+                new PostRelationRow(2L, 2L, "other")));
+        given(postRepository.findFollowersOfPosts(List.of(1L, 2L))).willReturn(List.of(new PostRelationRow(2L, 1L, "me")));
+
+        //when
+        var expected = postService.getPostReactionStates(1L, List.of(1L, 2L));
+
+        //then
+        assertTrue(expected.get(0).getLiked());
+        assertEquals(2, expected.get(0).getLikeCount());
+        assertFalse(expected.get(0).getFollowed());
+        assertFalse(expected.get(1).getLiked());
+        assertTrue(expected.get(1).getFollowed());
+        assertEquals(1, expected.get(1).getFollowerCount());
     }
 
     @Test
@@ -312,11 +542,16 @@ public class PostServiceTest {
         given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
 
         //when
-        postService.followPost(post.getId(), user.getId());
+        var expected = postService.followPost(post.getId(), user.getId());
 
         //then
+        assertEquals(Long.valueOf(1L), post.getFollowerCount());
+        assertTrue(expected.getFollowed());
+        assertEquals(1L, expected.getFollowerCount());
+        verify(modelMapper, never()).map(any(Post.class), eq(PostDto.class));
         verify(postRepository, atLeastOnce()).findById(anyLong());
         verify(userRepository, atLeastOnce()).findById(anyLong());
+        verify(entityCounterService).changePostFollowerCount(post.getId(), 1);
     }
 
     @Test
@@ -353,507 +588,222 @@ public class PostServiceTest {
     @Test
     void itShouldFindPaginatedNumberOfPosts() {
         //Given
-        Topic topic = Topic.builder()
-                .id(1L)
-                .build();
-
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 4")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 5")
-                        .topic(topic)
-                        .build()
+        List<PostListRow> rows = new ArrayList<>(List.of(
+                postListRow(1L, "foo1", "test description 1", 1L),
+                postListRow(2L, "foo1", "test description 2", 1L),
+                postListRow(3L, "foo1", "test description 3", 1L),
+                postListRow(4L, "foo1", "test description 4", 1L),
+                postListRow(5L, "foo1", "test description 5", 1L)
         ));
+        List<Long> postIds = List.of(1L, 2L, 3L, 4L, 5L);
 
         Pageable pageable = PageRequest.of(0, 5);
 
-        List<PostDto> postsDtos = new ArrayList<>(List.of(
-                PostDto.builder()
-                        .title(posts.get(0).getTitle())
-                        .content(posts.get(0).getContent())
-                        .topic(modelMapper.map(posts.get(0).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(1).getTitle())
-                        .content(posts.get(1).getContent())
-                        .topic(modelMapper.map(posts.get(1).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(2).getTitle())
-                        .content(posts.get(2).getContent())
-                        .topic(modelMapper.map(posts.get(2).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(3).getTitle())
-                        .content(posts.get(3).getContent())
-                        .topic(modelMapper.map(posts.get(3).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(4).getTitle())
-                        .content(posts.get(4).getContent())
-                        .topic(modelMapper.map(posts.get(4).getTopic(), TopicSimpleDto.class))
-                        .build()
+        given(postRepository.findPostListRowsByTopicId(1L, pageable)).willReturn(rows);
+        given(postRepository.findLikersOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(1L, 10L, "liker"),
+                new PostRelationRow(2L, 10L, "liker")
+        ));
+        given(postRepository.findKeywordsOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(3L, 20L, "test1")
         ));
-
-        given(modelMapper.map(posts.get(0), PostDto.class)).willReturn(postsDtos.get(0));
-        given(modelMapper.map(posts.get(1), PostDto.class)).willReturn(postsDtos.get(1));
-        given(modelMapper.map(posts.get(2), PostDto.class)).willReturn(postsDtos.get(2));
-        given(modelMapper.map(posts.get(3), PostDto.class)).willReturn(postsDtos.get(3));
-        given(modelMapper.map(posts.get(4), PostDto.class)).willReturn(postsDtos.get(4));
-        given(postRepository.findAllPaginatedByTopic_Id(1L, pageable)).willReturn(posts);
 
         //When
         var expected = postService.getListOfPostsByPageableObject(1L, pageable);
 
         //Then
-        assertEquals(expected, postsDtos);
-        assertTrue(postsDtos.size() > 0);
         assertNotNull(expected);
-
-        verify(modelMapper, atLeastOnce()).map(posts.get(0), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(1), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(2), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(3), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(4), PostDto.class);
-        verify(postRepository, only()).findAllPaginatedByTopic_Id(1L, pageable);
+        assertEquals(rows.size(), expected.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getId(), expected.get(i).getId());
+            assertEquals(rows.get(i).getContent(), expected.get(i).getContent());
+            assertEquals(rows.get(i).getTopicId(), expected.get(i).getTopic().getId());
+            assertEquals(rows.get(i).getUserId(), expected.get(i).getUser().getId());
+        }
+        assertEquals(1, expected.get(0).getLikers().size());
+        assertEquals(Long.valueOf(1L), expected.get(0).getLikersQuantity());
+        assertTrue(expected.get(2).getLikers().isEmpty());
+        assertEquals("test1", expected.get(2).getKeywords().iterator().next().getName());
+
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+        verify(postRepository, times(1)).findPostListRowsByTopicId(1L, pageable);
+        verify(postRepository, times(1)).findLikersOfPosts(postIds);
+        verify(postRepository, times(1)).findFollowersOfPosts(postIds);
+        verify(postRepository, times(1)).findKeywordsOfPosts(postIds);
+        verify(postRepository, times(1)).findCommentsOfPosts(postIds);
     }
 
     @Test
     void itShouldFindPaginatedAndFilteredByKeywordsNumberOfPosts() {
         //Given
-        Topic topic = Topic.builder()
-                .id(1L)
-                .build();
-
-        Set<Keyword> keywords = new HashSet<>(List.of(
-            Keyword.builder()
-                    .name("test1")
-                    .build(),
-            Keyword.builder()
-                    .name("test2")
-                    .build()
+        List<String> keywordsNames = List.of("test1", "test2");
+        List<Long> postIds = List.of(3L, 1L, 2L);
+        Pageable pageable = PageRequest.of(0, 5);
+        given(postRepository.findPostIdsByTopicIdHavingAllKeywords(1L, new HashSet<>(keywordsNames), keywordsNames.size(), pageable))
+                .willReturn(new PageImpl<>(postIds, pageable, 7));
+        given(postRepository.findPostListRowsByIds(postIds)).willReturn(List.of(
+                postListRow(1L, "foo1", "test description 1", 1L),
+                postListRow(2L, "foo2", "test description 2", 1L),
+                postListRow(3L, "foo3", "test description 3", 1L)
         ));
 
-        List<String> keywordsNames = keywords.stream().map(Keyword::getName).toList();
-
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 4")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 5")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build()
-        ));
+        //When
+        var expected = postService.getPaginatedAndFilteredByKeywords(1L, 5, 1, keywordsNames);
 
-        List<PostDto> postsDtos = new ArrayList<>(List.of(
-                PostDto.builder()
-                        .title(posts.get(0).getTitle())
-                        .content(posts.get(0).getContent())
-                        .topic(modelMapper.map(posts.get(0).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(1).getTitle())
-                        .content(posts.get(1).getContent())
-                        .topic(modelMapper.map(posts.get(1).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(2).getTitle())
-                        .content(posts.get(2).getContent())
-                        .topic(modelMapper.map(posts.get(2).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(3).getTitle())
-                        .content(posts.get(3).getContent())
-                        .topic(modelMapper.map(posts.get(3).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(4).getTitle())
-                        .content(posts.get(4).getContent())
-                        .topic(modelMapper.map(posts.get(4).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build()
-        ));
+        //Then
+        assertNotNull(expected);
+        assertEquals(postIds, expected.stream().map(PostDto::getId).toList());
+        assertEquals("test description 3", expected.get(0).getContent());
 
-        given(modelMapper.map(posts.get(0), PostDto.class)).willReturn(postsDtos.get(0));
-        given(modelMapper.map(posts.get(1), PostDto.class)).willReturn(postsDtos.get(1));
-        given(modelMapper.map(posts.get(2), PostDto.class)).willReturn(postsDtos.get(2));
-        given(modelMapper.map(posts.get(3), PostDto.class)).willReturn(postsDtos.get(3));
-        given(modelMapper.map(posts.get(4), PostDto.class)).willReturn(postsDtos.get(4));
-        given(postRepository.findAllPostsByTopicIdAndKeywords(1L, new HashSet<>(keywordsNames))).willReturn(posts);
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+        verify(postRepository, times(1)).findPostIdsByTopicIdHavingAllKeywords(1L, new HashSet<>(keywordsNames), keywordsNames.size(), pageable);
+        verify(postRepository, times(1)).findPostListRowsByIds(postIds);
+    }
+
+    @Test
+    void itShouldCountAllPostsOfTopicWhenNoKeywordsAreGiven() {
+        //Given
+        Pageable pageable = PageRequest.of(1, 2);
+        given(postRepository.findPostIdPageByTopicId(1L, pageable)).willReturn(new PageImpl<>(List.of(3L), pageable, 3));
+        given(postRepository.findPostListRowsByIds(List.of(3L))).willReturn(List.of(postListRow(3L, "foo3", "test description 3", 1L)));
 
         //When
-        var expected = postService.getPaginatedAndFilteredByKeywords(1L, 5, 1, keywordsNames);
+        var expected = postService.getPageOfPostsHavingAllKeywords(1L, Collections.emptyList(), pageable);
 
         //Then
-        assertEquals(expected, postsDtos);
-        assertTrue(postsDtos.size() > 0);
-        assertNotNull(expected);
+        assertEquals(3, expected.getTotalElements());
+        assertEquals(1, expected.getNumberOfElements());
+        assertEquals(3L, expected.getContent().get(0).getId());
 
-        verify(modelMapper, atLeastOnce()).map(posts.get(0), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(1), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(2), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(3), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(4), PostDto.class);
-        verify(postRepository, only()).findAllPostsByTopicIdAndKeywords(1L, new HashSet<>(keywordsNames));
+        verify(postRepository, never()).findPostIdsByTopicIdHavingAllKeywords(anyLong(), anySet(), anyLong(), any(Pageable.class));
     }
 
     @Test
     void itShouldFindPaginatedAndSortedAscendingNumberOfPosts() {
         //Given
-        Topic topic = Topic.builder()
-                .id(1L)
-                .build();
-
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 4")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 5")
-                        .topic(topic)
-                        .build()
+        List<PostListRow> rows = new ArrayList<>(List.of(
+                postListRow(1L, "foo1", "test description 1", 1L),
+                postListRow(2L, "foo1", "test description 2", 1L),
+                postListRow(3L, "foo1", "test description 3", 1L),
+                postListRow(4L, "foo1", "test description 4", 1L),
+                postListRow(5L, "foo1", "test description 5", 1L)
         ));
+        List<Long> postIds = List.of(1L, 2L, 3L, 4L, 5L);
 
         Pageable pageable = PageRequest.of(0, 5, Sort.by("title").ascending());
 
-        List<PostDto> postsDtos = new ArrayList<>(List.of(
-                PostDto.builder()
-                        .title(posts.get(0).getTitle())
-                        .content(posts.get(0).getContent())
-                        .topic(modelMapper.map(posts.get(0).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(1).getTitle())
-                        .content(posts.get(1).getContent())
-                        .topic(modelMapper.map(posts.get(1).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(2).getTitle())
-                        .content(posts.get(2).getContent())
-                        .topic(modelMapper.map(posts.get(2).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(3).getTitle())
-                        .content(posts.get(3).getContent())
-                        .topic(modelMapper.map(posts.get(3).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(4).getTitle())
-                        .content(posts.get(4).getContent())
-                        .topic(modelMapper.map(posts.get(4).getTopic(), TopicSimpleDto.class))
-                        .build()
+        given(postRepository.findPostListRowsByTopicId(1L, pageable)).willReturn(rows);
+        given(postRepository.findLikersOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(1L, 10L, "liker"),
+                new PostRelationRow(2L, 10L, "liker")
+        ));
+        given(postRepository.findKeywordsOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(3L, 20L, "test1")
         ));
-
-        given(modelMapper.map(posts.get(0), PostDto.class)).willReturn(postsDtos.get(0));
-        given(modelMapper.map(posts.get(1), PostDto.class)).willReturn(postsDtos.get(1));
-        given(modelMapper.map(posts.get(2), PostDto.class)).willReturn(postsDtos.get(2));
-        given(modelMapper.map(posts.get(3), PostDto.class)).willReturn(postsDtos.get(3));
-        given(modelMapper.map(posts.get(4), PostDto.class)).willReturn(postsDtos.get(4));
-        given(postRepository.findAllPaginatedByTopic_Id(1L, pageable)).willReturn(posts);
 
         //When
         var expected = postService.getListOfPostsByPageableObject(1L, pageable);
 
         //Then
-        assertEquals(expected, postsDtos);
-        assertTrue(postsDtos.size() > 0);
         assertNotNull(expected);
-
-        verify(modelMapper, atLeastOnce()).map(posts.get(0), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(1), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(2), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(3), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(4), PostDto.class);
-        verify(postRepository, only()).findAllPaginatedByTopic_Id(1L, pageable);
+        assertEquals(rows.size(), expected.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getId(), expected.get(i).getId());
+            assertEquals(rows.get(i).getContent(), expected.get(i).getContent());
+            assertEquals(rows.get(i).getTopicId(), expected.get(i).getTopic().getId());
+            assertEquals(rows.get(i).getUserId(), expected.get(i).getUser().getId());
+        }
+        assertEquals(1, expected.get(0).getLikers().size());
+        assertEquals(Long.valueOf(1L), expected.get(0).getLikersQuantity());
+        assertTrue(expected.get(2).getLikers().isEmpty());
+        assertEquals("test1", expected.get(2).getKeywords().iterator().next().getName());
+
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+        verify(postRepository, times(1)).findPostListRowsByTopicId(1L, pageable);
+        verify(postRepository, times(1)).findLikersOfPosts(postIds);
+        verify(postRepository, times(1)).findFollowersOfPosts(postIds);
+        verify(postRepository, times(1)).findKeywordsOfPosts(postIds);
+        verify(postRepository, times(1)).findCommentsOfPosts(postIds);
     }
 
     @Test
     void itShouldFindPaginatedAndSortedDescendingNumberOfPosts() {
         //Given
-        Topic topic = Topic.builder()
-                .id(1L)
-                .build();
-
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 4")
-                        .topic(topic)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 5")
-                        .topic(topic)
-                        .build()
+        List<PostListRow> rows = new ArrayList<>(List.of(
+                postListRow(1L, "foo1", "test description 1", 1L),
+                postListRow(2L, "foo1", "test description 2", 1L),
+                postListRow(3L, "foo1", "test description 3", 1L),
+                postListRow(4L, "foo1", "test description 4", 1L),
+                postListRow(5L, "foo1", "test description 5", 1L)
         ));
+        List<Long> postIds = List.of(1L, 2L, 3L, 4L, 5L);
 
         Pageable pageable = PageRequest.of(0, 5, Sort.by("title").descending());
 
-        List<PostDto> postsDtos = new ArrayList<>(List.of(
-                PostDto.builder()
-                        .title(posts.get(0).getTitle())
-                        .content(posts.get(0).getContent())
-                        .topic(modelMapper.map(posts.get(0).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(1).getTitle())
-                        .content(posts.get(1).getContent())
-                        .topic(modelMapper.map(posts.get(1).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(2).getTitle())
-                        .content(posts.get(2).getContent())
-                        .topic(modelMapper.map(posts.get(2).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(3).getTitle())
-                        .content(posts.get(3).getContent())
-                        .topic(modelMapper.map(posts.get(3).getTopic(), TopicSimpleDto.class))
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(4).getTitle())
-                        .content(posts.get(4).getContent())
-                        .topic(modelMapper.map(posts.get(4).getTopic(), TopicSimpleDto.class))
-                        .build()
+        given(postRepository.findPostListRowsByTopicId(1L, pageable)).willReturn(rows);
+        given(postRepository.findLikersOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(1L, 10L, "liker"),
+                new PostRelationRow(2L, 10L, "liker")
+        ));
+        given(postRepository.findKeywordsOfPosts(postIds)).willReturn(List.of(
+                new PostRelationRow(3L, 20L, "test1")
         ));
-
-        given(modelMapper.map(posts.get(0), PostDto.class)).willReturn(postsDtos.get(0));
-        given(modelMapper.map(posts.get(1), PostDto.class)).willReturn(postsDtos.get(1));
-        given(modelMapper.map(posts.get(2), PostDto.class)).willReturn(postsDtos.get(2));
-        given(modelMapper.map(posts.get(3), PostDto.class)).willReturn(postsDtos.get(3));
-        given(modelMapper.map(posts.get(4), PostDto.class)).willReturn(postsDtos.get(4));
-        given(postRepository.findAllPaginatedByTopic_Id(1L, pageable)).willReturn(posts);
 
         //When
         var expected = postService.getListOfPostsByPageableObject(1L, pageable);
 
         //Then
-        assertEquals(expected, postsDtos);
-        assertTrue(postsDtos.size() > 0);
         assertNotNull(expected);
-
-        verify(modelMapper, atLeastOnce()).map(posts.get(0), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(1), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(2), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(3), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(4), PostDto.class);
-        verify(postRepository, only()).findAllPaginatedByTopic_Id(1L, pageable);
+        assertEquals(rows.size(), expected.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getId(), expected.get(i).getId());
+            assertEquals(rows.get(i).getContent(), expected.get(i).getContent());
+            assertEquals(rows.get(i).getTopicId(), expected.get(i).getTopic().getId());
+            assertEquals(rows.get(i).getUserId(), expected.get(i).getUser().getId());
+        }
+        assertEquals(1, expected.get(0).getLikers().size());
+        assertEquals(Long.valueOf(1L), expected.get(0).getLikersQuantity());
+        assertTrue(expected.get(2).getLikers().isEmpty());
+        assertEquals("test1", expected.get(2).getKeywords().iterator().next().getName());
+
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+        verify(postRepository, times(1)).findPostListRowsByTopicId(1L, pageable);
+        verify(postRepository, times(1)).findLikersOfPosts(postIds);
+        verify(postRepository, times(1)).findFollowersOfPosts(postIds);
+        verify(postRepository, times(1)).findKeywordsOfPosts(postIds);
+        verify(postRepository, times(1)).findCommentsOfPosts(postIds);
     }
 
     @Test
     void itShouldFindPaginatedAndSortedAscendingAndFilteredNumberOfPosts() {
         //Given
-        Topic topic = Topic.builder()
-                .id(1L)
-                .build();
-
-        Set<Keyword> keywords = new HashSet<>(List.of(
-                Keyword.builder()
-                        .name("test1")
-                        .build(),
-                Keyword.builder()
-                        .name("test2")
-                        .build()
-        ));
-
-        List<String> keywordsNames = keywords.stream().map(Keyword::getName).toList();
-
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 4")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 5")
-                        .topic(topic)
-                        .keywords(keywords)
-                        .build()
-        ));
-
-        List<PostDto> postsDtos = new ArrayList<>(List.of(
-                PostDto.builder()
-                        .title(posts.get(0).getTitle())
-                        .content(posts.get(0).getContent())
-                        .topic(modelMapper.map(posts.get(0).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(1).getTitle())
-                        .content(posts.get(1).getContent())
-                        .topic(modelMapper.map(posts.get(1).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(2).getTitle())
-                        .content(posts.get(2).getContent())
-                        .topic(modelMapper.map(posts.get(2).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(3).getTitle())
-                        .content(posts.get(3).getContent())
-                        .topic(modelMapper.map(posts.get(3).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build(),
-                PostDto.builder()
-                        .title(posts.get(4).getTitle())
-                        .content(posts.get(4).getContent())
-                        .topic(modelMapper.map(posts.get(4).getTopic(), TopicSimpleDto.class))
-                        .keywords(keywords)
-                        .build()
+        List<String> keywordsNames = List.of("test1", "test2");
+        List<Long> postIds = List.of(1L, 2L);
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("content").ascending());
+        given(postRepository.findPostIdsByTopicIdHavingAllKeywords(1L, new HashSet<>(keywordsNames), keywordsNames.size(), pageable))
+                .willReturn(new PageImpl<>(postIds, pageable, postIds.size()));
+        given(postRepository.findPostListRowsByIds(postIds)).willReturn(List.of(
+                postListRow(2L, "foo2", "test description 2", 1L),
+                postListRow(1L, "foo1", "test description 1", 1L)
         ));
 
-        Sort sortTopicsAscending = Sort.by(Sort.Direction.ASC, "content");
-
-        given(modelMapper.map(posts.get(0), PostDto.class)).willReturn(postsDtos.get(0));
-        given(modelMapper.map(posts.get(1), PostDto.class)).willReturn(postsDtos.get(1));
-        given(modelMapper.map(posts.get(2), PostDto.class)).willReturn(postsDtos.get(2));
-        given(modelMapper.map(posts.get(3), PostDto.class)).willReturn(postsDtos.get(3));
-        given(modelMapper.map(posts.get(4), PostDto.class)).willReturn(postsDtos.get(4));
-        given(postRepository.findAllSortedPostsByTopicIdAndKeywords(1L, new HashSet<>(keywordsNames), sortTopicsAscending)).willReturn(posts);
-
         //When
         var expected = postService.getPaginatedAndSortedAndFilteredPosts(1L, 5, 1, "content.asc", keywordsNames);
 
         //Then
-        assertEquals(expected, postsDtos);
-        assertTrue(postsDtos.size() > 0);
-        assertNotNull(expected);
+        assertEquals(postIds, expected.stream().map(PostDto::getId).toList());
+        assertEquals("test description 1", expected.get(0).getContent());
 
-        verify(modelMapper, atLeastOnce()).map(posts.get(0), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(1), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(2), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(3), PostDto.class);
-        verify(modelMapper, atLeastOnce()).map(posts.get(4), PostDto.class);
-        verify(postRepository, only()).findAllSortedPostsByTopicIdAndKeywords(1L, new HashSet<>(keywordsNames), sortTopicsAscending);
+        verify(modelMapper, never()).map(any(), eq(PostDto.class));
+        verify(postRepository, times(1)).findPostIdsByTopicIdHavingAllKeywords(1L, new HashSet<>(keywordsNames), keywordsNames.size(), pageable);
     }
 
-    @Test
-    void itShouldPaginatedList() {
-        //Given
-        List<Post> posts = new ArrayList<>(List.of(
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 1")
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 2")
-                        .build(),
-                Post.builder()
-                        .title("foo1")
-                        .content("test description 3")
-                        .build()
-        ));
-
-        //When
-        var expected = postService.getPage(posts, 1, 3);
-
-        //Then
-        assertEquals(expected, posts);
-        assertEquals(3, posts.size());
-        assertNotNull(expected);
+    private PostListRow postListRow(Long id, String title, String content, Long topicId) {
+        return new PostListRow(
+                id, title, content, new Date(), null,
+                1L, "testUser", "test@example.com", "John", "Doe", null, null, new Date(), null, AccountStatus.ACTIVE, Role.USER,
+                topicId, "topic", "topic description", new Date(), null,
+                id == 1L ? 1L : 0L, 0L
+        );
     }
 }
@@ -0,0 +1,127 @@
+package com.construction_worker_forum_back.service;
+
+import com.construction_worker_forum_back.model.dto.projection.PostRelationRow;
+import com.construction_worker_forum_back.repository.CommentRepository;
+import com.construction_worker_forum_back.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import redis.embedded.RedisServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the Lua scripts of the service against an embedded Redis.
+ */
+class ReactionSetServiceTest {
+
+    private static final int PORT = 6391;
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private RedisServer redisServer;
+    private JedisConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private ReactionSetService reactionSetService;
+
+    @BeforeEach
+    void setUp() {
+        redisServer = new RedisServer(PORT);
+        redisServer.start();
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("localhost", PORT));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        reactionSetService = new ReactionSetService(redisTemplate, postRepository, commentRepository, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    private void rollBack() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    @Test
+    void itShouldLoadSetFromDatabaseBeforeFirstChange() {
+        //given
+        given(postRepository.findLikersOfPosts(List.of(1L))).willReturn(List.of(
+                new PostRelationRow(1L, 2L, "obi"),
+                new PostRelationRow(1L, 3L, "anakin")));
+
+        //when
+        Optional<Boolean> added = reactionSetService.addPostLiker(1L, 4L);
+        Optional<Boolean> addedAgain = reactionSetService.addPostLiker(1L, 2L);
+
+        //then
+        assertEquals(Optional.of(true), added);
+        assertEquals(Optional.of(false), addedAgain);
+        assertEquals(Set.of("0", "2", "3", "4"), redisTemplate.opsForSet().members("post:1:likers"));
+        assertTrue(redisTemplate.getExpire("post:1:likers") > 0);
+        verify(postRepository, times(1)).findLikersOfPosts(List.of(1L));
+    }
+
+    @Test
+    void itShouldLoadSetAgainWhenItWasEvictedBetweenChanges() {
+        //given
+        given(commentRepository.findLikerIdsOfComment(1L)).willReturn(List.of(2L));
+        reactionSetService.addCommentLiker(1L, 3L);
+        reactionSetService.evictCommentLikers(List.of(1L));
+        given(commentRepository.findLikerIdsOfComment(1L)).willReturn(List.of(2L, 3L));
+
+        //when
+        Optional<Boolean> removed = reactionSetService.removeCommentLiker(1L, 2L);
+
+        //then
+        assertEquals(Optional.of(true), removed);
+        assertEquals(Set.of("0", "3"), redisTemplate.opsForSet().members("comment:1:likers"));
+    }
+
+    @Test
+    void itShouldRevertChangeOfLoadedSetOnRollback() {
+        //given
+        given(postRepository.findFollowersOfPosts(List.of(1L))).willReturn(List.of(new PostRelationRow(1L, 2L, "obi")));
+        TransactionSynchronizationManager.initSynchronization();
+        reactionSetService.addPostFollower(1L, 3L);
+
+        //when
+        rollBack();
+
+        //then
+        assertEquals(Set.of("0", "2"), redisTemplate.opsForSet().members("post:1:followers"));
+    }
+
+    @Test
+    void itShouldNotRecreateEvictedSetWhenRevertingOnRollback() {
+        //given
+        given(postRepository.findLikersOfPosts(List.of(1L))).willReturn(List.of(new PostRelationRow(1L, 2L, "obi")));
+        TransactionSynchronizationManager.initSynchronization();
+        reactionSetService.removePostLiker(1L, 2L);
+        reactionSetService.evictPostLikers(List.of(1L));
+
+        //when
+        rollBack();
+
+        //then
+        assertEquals(Boolean.FALSE, redisTemplate.hasKey("post:1:likers"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.construction_worker_forum_back.service;
 
+import com.construction_worker_forum_back.model.PageCursor;
 import com.construction_worker_forum_back.model.dto.TopicDto;
 import com.construction_worker_forum_back.model.dto.TopicRequestDto;
 import com.construction_worker_forum_back.model.dto.UserDto;
@@ -14,7 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -36,6 +39,8 @@ public class TopicServiceTest {
     private UserService userService;
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private ListCacheVersionService listCacheVersionService;
     @InjectMocks
     private TopicService topicService;
 
@@ -538,4 +543,43 @@ public class TopicServiceTest {
         verify(modelMapper, atLeastOnce()).map(topics.get(4), TopicDto.class);
         verify(topicRepository, only()).findAll(paginatedAndSortedTopicsAscending);
     }
+
+    @Test
+    void itShouldGetTopicsByCursor() {
+        //Given
+        List<Topic> topicList = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Topic topic = new Topic();
+            topic.setId(id);
+            topic.setCreatedAt(new Date(id * 1000));
+            topicList.add(topic);
+        }
+        given(topicRepository.findAllBy(PageRequest.of(0, 3, PageCursor.keysetSort(Sort.Direction.DESC))))
+                .willReturn(topicList);
+        given(topicRepository.findTopicsBefore(new Date(2000), 2L, PageRequest.of(0, 3)))
+                .willReturn(List.of(topicList.get(2)));
+
+        //When
+        var firstPage = topicService.getTopicsByCursor(Optional.empty(), 2, Optional.empty());
+        var secondPage = topicService.getTopicsByCursor(Optional.of(firstPage.getNextCursor()), 2, Optional.empty());
+
+        //Then
+        assertEquals(2, firstPage.getContent().size());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(1, secondPage.getContent().size());
+        assertFalse(secondPage.isHasNext());
+        assertNull(secondPage.getNextCursor());
+        verify(topicRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void itShouldRejectInvalidCursor() {
+        //When
+        var exception = assertThrows(ResponseStatusException.class,
+                () -> topicService.getTopicsByCursor(Optional.of("not a cursor"), 2, Optional.empty()));
+
+        //Then
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
 }
+
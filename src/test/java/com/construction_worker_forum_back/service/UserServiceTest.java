@@ -7,6 +7,8 @@ import com.construction_worker_forum_back.model.dto.simple.BioSimpleDto;
 import com.construction_worker_forum_back.model.entity.Post;
 import com.construction_worker_forum_back.model.entity.User;
 import com.construction_worker_forum_back.model.security.AccountStatus;
+import com.construction_worker_forum_back.repository.CommentRepository;
+import com.construction_worker_forum_back.repository.PostRepository;
 import com.construction_worker_forum_back.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +37,12 @@ public class UserServiceTest {
 
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ListCacheVersionService listCacheVersionService;
 
     @InjectMocks
     private UserService userService;
@@ -145,6 +153,8 @@ public class UserServiceTest {
         given(userRepository.findByUsername(user.getUsername())).willReturn(Optional.of(user));
         given(modelMapper.map(user, UserDto.class)).willReturn(userDto);
         given(userRepository.save(user)).willReturn(user);
+        given(postRepository.findTopicIdsOfUserPosts(user.getId())).willReturn(List.of(2L, 3L));
+        given(commentRepository.findPostIdsOfUserComments(user.getId())).willReturn(List.of(4L));
 
         //When
         var expected = userService.changeBio(user.getUsername(), bioSimpleDto);
@@ -155,6 +165,10 @@ public class UserServiceTest {
 
         verify(userRepository, atLeastOnce()).save(user);
         verify(modelMapper, atLeastOnce()).map(user, UserDto.class);
+        verify(listCacheVersionService).bumpTopics();
+        verify(listCacheVersionService).bumpTopicPosts(2L);
+        verify(listCacheVersionService).bumpTopicPosts(3L);
+        verify(listCacheVersionService).bumpPostComments(4L);
     }
 
 